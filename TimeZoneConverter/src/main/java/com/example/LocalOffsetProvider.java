@@ -0,0 +1,24 @@
+package com.example;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Offsets from the tz database bundled with the JRE. No I/O, correct for
+ * any date, and the default.
+ */
+public class LocalOffsetProvider implements OffsetProvider {
+
+    @Override
+    public ZoneOffset offsetAt(String zoneId, Instant instant) {
+        return ZoneId.of(zoneId).getRules().getOffset(instant);
+    }
+
+    /** Resolves gaps and overlaps the way {@link java.time.ZonedDateTime#of} does. */
+    @Override
+    public Instant toInstant(String zoneId, LocalDateTime localDateTime) {
+        return localDateTime.atZone(ZoneId.of(zoneId)).toInstant();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Supplies the UTC offset of a time zone (an IANA ID such as
+ * "Europe/London") at a given instant.
+ */
+public interface OffsetProvider {
+
+    ZoneOffset offsetAt(String zoneId, Instant instant) throws IOException;
+
+    /**
+     * The instant a wall-clock time in {@code zoneId} refers to. The default
+     * implementation looks up the offset twice, which settles on the right
+     * offset everywhere except inside a DST gap or overlap.
+     */
+    default Instant toInstant(String zoneId, LocalDateTime localDateTime) throws IOException {
+        ZoneOffset guess = offsetAt(zoneId, localDateTime.toInstant(ZoneOffset.UTC));
+        Instant instant = localDateTime.toInstant(guess);
+        ZoneOffset actual = offsetAt(zoneId, instant);
+        return actual.equals(guess) ? instant : localDateTime.toInstant(actual);
+    }
+
+    /** Converts a wall-clock time in {@code fromZone} to the wall-clock time in {@code toZone}. */
+    default LocalDateTime convert(LocalDateTime localDateTime, String fromZone, String toZone) throws IOException {
+        Instant instant = toInstant(fromZone, localDateTime);
+        return LocalDateTime.ofInstant(instant, offsetAt(toZone, instant));
+    }
+}
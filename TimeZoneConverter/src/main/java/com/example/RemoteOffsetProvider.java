@@ -0,0 +1,151 @@
+package com.example;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Offsets from worldtimeapi.org (or a compatible server).
+ *
+ * A zone's answer (standard offset, DST offset and, while DST is in force,
+ * the DST period) is cached for a TTL and reused for every conversion in
+ * that zone; concurrent lookups of the same zone share one request. The API
+ * only describes the current DST period, so offsets for dates outside it
+ * assume standard time; use {@link LocalOffsetProvider} where that matters.
+ */
+public class RemoteOffsetProvider implements OffsetProvider {
+
+    public static final String DEFAULT_BASE_URL = "http://worldtimeapi.org/api/timezone/";
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /** What the API says about one zone. */
+    static final class ZoneInfo {
+        final int rawOffset;
+        final int dstOffset;
+        final Instant dstFrom;
+        final Instant dstUntil;
+        final long expiresAtMillis;
+
+        ZoneInfo(int rawOffset, int dstOffset, Instant dstFrom, Instant dstUntil, long expiresAtMillis) {
+            this.rawOffset = rawOffset;
+            this.dstOffset = dstOffset;
+            this.dstFrom = dstFrom;
+            this.dstUntil = dstUntil;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        ZoneOffset offsetAt(Instant instant) {
+            boolean dst = dstFrom != null && dstUntil != null && !instant.isBefore(dstFrom)
+                    && instant.isBefore(dstUntil);
+            return ZoneOffset.ofTotalSeconds(dst ? rawOffset + dstOffset : rawOffset);
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String baseUrl;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, ZoneInfo> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<ZoneInfo>> inFlight = new ConcurrentHashMap<>();
+
+    public RemoteOffsetProvider() {
+        this(new OkHttpClient(), DEFAULT_BASE_URL, DEFAULT_TTL_MILLIS);
+    }
+
+    public RemoteOffsetProvider(OkHttpClient client, String baseUrl, long ttlMillis) {
+        this(client, baseUrl, ttlMillis, System::currentTimeMillis);
+    }
+
+    RemoteOffsetProvider(OkHttpClient client, String baseUrl, long ttlMillis, LongSupplier clock) {
+        this.client = client;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public ZoneOffset offsetAt(String zoneId, Instant instant) throws IOException {
+        return zoneInfo(zoneId).offsetAt(instant);
+    }
+
+    ZoneInfo zoneInfo(String zoneId) throws IOException {
+        ZoneInfo cached = cache.get(zoneId);
+        if (cached != null && clock.getAsLong() < cached.expiresAtMillis) {
+            return cached;
+        }
+        CompletableFuture<ZoneInfo> request = new CompletableFuture<>();
+        CompletableFuture<ZoneInfo> existing = inFlight.putIfAbsent(zoneId, request);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            ZoneInfo fetched = fetch(zoneId);
+            cache.put(zoneId, fetched);
+            inFlight.remove(zoneId, request);
+            request.complete(fetched);
+            return fetched;
+        } catch (IOException | RuntimeException e) {
+            inFlight.remove(zoneId, request);
+            request.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private ZoneInfo fetch(String zoneId) throws IOException {
+        Request request = new Request.Builder().url(baseUrl + zoneId).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new IOException("Unexpected code " + response);
+            }
+            JsonObject json = JsonParser.parseString(response.body().string()).getAsJsonObject();
+            int rawOffset = json.get("raw_offset").getAsInt();
+            int dstOffset = json.has("dst_offset") ? json.get("dst_offset").getAsInt() : 0;
+            Instant dstFrom = instant(json.get("dst_from"));
+            Instant dstUntil = instant(json.get("dst_until"));
+            long expiresAt = clock.getAsLong() + ttlMillis;
+            // The answer changes when DST ends, so do not cache past that.
+            if (dstUntil != null) {
+                expiresAt = Math.max(clock.getAsLong(), Math.min(expiresAt, dstUntil.toEpochMilli()));
+            }
+            return new ZoneInfo(rawOffset, dstOffset, dstFrom, dstUntil, expiresAt);
+        } catch (IllegalStateException | NullPointerException | UnsupportedOperationException e) {
+            throw new IOException("Unexpected response for " + zoneId + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Instant instant(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        return OffsetDateTime.parse(value.getAsString()).toInstant();
+    }
+
+    private static ZoneInfo await(CompletableFuture<ZoneInfo> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for offset lookup", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -1,21 +1,47 @@
 package com.example;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import javafx.application.Application;
-import javafx.geometry.HPos;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
-import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+/**
+ * Converts a time on a chosen date between time zones.
+ *
+ * Offsets come from an {@link OffsetProvider}: the JRE's tz database by
+ * default, or worldtimeapi.org (cached per zone) when started with
+ * {@code -Dconverter.offsets=remote}; {@code -Dconverter.remoteUrl} points
+ * the remote provider at another server.
+ */
 public class TimeZoneConverter extends Application {
 
-    private OkHttpClient client = new OkHttpClient();
-    private Gson gson = new Gson();
+    private final OffsetProvider offsets;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "offset-lookup");
+        thread.setDaemon(true);
+        return thread;
+    });
     private Map<String, String> zoneToApi = new HashMap<>();
 
     public TimeZoneConverter() {
+        this(createOffsetProvider());
+    }
+
+    TimeZoneConverter(OffsetProvider offsets) {
+        this.offsets = offsets;
         zoneToApi.put("GMT", "Etc/GMT");
         zoneToApi.put("BST", "Europe/London");
         zoneToApi.put("CET", "Europe/Paris");
@@ -33,6 +59,15 @@ public class TimeZoneConverter extends Application {
         zoneToApi.put("HST", "Pacific/Honolulu");
     }
 
+    static OffsetProvider createOffsetProvider() {
+        if (!"remote".equalsIgnoreCase(System.getProperty("converter.offsets", "local"))) {
+            return new LocalOffsetProvider();
+        }
+        return new RemoteOffsetProvider(new okhttp3.OkHttpClient(),
+                System.getProperty("converter.remoteUrl", RemoteOffsetProvider.DEFAULT_BASE_URL),
+                RemoteOffsetProvider.DEFAULT_TTL_MILLIS);
+    }
+
     @Override
     public void start(Stage primaryStage) {
         VBox root = new VBox(10);
@@ -84,27 +119,33 @@ public class TimeZoneConverter extends Application {
                 "HST: Hawaii-Aleutian Standard Time (UTC-10)");
         toZoneChoiceBox.setValue("GMT: Greenwich Mean Time (UTC+0)");
 
+        DatePicker datePicker = new DatePicker(LocalDate.now());
+
         Button convertButton = new Button("Convert");
 
         Label resultLabel = new Label();
 
         convertButton.setOnAction(e -> {
-            try {
-                String selectedTime = timeComboBox.getValue();
-                String time = convertTo24HourFormat(selectedTime);
-                String fromZoneFull = fromZoneChoiceBox.getValue();
-                String toZoneFull = toZoneChoiceBox.getValue();
-                String fromZone = fromZoneFull.split(":")[0];
-                String toZone = toZoneFull.split(":")[0];
-                String convertedTime = convertTime(time, fromZone, toZone);
-                resultLabel.setText("Converted Time: " + convertedTime);
-            } catch (Exception ex) {
-                resultLabel.setText("Error: " + ex.getMessage());
-            }
+            LocalDate date = datePicker.getValue() != null ? datePicker.getValue() : LocalDate.now();
+            LocalDateTime time = date.atTime(convertTo24HourFormat(timeComboBox.getValue()));
+            String fromZone = fromZoneChoiceBox.getValue().split(":")[0];
+            String toZone = toZoneChoiceBox.getValue().split(":")[0];
+            // The remote provider may block on the network, so stay off the FX thread.
+            worker.execute(() -> {
+                String text;
+                try {
+                    text = "Converted Time: " + convertTime(time, fromZone, toZone);
+                } catch (Exception ex) {
+                    text = "Error: " + ex.getMessage();
+                }
+                String result = text;
+                Platform.runLater(() -> resultLabel.setText(result));
+            });
         });
 
         root.getChildren().addAll(
                 new Label("Time Zone Converter"),
+                datePicker,
                 timeComboBox,
                 fromZoneChoiceBox,
                 toZoneChoiceBox,
@@ -117,7 +158,7 @@ public class TimeZoneConverter extends Application {
         primaryStage.show();
     }
 
-    private String convertTo24HourFormat(String time12Hour) {
+    private LocalTime convertTo24HourFormat(String time12Hour) {
         String[] parts = time12Hour.split(" ");
         String timePart = parts[0];
         String amPm = parts[1];
@@ -131,49 +172,33 @@ public class TimeZoneConverter extends Application {
             hour = 0;
         }
 
-        return String.format("2023-01-01 %02d:%02d:00", hour, minute);
+        return LocalTime.of(hour, minute);
     }
 
-    private String getOffset(String zone) throws IOException {
+    private String zoneId(String zone) {
         String apiZone = zoneToApi.get(zone);
-        if (apiZone == null)
-            return "+00:00";
-        Request request = new Request.Builder()
-                .url("http://worldtimeapi.org/api/timezone/" + apiZone)
-                .build();
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful())
-                throw new IOException("Unexpected code " + response);
-            String json = response.body().string();
-            Map<String, Object> map = gson.fromJson(json, new TypeToken<Map<String, Object>>() {
-            }.getType());
-            return (String) map.get("utc_offset");
-        }
+        return apiZone != null ? apiZone : "Etc/UTC";
     }
 
-    private int parseOffset(String offset) {
-        String[] parts = offset.split(":");
-        int hours = Integer.parseInt(parts[0]);
-        int mins = Integer.parseInt(parts[1]);
-        return hours * 60 + mins;
+    /**
+     * Converts using the offsets in force on the chosen date, and notes when
+     * the result falls on a different day.
+     */
+    String convertTime(LocalDateTime time, String fromZone, String toZone) throws IOException {
+        LocalDateTime converted = offsets.convert(time, zoneId(fromZone), zoneId(toZone));
+        String result = String.format("%02d:%02d", converted.getHour(), converted.getMinute());
+        long days = ChronoUnit.DAYS.between(time.toLocalDate(), converted.toLocalDate());
+        if (days == 1) {
+            result += " (next day)";
+        } else if (days == -1) {
+            result += " (previous day)";
+        }
+        return result;
     }
 
-    private String convertTime(String time, String fromZone, String toZone) throws IOException {
-        String fromOffsetStr = getOffset(fromZone);
-        String toOffsetStr = getOffset(toZone);
-        int fromOff = parseOffset(fromOffsetStr);
-        int toOff = parseOffset(toOffsetStr);
-        String[] parts = time.split(" ");
-        String timeStr = parts[1];
-        String[] hm = timeStr.split(":");
-        int hour = Integer.parseInt(hm[0]);
-        int min = Integer.parseInt(hm[1]);
-        int localMins = hour * 60 + min;
-        int utcMins = localMins - fromOff;
-        int targetMins = utcMins + toOff;
-        int targetHour = (targetMins / 60) % 24;
-        int targetMin = targetMins % 60;
-        return String.format("%02d:%02d", targetHour, targetMin);
+    @Override
+    public void stop() {
+        worker.shutdownNow();
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,45 @@
+package com.example;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import junit.framework.TestCase;
+
+public class LocalOffsetProviderTest extends TestCase {
+
+    private final LocalOffsetProvider provider = new LocalOffsetProvider();
+
+    public void testOffsetFollowsDstForTheDate() {
+        assertEquals(ZoneOffset.UTC, provider.offsetAt("Europe/London", Instant.parse("2023-01-15T12:00:00Z")));
+        assertEquals(ZoneOffset.ofHours(1), provider.offsetAt("Europe/London", Instant.parse("2023-07-15T12:00:00Z")));
+        assertEquals(ZoneOffset.ofHours(11),
+                provider.offsetAt("Australia/Sydney", Instant.parse("2023-01-15T12:00:00Z")));
+        assertEquals(ZoneOffset.ofHours(10),
+                provider.offsetAt("Australia/Sydney", Instant.parse("2023-07-15T12:00:00Z")));
+    }
+
+    public void testConvertUsesOffsetsOfBothZonesOnTheDate() throws Exception {
+        // London is on BST while Sydney is on standard time.
+        assertEquals(LocalDateTime.of(2023, 7, 1, 19, 0),
+                provider.convert(LocalDateTime.of(2023, 7, 1, 10, 0), "Europe/London", "Australia/Sydney"));
+        // And the other way round in January.
+        assertEquals(LocalDateTime.of(2023, 1, 1, 21, 0),
+                provider.convert(LocalDateTime.of(2023, 1, 1, 10, 0), "Europe/London", "Australia/Sydney"));
+    }
+
+    public void testGapResolvesLikeZonedDateTime() throws Exception {
+        // 01:30 does not exist in London on 2023-03-26; it is shifted forward an hour.
+        assertEquals(Instant.parse("2023-03-26T01:30:00Z"),
+                provider.toInstant("Europe/London", LocalDateTime.of(2023, 3, 26, 1, 30)));
+    }
+
+    public void testConverterReportsDayChange() throws Exception {
+        TimeZoneConverter converter = new TimeZoneConverter(provider);
+        assertEquals("09:00 (next day)",
+                converter.convertTime(LocalDateTime.of(2023, 1, 1, 22, 0), "GMT", "AEDT"));
+        assertEquals("21:00 (previous day)",
+                converter.convertTime(LocalDateTime.of(2023, 7, 1, 1, 0), "BST", "AST"));
+        assertEquals("15:30", converter.convertTime(LocalDateTime.of(2023, 6, 1, 10, 0), "GMT", "IST"));
+    }
+}
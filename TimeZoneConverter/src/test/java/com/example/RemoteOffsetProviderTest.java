@@ -0,0 +1,140 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import junit.framework.TestCase;
+import okhttp3.OkHttpClient;
+
+public class RemoteOffsetProviderTest extends TestCase {
+
+    private static final String LONDON_JSON = "{\"timezone\":\"Europe/London\",\"utc_offset\":\"+01:00\","
+            + "\"raw_offset\":0,\"dst\":true,\"dst_offset\":3600,"
+            + "\"dst_from\":\"2023-03-26T01:00:00+00:00\",\"dst_until\":\"2023-10-29T01:00:00+00:00\"}";
+    private static final String KOLKATA_JSON = "{\"timezone\":\"Asia/Kolkata\",\"utc_offset\":\"+05:30\","
+            + "\"raw_offset\":19800,\"dst\":false,\"dst_offset\":0,\"dst_from\":null,\"dst_until\":null}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final AtomicLong now = new AtomicLong(Instant.parse("2023-06-01T00:00:00Z").toEpochMilli());
+
+    @Override
+    protected void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/timezone/", this::serve);
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop(0);
+    }
+
+    public void testOffsetsFollowReportedDstPeriod() throws Exception {
+        RemoteOffsetProvider provider = newProvider(TimeUnit.HOURS.toMillis(1));
+        assertEquals(ZoneOffset.ofHours(1), provider.offsetAt("Europe/London", Instant.parse("2023-07-01T12:00:00Z")));
+        assertEquals(ZoneOffset.UTC, provider.offsetAt("Europe/London", Instant.parse("2023-12-01T12:00:00Z")));
+        assertEquals(ZoneOffset.ofHoursMinutes(5, 30),
+                provider.offsetAt("Asia/Kolkata", Instant.parse("2023-07-01T12:00:00Z")));
+    }
+
+    public void testCachesPerZoneUntilTtlExpires() throws Exception {
+        RemoteOffsetProvider provider = newProvider(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 5; i++) {
+            provider.offsetAt("Asia/Kolkata", Instant.now());
+        }
+        assertEquals(1, requests.get());
+
+        now.addAndGet(TimeUnit.HOURS.toMillis(1) + 1);
+        provider.offsetAt("Asia/Kolkata", Instant.now());
+        assertEquals(2, requests.get());
+    }
+
+    public void testDoesNotCachePastEndOfDst() throws Exception {
+        RemoteOffsetProvider provider = newProvider(TimeUnit.DAYS.toMillis(365));
+        provider.offsetAt("Europe/London", Instant.now());
+        now.set(Instant.parse("2023-10-29T01:00:00Z").toEpochMilli());
+        provider.offsetAt("Europe/London", Instant.now());
+        assertEquals(2, requests.get());
+    }
+
+    public void testConcurrentLookupsShareOneRequest() throws Exception {
+        RemoteOffsetProvider provider = newProvider(TimeUnit.HOURS.toMillis(1));
+        release = new CountDownLatch(1);
+        List<CompletableFuture<ZoneOffset>> lookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return provider.offsetAt("Asia/Kolkata", Instant.now());
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        Thread.sleep(200);
+        release.countDown();
+        for (CompletableFuture<ZoneOffset> lookup : lookups) {
+            assertEquals(ZoneOffset.ofHoursMinutes(5, 30), lookup.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, requests.get());
+    }
+
+    public void testFailureIsNotCached() throws Exception {
+        RemoteOffsetProvider provider = newProvider(TimeUnit.HOURS.toMillis(1));
+        try {
+            provider.offsetAt("Nowhere/Special", Instant.now());
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+        try {
+            provider.offsetAt("Nowhere/Special", Instant.now());
+            fail("expected IOException");
+        } catch (IOException expected) {
+        }
+        assertEquals(2, requests.get());
+    }
+
+    private RemoteOffsetProvider newProvider(long ttlMillis) {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/timezone/";
+        return new RemoteOffsetProvider(new OkHttpClient(), base, ttlMillis, now::get);
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        String json = path.endsWith("Europe/London") ? LONDON_JSON
+                : path.endsWith("Asia/Kolkata") ? KOLKATA_JSON : null;
+        if (json == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package benchmarks;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import client.AsyncConverter;
+import server.ConversionEngine;
+import server.EndpointGroup;
+import server.RequestDispatcher;
+import server.TimeZoneConverter;
+
+/**
+ * {@code callers} concurrent conversions over loopback, through the blocking
+ * stub with one virtual thread per caller and through an
+ * {@link AsyncConverter} that coalesces them into batch calls.
+ *
+ * Each invocation is a round in which every caller converts once, so run it
+ * with one JMH thread ({@code -t 1}). The {@code conversions} counter is the
+ * resulting conversions per second and {@code remoteCalls} the RMI calls
+ * per second it took.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.rmi.server.hostname=127.0.0.1")
+public class AsyncConverterBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int callers;
+
+    @Param({ "4" })
+    public int maxInFlight;
+
+    private LoopbackRegistry registry;
+    private EndpointGroup group;
+    private TimeZoneConverter stub;
+    private AsyncConverter converter;
+    private ExecutorService threads;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long conversions;
+        public long remoteCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conversions = 0;
+            remoteCalls = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws RemoteException, NotBoundException {
+        registry = LoopbackRegistry.create();
+        group = EndpointGroup.export(new ConversionEngine(), RequestDispatcher.direct(), 1, 0, null);
+        group.bind(registry.registry(), "TimeZoneConverter");
+        stub = registry.lookup("TimeZoneConverter");
+        converter = new AsyncConverter(Collections.singletonList(stub), maxInFlight,
+                AsyncConverter.DEFAULT_MAX_BATCH_SIZE);
+        threads = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException {
+        threads.shutdownNow();
+        converter.close();
+        group.unexport();
+        registry.close();
+    }
+
+    @Benchmark
+    public void blocking(Counters counters) throws InterruptedException, ExecutionException {
+        List<Future<String>> running = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            running.add(threads.submit(
+                    () -> stub.convertTime("2024-06-01 12:00:00", "America/New_York", "Asia/Tokyo")));
+        }
+        for (Future<String> future : running) {
+            future.get();
+        }
+        counters.conversions += callers;
+        counters.remoteCalls += callers;
+    }
+
+    @Benchmark
+    public void async(Counters counters) {
+        long callsBefore = converter.getCalls();
+        CompletableFuture<?>[] running = new CompletableFuture<?>[callers];
+        for (int i = 0; i < callers; i++) {
+            running[i] = converter.convertTime("2024-06-01 12:00:00", "America/New_York", "Asia/Tokyo");
+        }
+        CompletableFuture.allOf(running).join();
+        counters.conversions += callers;
+        counters.remoteCalls += converter.getCalls() - callsBefore;
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.io.File;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count and writes one JSON result file
+ * per run, e.g. {@code jmh-results/threads-4.json}, for comparing releases.
+ *
+ * <pre>
+ * java -Dbench.threads=1,4,16 -Dbench.include=RmiRoundTrip -cp benchmarks/target/benchmarks.jar benchmarks.BenchmarkMain
+ * </pre>
+ *
+ * Properties: {@code bench.threads} (default 1,4), {@code bench.include}
+ * (benchmark name regex, default all) and {@code bench.out} (default
+ * jmh-results).
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("bench.include", "benchmarks\\..*Benchmark");
+        File outDir = new File(System.getProperty("bench.out", "jmh-results"));
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + outDir);
+        }
+        for (String threads : System.getProperty("bench.threads", "1,4").split(",")) {
+            int count = Integer.parseInt(threads.trim());
+            File result = new File(outDir, "threads-" + count + ".json");
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(count)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.getPath())
+                    .build();
+            new Runner(options).run();
+            System.out.println("Wrote " + result);
+        }
+    }
+}
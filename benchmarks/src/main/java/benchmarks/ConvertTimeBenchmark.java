@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.TimeZoneConverterImpl;
+
+/**
+ * {@link TimeZoneConverterImpl#convertTime} called in-process, i.e. the server
+ * side of a call without RMI marshalling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvertTimeBenchmark {
+
+    /** Number of distinct zones in the inputs; 0 means all of them. */
+    @Param({ "8", "64", "0" })
+    public int zoneCount;
+
+    private Workload workload;
+    private TimeZoneConverterImpl converter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.create(zoneCount);
+        converter = TimeZoneConverterImpl.createInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws NoSuchObjectException {
+        UnicastRemoteObject.unexportObject(converter, true);
+    }
+
+    @Benchmark
+    public String convertTime(Cursor cursor) throws RemoteException {
+        int i = cursor.next();
+        return converter.convertTime(workload.times[i], workload.fromZones[i], workload.toZones[i]);
+    }
+}
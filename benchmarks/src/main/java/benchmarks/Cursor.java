@@ -0,0 +1,17 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Per-thread position in the {@link Workload} inputs. */
+@State(Scope.Thread)
+public class Cursor {
+
+    private int next;
+
+    int next() {
+        int i = next;
+        next = (i + 1) & (Workload.INPUTS - 1);
+        return i;
+    }
+}
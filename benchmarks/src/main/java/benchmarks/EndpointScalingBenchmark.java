@@ -0,0 +1,118 @@
+package benchmarks;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.ConversionEngine;
+import server.EndpointGroup;
+import server.RequestDispatcher;
+import server.TimeZoneConverter;
+
+/**
+ * Loopback convertTime throughput as the number of exported endpoints grows,
+ * with {@code callersPerEndpoint} callers on each endpoint's stub.
+ *
+ * The callers are threads of the benchmark's own, so run it with one JMH
+ * thread ({@code -t 1}). Each invocation is a round in which every caller
+ * makes {@link #CALLS_PER_ROUND} calls; the {@code calls} counter is the
+ * resulting calls per second over all callers.
+ *
+ * Client and server share the machine here, so scaling flattens once callers
+ * and endpoints together use up the cores; for clean numbers run the server
+ * with {@code --endpoints=N} and {@code loadgen.LoadGenerator
+ * --bindName=TimeZoneConverter-*} on separate machines or core sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.rmi.server.hostname=127.0.0.1")
+public class EndpointScalingBenchmark {
+
+    static final int CALLS_PER_ROUND = 32;
+
+    @Param({ "1", "2", "4", "8" })
+    public int endpoints;
+
+    @Param({ "2" })
+    public int callersPerEndpoint;
+
+    private LoopbackRegistry registry;
+    private EndpointGroup group;
+    private List<TimeZoneConverter> stubs;
+    private ExecutorService callers;
+
+    /** Calls made over all callers, reported per second. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Calls {
+        public long calls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            calls = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws RemoteException, NotBoundException {
+        registry = LoopbackRegistry.create();
+        group = EndpointGroup.export(new ConversionEngine(), RequestDispatcher.direct(), endpoints, 0, null);
+        group.bind(registry.registry(), "TimeZoneConverter");
+        stubs = new ArrayList<>();
+        for (int i = 0; i < endpoints; i++) {
+            stubs.add(registry.lookup(endpoints == 1 ? "TimeZoneConverter"
+                    : EndpointGroup.indexedName("TimeZoneConverter", i)));
+        }
+        callers = Executors.newFixedThreadPool(endpoints * callersPerEndpoint);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException {
+        callers.shutdownNow();
+        group.unexport();
+        registry.close();
+    }
+
+    @Benchmark
+    public void round(Calls counter) throws InterruptedException, ExecutionException {
+        int count = endpoints * callersPerEndpoint;
+        List<Future<?>> running = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            TimeZoneConverter stub = stubs.get(c % endpoints);
+            running.add(callers.submit(() -> {
+                for (int i = 0; i < CALLS_PER_ROUND; i++) {
+                    stub.convertTime("2024-06-01 12:00:00", "America/New_York", "Asia/Tokyo");
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : running) {
+            future.get();
+        }
+        counter.calls += (long) count * CALLS_PER_ROUND;
+    }
+}
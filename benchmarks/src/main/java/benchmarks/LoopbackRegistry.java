@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NotBoundException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.RMIServerSocketFactory;
+import java.rmi.server.UnicastRemoteObject;
+
+/**
+ * An RMI registry on a free port in the benchmark JVM. It listens on port 0
+ * and records the port the OS picked.
+ */
+final class LoopbackRegistry {
+
+    private final Registry registry;
+    private final int port;
+
+    private LoopbackRegistry(Registry registry, int port) {
+        this.registry = registry;
+        this.port = port;
+    }
+
+    static LoopbackRegistry create() throws RemoteException {
+        PortRecordingSocketFactory factory = new PortRecordingSocketFactory();
+        Registry registry = LocateRegistry.createRegistry(0, null, factory);
+        return new LoopbackRegistry(registry, factory.port);
+    }
+
+    Registry registry() {
+        return registry;
+    }
+
+    /** Looks {@code name} up through a client-side stub, as a remote caller would. */
+    <T extends Remote> T lookup(String name) throws RemoteException, NotBoundException {
+        @SuppressWarnings("unchecked")
+        T stub = (T) LocateRegistry.getRegistry("127.0.0.1", port).lookup(name);
+        return stub;
+    }
+
+    void close() throws RemoteException {
+        UnicastRemoteObject.unexportObject(registry, true);
+    }
+
+    private static final class PortRecordingSocketFactory implements RMIServerSocketFactory {
+        private volatile int port;
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            ServerSocket socket = new ServerSocket(port);
+            this.port = socket.getLocalPort();
+            return socket;
+        }
+    }
+}
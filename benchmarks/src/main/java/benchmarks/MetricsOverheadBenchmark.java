@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.RequestDispatcher;
+import server.ServerConfig;
+import server.metrics.ServerMetrics;
+
+/**
+ * Cost of recording a call in {@link ServerMetrics}: the same trivial call
+ * dispatched with and without metrics. The difference is the per-call
+ * instrumentation overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean metricsEnabled;
+
+    private RequestDispatcher dispatcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ServerMetrics metrics = metricsEnabled ? new ServerMetrics(16) : null;
+        dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.DIRECT, 0, 0, metrics);
+    }
+
+    @Benchmark
+    public String dispatch() throws RemoteException {
+        return dispatcher.execute("convertTime", () -> "ok");
+    }
+
+    @Benchmark
+    public String dispatchWithZonePair() throws RemoteException {
+        return dispatcher.execute("convertTime", () -> {
+            ServerMetrics metrics = dispatcher.getMetrics();
+            if (metrics != null) {
+                metrics.recordZonePair("Europe/London", "Asia/Tokyo");
+            }
+            return "ok";
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.ConversionEngine;
+
+/**
+ * The string ends of a conversion: parsing the request time and formatting
+ * the result with the shared {@link ConversionEngine#FORMATTER}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseFormatBenchmark {
+
+    /** Number of distinct zones in the inputs; 0 means all of them. */
+    @Param({ "8", "64", "0" })
+    public int zoneCount;
+
+    private Workload workload;
+    private ZonedDateTime[] zoned;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.create(zoneCount);
+        zoned = new ZonedDateTime[Workload.INPUTS];
+        for (int i = 0; i < Workload.INPUTS; i++) {
+            LocalDateTime local = LocalDateTime.parse(workload.times[i], ConversionEngine.FORMATTER);
+            zoned[i] = local.atZone(ZoneId.of(workload.toZones[i]));
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime parse(Cursor cursor) {
+        return LocalDateTime.parse(workload.times[cursor.next()], ConversionEngine.FORMATTER);
+    }
+
+    @Benchmark
+    public String format(Cursor cursor) {
+        return zoned[cursor.next()].format(ConversionEngine.FORMATTER);
+    }
+}
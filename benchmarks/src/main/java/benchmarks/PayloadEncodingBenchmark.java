@@ -0,0 +1,147 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.ConversionEngine;
+import server.ConversionRequest;
+import server.ConversionRequestList;
+import server.ConversionResult;
+import server.ConversionResultList;
+
+/**
+ * Marshalling cost of a convertBatch payload: a batch of requests and the
+ * matching results written to and read back from an object stream, as RMI
+ * does for each call. The compact variants use the {@code Externalizable}
+ * encoding of the API types ({@link ConversionRequestList} as a client would
+ * send it and the {@link ConversionResultList} the server returns); the
+ * default variants use an {@code ArrayList} of look-alike {@code Serializable}
+ * classes with the same fields, i.e. the encoding the API types had before.
+ * The serialized size of each payload is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadEncodingBenchmark {
+
+    /** Default-serialized stand-in for the old ConversionRequest. */
+    static final class LegacyRequest implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String time;
+        final String fromZone;
+        final String toZone;
+
+        LegacyRequest(String time, String fromZone, String toZone) {
+            this.time = time;
+            this.fromZone = fromZone;
+            this.toZone = toZone;
+        }
+    }
+
+    /** Default-serialized stand-in for the old ConversionResult. */
+    static final class LegacyResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final String result;
+        final String error;
+
+        LegacyResult(String result, String error) {
+            this.result = result;
+            this.error = error;
+        }
+    }
+
+    @Param({ "1", "100", "10000" })
+    public int batchSize;
+
+    /** Number of distinct zones in the inputs; 0 means all of them. */
+    @Param({ "8", "0" })
+    public int zoneCount;
+
+    private ConversionRequestList requests;
+    private ConversionResultList results;
+    private ArrayList<LegacyRequest> legacyRequests;
+    private ArrayList<LegacyResult> legacyResults;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Workload workload = Workload.create(zoneCount);
+        ConversionEngine engine = new ConversionEngine();
+        List<ConversionRequest> requestItems = new ArrayList<>(batchSize);
+        List<ConversionResult> resultItems = new ArrayList<>(batchSize);
+        legacyRequests = new ArrayList<>(batchSize);
+        legacyResults = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            int n = i % Workload.INPUTS;
+            String time = workload.times[n];
+            String result = engine.convert(time, workload.fromZones[n], workload.toZones[n]);
+            requestItems.add(new ConversionRequest(time, workload.fromZones[n], workload.toZones[n]));
+            resultItems.add(ConversionResult.success(result));
+            legacyRequests.add(new LegacyRequest(time, workload.fromZones[n], workload.toZones[n]));
+            legacyResults.add(new LegacyResult(result, null));
+        }
+        requests = new ConversionRequestList(requestItems);
+        results = new ConversionResultList(resultItems);
+        System.out.printf("%nbytes per batch of %d: requests compact=%d default=%d, results compact=%d default=%d%n",
+                batchSize, serialize(requests).length, serialize(legacyRequests).length,
+                serialize(results).length, serialize(legacyResults).length);
+    }
+
+    @Benchmark
+    public Object requestsCompact() throws Exception {
+        return deserialize(serialize(requests));
+    }
+
+    @Benchmark
+    public Object requestsDefault() throws Exception {
+        return deserialize(serialize(legacyRequests));
+    }
+
+    @Benchmark
+    public Object resultsCompact() throws Exception {
+        return deserialize(serialize(results));
+    }
+
+    @Benchmark
+    public Object resultsDefault() throws Exception {
+        return deserialize(serialize(legacyResults));
+    }
+
+    private static byte[] serialize(List<?> payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(payload);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
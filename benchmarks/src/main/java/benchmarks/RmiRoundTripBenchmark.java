@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.TimeZoneConverter;
+import server.TimeZoneConverterImpl;
+
+/**
+ * A full convertTime call over loopback: the converter is bound in a registry
+ * started in the benchmark JVM and called through the stub looked up from it,
+ * so each call pays for marshalling, the socket round trip and dispatch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.rmi.server.hostname=127.0.0.1")
+public class RmiRoundTripBenchmark {
+
+    /** Number of distinct zones in the inputs; 0 means all of them. */
+    @Param({ "8", "64", "0" })
+    public int zoneCount;
+
+    private Workload workload;
+    private LoopbackRegistry registry;
+    private TimeZoneConverterImpl server;
+    private TimeZoneConverter stub;
+
+    @Setup(Level.Trial)
+    public void setUp() throws RemoteException, NotBoundException {
+        workload = Workload.create(zoneCount);
+        registry = LoopbackRegistry.create();
+        server = TimeZoneConverterImpl.createInstance();
+        registry.registry().rebind("TimeZoneConverter", server);
+        stub = registry.lookup("TimeZoneConverter");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws RemoteException {
+        UnicastRemoteObject.unexportObject(server, true);
+        registry.close();
+    }
+
+    @Benchmark
+    public String convertTime(Cursor cursor) throws RemoteException {
+        int i = cursor.next();
+        return stub.convertTime(workload.times[i], workload.fromZones[i], workload.toZones[i]);
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import server.ConversionEngine;
+import server.ZoneTable;
+
+/**
+ * Deterministic conversion inputs drawn from a zone set of a given size, so
+ * runs with the same parameters are comparable between releases.
+ */
+final class Workload {
+
+    static final int INPUTS = 4096;
+
+    final String[] zones;
+    final String[] times;
+    final String[] fromZones;
+    final String[] toZones;
+
+    private Workload(String[] zones, String[] times, String[] fromZones, String[] toZones) {
+        this.zones = zones;
+        this.times = times;
+        this.fromZones = fromZones;
+        this.toZones = toZones;
+    }
+
+    /**
+     * @param zoneCount how many distinct zones the inputs use; 0 or more than
+     *                  available means every zone
+     */
+    static Workload create(int zoneCount) {
+        String[] all = new ZoneTable().ids();
+        int n = zoneCount <= 0 || zoneCount > all.length ? all.length : zoneCount;
+        // Spread the picks over the sorted table rather than taking the
+        // first n, which would all be in Africa/.
+        String[] zones = new String[n];
+        for (int i = 0; i < n; i++) {
+            zones[i] = all[(int) ((long) i * all.length / n)];
+        }
+
+        Random random = new Random(42);
+        String[] times = new String[INPUTS];
+        String[] fromZones = new String[INPUTS];
+        String[] toZones = new String[INPUTS];
+        LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0);
+        for (int i = 0; i < INPUTS; i++) {
+            times[i] = base.plusSeconds(random.nextInt(30 * 365 * 86_400)).format(ConversionEngine.FORMATTER);
+            fromZones[i] = zones[random.nextInt(n)];
+            toZones[i] = zones[random.nextInt(n)];
+        }
+        return new Workload(zones, times, fromZones, toZones);
+    }
+}
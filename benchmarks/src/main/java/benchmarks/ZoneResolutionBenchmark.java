@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import server.ZoneCache;
+
+/**
+ * Resolving a zone name, uncached ({@link ZoneId#of}) and through the
+ * server's {@link ZoneCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZoneResolutionBenchmark {
+
+    /** Number of distinct zones in the inputs; 0 means all of them. */
+    @Param({ "8", "64", "0" })
+    public int zoneCount;
+
+    private Workload workload;
+    private ZoneCache zoneCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = Workload.create(zoneCount);
+        zoneCache = new ZoneCache();
+    }
+
+    @Benchmark
+    public ZoneId zoneIdOf(Cursor cursor) {
+        return ZoneId.of(workload.fromZones[cursor.next()]);
+    }
+
+    @Benchmark
+    public ZoneId zoneCache(Cursor cursor) {
+        return zoneCache.resolve(workload.fromZones[cursor.next()]);
+    }
+}
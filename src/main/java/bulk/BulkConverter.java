@@ -0,0 +1,375 @@
+package bulk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import server.ConversionEngine;
+
+/**
+ * Re-zones the timestamp columns of a large delimited text file, e.g.
+ *
+ * <pre>
+ * java -cp target/classes bulk.BulkConverter --in=events.csv --out=events-utc.csv --map=2:America/New_York:UTC
+ * </pre>
+ *
+ * The input is memory-mapped a segment at a time. Each segment is split on
+ * line boundaries into pieces that are converted in parallel on a
+ * {@link ForkJoinPool}. Segments are written out in input order, and at most
+ * {@code maxSegmentsInFlight} of them are held in memory at once.
+ *
+ * A {@code yyyy-MM-dd HH:mm:ss} timestamp is as long after conversion as
+ * before, so each piece is copied into the output buffer at the same offset
+ * and its timestamp fields are rewritten in place, without creating a String
+ * per line. Conversions use {@link ConversionEngine#convertLocalSeconds}, as
+ * {@code convertTime} does. Fields that are not a valid timestamp, or whose
+ * converted year would not fit in four digits, are left as they are and
+ * counted as invalid.
+ */
+public class BulkConverter {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    static final int PIECE_SIZE = 1 << 20;
+
+    /** Counts for a whole run or for one piece of it. */
+    public static final class Result {
+        private long rows;
+        private long converted;
+        private long invalid;
+        private long bytes;
+        private long nanos;
+
+        void add(Result other) {
+            rows += other.rows;
+            converted += other.converted;
+            invalid += other.invalid;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /** Timestamp fields converted; a row contributes one per mapped column. */
+        public long getConverted() {
+            return converted;
+        }
+
+        public long getInvalid() {
+            return invalid;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getSeconds() {
+            return nanos / 1e9;
+        }
+
+        public double getRowsPerSecond() {
+            return nanos == 0 ? 0.0 : rows / getSeconds();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows (%d timestamps converted, %d invalid) in %.2fs: %.0f rows/s, %.1f MB/s",
+                    rows, converted, invalid, getSeconds(), getRowsPerSecond(),
+                    nanos == 0 ? 0.0 : bytes / 1e6 / getSeconds());
+        }
+    }
+
+    private final ConversionEngine engine;
+    private final ColumnMapping[] mappings;
+    private final byte delimiter;
+    private final int headerLines;
+    private final int segmentSize;
+    private final int maxSegmentsInFlight;
+    private final ForkJoinPool pool;
+
+    public BulkConverter(ConversionEngine engine, List<ColumnMapping> mappings, char delimiter, int headerLines) {
+        this(engine, mappings, delimiter, headerLines, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+    }
+
+    public BulkConverter(ConversionEngine engine, List<ColumnMapping> mappings, char delimiter, int headerLines,
+            int segmentSize, ForkJoinPool pool) {
+        if (mappings.isEmpty()) {
+            throw new IllegalArgumentException("At least one column mapping is required");
+        }
+        if (delimiter > 0x7f) {
+            throw new IllegalArgumentException("Delimiter must be an ASCII character");
+        }
+        this.engine = engine;
+        this.mappings = mappings.stream()
+                .sorted(Comparator.comparingInt(ColumnMapping::getColumn))
+                .toArray(ColumnMapping[]::new);
+        this.delimiter = (byte) delimiter;
+        this.headerLines = headerLines;
+        this.segmentSize = segmentSize;
+        // Two segments per worker keeps the pool busy while the oldest is written.
+        this.maxSegmentsInFlight = Math.max(2, pool.getParallelism() * 2 * PIECE_SIZE / Math.max(segmentSize, 1));
+        this.pool = pool;
+    }
+
+    public Result convert(Path input, Path output) throws IOException {
+        long start = System.nanoTime();
+        Result total = new Result();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = copyHeader(in, out, size);
+            ArrayDeque<Segment> inFlight = new ArrayDeque<>();
+            while (position < size) {
+                Segment segment = nextSegment(in, position, size);
+                segment.task = pool.submit(new PieceTask(segment.mapped, segment.output, 0, segment.output.length));
+                inFlight.add(segment);
+                position += segment.output.length;
+                if (inFlight.size() >= maxSegmentsInFlight) {
+                    write(inFlight.poll(), out, total);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), out, total);
+            }
+            total.bytes = size;
+        }
+        total.nanos = System.nanoTime() - start;
+        return total;
+    }
+
+    private long copyHeader(FileChannel in, FileChannel out, long size) throws IOException {
+        if (headerLines == 0 || size == 0) {
+            return 0;
+        }
+        MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, segmentSize));
+        int end = 0;
+        for (int line = 0; line < headerLines && end < mapped.limit(); line++) {
+            while (end < mapped.limit() && mapped.get(end) != '\n') {
+                end++;
+            }
+            end = Math.min(end + 1, mapped.limit());
+        }
+        writeFully(out, mapped.slice(0, end));
+        return end;
+    }
+
+    /**
+     * Maps up to {@code segmentSize} bytes from {@code position}, ending after
+     * the last complete line unless the file ends first. A line longer than a
+     * segment gets a segment of its own.
+     */
+    private Segment nextSegment(FileChannel in, long position, long size) throws IOException {
+        long length = Math.min(segmentSize, size - position);
+        while (true) {
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (position + length == size) {
+                return new Segment(mapped, (int) length);
+            }
+            for (int i = (int) length - 1; i >= 0; i--) {
+                if (mapped.get(i) == '\n') {
+                    return new Segment(mapped, i + 1);
+                }
+            }
+            if (length >= Integer.MAX_VALUE - 8) {
+                throw new IOException("Line at offset " + position + " is too long");
+            }
+            length = Math.min(Math.min(length * 2, Integer.MAX_VALUE - 8), size - position);
+        }
+    }
+
+    private static void write(Segment segment, FileChannel out, Result total) throws IOException {
+        total.add(segment.task.join());
+        writeFully(out, ByteBuffer.wrap(segment.output));
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static final class Segment {
+        final MappedByteBuffer mapped;
+        final byte[] output;
+        ForkJoinTask<Result> task;
+
+        Segment(MappedByteBuffer mapped, int length) {
+            this.mapped = mapped;
+            this.output = new byte[length];
+        }
+    }
+
+    /**
+     * Converts {@code [from, to)} of a segment, which starts at a line start
+     * and ends after a newline (or at the end of the file), splitting in two
+     * on a line boundary while larger than {@link #PIECE_SIZE}.
+     */
+    private final class PieceTask extends RecursiveTask<Result> {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedByteBuffer input;
+        private final byte[] output;
+        private final int from;
+        private final int to;
+
+        PieceTask(MappedByteBuffer input, byte[] output, int from, int to) {
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > PIECE_SIZE) {
+                int split = lineStartAfter(from + (to - from) / 2);
+                if (split > from && split < to) {
+                    PieceTask left = new PieceTask(input, output, from, split);
+                    left.fork();
+                    Result result = new PieceTask(input, output, split, to).compute();
+                    result.add(left.join());
+                    return result;
+                }
+            }
+            input.get(from, output, from, to - from);
+            return convertLines(output, from, to);
+        }
+
+        private int lineStartAfter(int position) {
+            for (int i = position; i < to; i++) {
+                if (input.get(i) == '\n') {
+                    return i + 1;
+                }
+            }
+            return to;
+        }
+    }
+
+    Result convertLines(byte[] b, int from, int to) {
+        Result result = new Result();
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            while (lineEnd < to && b[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && b[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > lineStart) {
+                result.rows++;
+                convertLine(b, lineStart, contentEnd, result);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return result;
+    }
+
+    private void convertLine(byte[] b, int start, int end, Result result) {
+        int column = 0;
+        int fieldStart = start;
+        int next = 0;
+        for (int i = start; i <= end && next < mappings.length; i++) {
+            if (i < end && b[i] != delimiter) {
+                continue;
+            }
+            while (next < mappings.length && mappings[next].getColumn() == column) {
+                convertField(b, fieldStart, i, mappings[next], result);
+                next++;
+            }
+            column++;
+            fieldStart = i + 1;
+        }
+        // Columns missing from a short row count as invalid.
+        result.invalid += mappings.length - next;
+    }
+
+    private void convertField(byte[] b, int start, int end, ColumnMapping mapping, Result result) {
+        if (end - start == TimestampCodec.LENGTH + 2 && b[start] == '"' && b[end - 1] == '"') {
+            start++;
+        } else if (end - start != TimestampCodec.LENGTH) {
+            result.invalid++;
+            return;
+        }
+        long local = TimestampCodec.parse(b, start);
+        if (local == TimestampCodec.INVALID) {
+            result.invalid++;
+            return;
+        }
+        long converted = engine.convertLocalSeconds(local, mapping.getFromZone(), mapping.getToZone());
+        if (TimestampCodec.format(converted, b, start)) {
+            result.converted++;
+        } else {
+            result.invalid++;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String in = null;
+        String out = null;
+        List<ColumnMapping> mappings = new ArrayList<>();
+        char delimiter = ',';
+        int headerLines = 0;
+        int segmentSize = DEFAULT_SEGMENT_SIZE;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+            String key = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (key) {
+                case "in":
+                    in = value;
+                    break;
+                case "out":
+                    out = value;
+                    break;
+                case "map":
+                    for (String spec : value.split(";")) {
+                        mappings.add(ColumnMapping.parse(spec));
+                    }
+                    break;
+                case "delimiter":
+                    delimiter = value.equals("\\t") ? '\t' : value.charAt(0);
+                    break;
+                case "header":
+                    headerLines = Integer.parseInt(value);
+                    break;
+                case "segmentMb":
+                    segmentSize = Integer.parseInt(value) << 20;
+                    break;
+                case "threads":
+                    parallelism = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+        }
+        if (in == null || out == null || mappings.isEmpty()) {
+            System.err.println("Usage: BulkConverter --in=<file> --out=<file> --map=<column>:<fromZone>:<toZone>[;...]"
+                    + " [--delimiter=,] [--header=0] [--segmentMb=64] [--threads=N]");
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            BulkConverter converter = new BulkConverter(new ConversionEngine(), mappings, delimiter, headerLines,
+                    segmentSize, pool);
+            Result result = converter.convert(Paths.get(in), Paths.get(out));
+            System.out.println(result);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
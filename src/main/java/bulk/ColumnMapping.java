@@ -0,0 +1,60 @@
+package bulk;
+
+import java.time.ZoneId;
+
+/**
+ * Converts the timestamps in one column of the input from one zone to
+ * another.
+ */
+public final class ColumnMapping {
+
+    private final int column;
+    private final ZoneId fromZone;
+    private final ZoneId toZone;
+
+    /**
+     * @param column zero-based column index
+     */
+    public ColumnMapping(int column, ZoneId fromZone, ZoneId toZone) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Column must not be negative: " + column);
+        }
+        this.column = column;
+        this.fromZone = fromZone;
+        this.toZone = toZone;
+    }
+
+    /**
+     * Parses {@code column:fromZone:toZone}, e.g.
+     * {@code 2:America/New_York:UTC}.
+     */
+    public static ColumnMapping parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid mapping (expected column:fromZone:toZone): " + spec);
+        }
+        try {
+            return new ColumnMapping(Integer.parseInt(parts[0].trim()), ZoneId.of(parts[1].trim()),
+                    ZoneId.of(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid column in mapping: " + spec);
+        }
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public ZoneId getFromZone() {
+        return fromZone;
+    }
+
+    public ZoneId getToZone() {
+        return toZone;
+    }
+
+    @Override
+    public String toString() {
+        return column + ":" + fromZone + ":" + toZone;
+    }
+}
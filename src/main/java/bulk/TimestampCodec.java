@@ -0,0 +1,123 @@
+package bulk;
+
+/**
+ * Reads and writes {@code yyyy-MM-dd HH:mm:ss} directly in a byte array,
+ * as seconds since the local epoch (1970-01-01 00:00:00 on the wall clock),
+ * without creating any objects.
+ *
+ * Parsing accepts exactly what {@code LocalDateTime.parse} with the server's
+ * formatter accepts: a day past the end of the month is clamped to the last
+ * day, and 24:00:00 is midnight of the following day.
+ */
+final class TimestampCodec {
+
+    static final int LENGTH = 19;
+
+    /** Returned by {@link #parse} for text that is not a valid timestamp. */
+    static final long INVALID = Long.MIN_VALUE;
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * @return local seconds for the 19 bytes at {@code offset}, or
+     *         {@link #INVALID}
+     */
+    static long parse(byte[] b, int offset) {
+        if (b[offset + 4] != '-' || b[offset + 7] != '-' || b[offset + 10] != ' ' || b[offset + 13] != ':'
+                || b[offset + 16] != ':') {
+            return INVALID;
+        }
+        int year = digits(b, offset, 4);
+        int month = digits(b, offset + 5, 2);
+        int day = digits(b, offset + 8, 2);
+        int hour = digits(b, offset + 11, 2);
+        int minute = digits(b, offset + 14, 2);
+        int second = digits(b, offset + 17, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || minute < 0
+                || minute > 59 || second < 0 || second > 59) {
+            return INVALID;
+        }
+        if (hour > 23 && !(hour == 24 && minute == 0 && second == 0)) {
+            return INVALID;
+        }
+        day = Math.min(day, lengthOfMonth(year, month));
+        return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    /**
+     * Writes {@code localSecond} as 19 bytes at {@code offset}.
+     *
+     * @return false, writing nothing, if the year is outside 1..9999
+     */
+    static boolean format(long localSecond, byte[] b, int offset) {
+        long epochDay = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(localSecond, SECONDS_PER_DAY);
+
+        // Civil-from-days, see Howard Hinnant's date algorithms.
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 1 || year > 9999) {
+            return false;
+        }
+
+        write(b, offset, (int) year, 4);
+        b[offset + 4] = '-';
+        write(b, offset + 5, month, 2);
+        b[offset + 7] = '-';
+        write(b, offset + 8, day, 2);
+        b[offset + 10] = ' ';
+        write(b, offset + 11, secondOfDay / 3600, 2);
+        b[offset + 13] = ':';
+        write(b, offset + 14, secondOfDay / 60 % 60, 2);
+        b[offset + 16] = ':';
+        write(b, offset + 17, secondOfDay % 60, 2);
+        return true;
+    }
+
+    private static int digits(byte[] b, int offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int digit = b[offset + i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void write(byte[] b, int offset, int value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            b[offset + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2 && (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /** Days-from-civil, the inverse of the calculation in {@link #format}. */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
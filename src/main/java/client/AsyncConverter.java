@@ -0,0 +1,309 @@
+package client;
+
+import java.rmi.RemoteException;
+import java.rmi.UnmarshalException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.ConversionRequest;
+import server.ConversionRequestList;
+import server.ConversionResult;
+import server.TimeZoneConverter;
+import server.TimeZoneConverterImpl;
+
+/**
+ * Non-blocking front end to one or more converter stubs for code that is not
+ * the GUI, e.g. a service converting on behalf of many concurrent requests.
+ *
+ * Calls return a {@link CompletableFuture} straight away and are queued. Each
+ * endpoint has at most {@code maxInFlight} remote calls outstanding; while
+ * they are all busy, new conversions wait in the queue, and when a slot frees
+ * up everything waiting (up to {@code maxBatchSize}) goes out as a single
+ * {@link TimeZoneConverter#convertBatch} call. A lone conversion is sent with
+ * {@code convertTime}, so there is no added latency when idle, and batches
+ * grow by themselves as load rises. If a server does not implement
+ * {@code convertBatch}, conversions are sent one by one instead.
+ *
+ * Remote calls run on virtual threads, which also complete the futures, so
+ * dependent stages should not block for long. A failed conversion completes
+ * its future with the {@link RemoteException} {@code convertTime} would have
+ * thrown; a failed call fails every conversion it carried.
+ */
+public class AsyncConverter implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1_000;
+
+    private static final class Pending {
+        final ConversionRequest request;
+        final CompletableFuture<String> future = new CompletableFuture<>();
+
+        Pending(ConversionRequest request) {
+            this.request = request;
+        }
+    }
+
+    private static final class Endpoint {
+        final TimeZoneConverter stub;
+        int inFlight; // guarded by the AsyncConverter
+
+        Endpoint(TimeZoneConverter stub) {
+            this.stub = stub;
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+    private final int maxInFlight;
+    private final int maxBatchSize;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder conversions = new LongAdder();
+    private volatile boolean batchSupported = true;
+    private boolean closed;
+
+    public AsyncConverter(TimeZoneConverter stub) {
+        this(Collections.singletonList(stub), DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param stubs        endpoints to spread calls over, e.g. the stubs of a
+     *                     multi-endpoint server
+     * @param maxInFlight  remote calls allowed outstanding per endpoint
+     * @param maxBatchSize most conversions sent in one call
+     */
+    public AsyncConverter(List<? extends TimeZoneConverter> stubs, int maxInFlight, int maxBatchSize) {
+        if (stubs.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1");
+        }
+        if (maxBatchSize < 1 || maxBatchSize > TimeZoneConverterImpl.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    "maxBatchSize must be between 1 and " + TimeZoneConverterImpl.MAX_BATCH_SIZE);
+        }
+        List<Endpoint> list = new ArrayList<>(stubs.size());
+        for (TimeZoneConverter stub : stubs) {
+            list.add(new Endpoint(stub));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+        this.maxInFlight = maxInFlight;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Looks up every endpoint in {@code specs}, in the format of
+     * {@link ReplicatedConverter.Endpoint#discover}, so
+     * {@code host/TimeZoneConverter-*} covers all endpoints of a server.
+     */
+    public static AsyncConverter connect(String specs, int defaultPort, int maxInFlight, int maxBatchSize)
+            throws Exception {
+        List<TimeZoneConverter> stubs = new ArrayList<>();
+        for (ReplicatedConverter.Endpoint endpoint : ReplicatedConverter.Endpoint.discover(specs, defaultPort)) {
+            stubs.add(endpoint.stub());
+        }
+        return new AsyncConverter(stubs, maxInFlight, maxBatchSize);
+    }
+
+    /** Asynchronous {@link TimeZoneConverter#convertTime}. */
+    public CompletableFuture<String> convertTime(String time, String fromZone, String toZone) {
+        Pending pending = new Pending(new ConversionRequest(time, fromZone, toZone));
+        synchronized (this) {
+            if (closed) {
+                pending.future.completeExceptionally(new RemoteException("Converter is closed"));
+                return pending.future;
+            }
+            queue.add(pending);
+            dispatch();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Asynchronous {@link TimeZoneConverter#convertBatch}. The items are
+     * queued like single conversions and may be sent together with other
+     * callers' conversions, or split over several calls.
+     */
+    public CompletableFuture<List<ConversionResult>> convertBatch(List<ConversionRequest> requests) {
+        List<CompletableFuture<ConversionResult>> results = new ArrayList<>(requests.size());
+        for (ConversionRequest request : requests) {
+            if (request == null) {
+                results.add(CompletableFuture.completedFuture(ConversionResult.failure("Request cannot be null")));
+                continue;
+            }
+            results.add(convertTime(request.getTime(), request.getFromZone(), request.getToZone())
+                    .handle((result, error) -> error == null ? ConversionResult.success(result)
+                            : ConversionResult.failure(unwrap(error).getMessage())));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<ConversionResult> list = new ArrayList<>(results.size());
+            for (CompletableFuture<ConversionResult> result : results) {
+                list.add(result.join());
+            }
+            return list;
+        });
+    }
+
+    /** Remote calls sent so far. */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /** Conversions sent so far; divided by {@link #getCalls()} this is the mean batch size. */
+    public long getConversions() {
+        return conversions.sum();
+    }
+
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Fails everything still queued and stops accepting calls. Calls already
+     * sent complete normally.
+     */
+    @Override
+    public void close() {
+        List<Pending> dropped;
+        synchronized (this) {
+            closed = true;
+            dropped = new ArrayList<>(queue);
+            queue.clear();
+        }
+        for (Pending pending : dropped) {
+            pending.future.completeExceptionally(new RemoteException("Converter is closed"));
+        }
+        executor.shutdown();
+    }
+
+    /** Sends queued conversions on every endpoint with a free slot. Caller holds the lock. */
+    private void dispatch() {
+        while (!queue.isEmpty()) {
+            Endpoint endpoint = leastLoaded();
+            if (endpoint == null) {
+                return;
+            }
+            int size = Math.min(queue.size(), maxBatchSize);
+            List<Pending> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                batch.add(queue.poll());
+            }
+            endpoint.inFlight++;
+            executor.execute(() -> send(endpoint, batch));
+        }
+    }
+
+    private Endpoint leastLoaded() {
+        Endpoint best = null;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.inFlight < maxInFlight && (best == null || endpoint.inFlight < best.inFlight)) {
+                best = endpoint;
+            }
+        }
+        return best;
+    }
+
+    private void send(Endpoint endpoint, List<Pending> batch) {
+        try {
+            if (batch.size() == 1 || !batchSupported) {
+                sendSingly(endpoint.stub, batch);
+            } else {
+                sendBatch(endpoint.stub, batch);
+            }
+        } finally {
+            synchronized (this) {
+                endpoint.inFlight--;
+                if (!closed) {
+                    dispatch();
+                }
+            }
+        }
+    }
+
+    private void sendSingly(TimeZoneConverter stub, List<Pending> batch) {
+        for (Pending pending : batch) {
+            ConversionRequest request = pending.request;
+            calls.increment();
+            conversions.increment();
+            try {
+                pending.future.complete(stub.convertTime(request.getTime(), request.getFromZone(),
+                        request.getToZone()));
+            } catch (RemoteException | RuntimeException e) {
+                pending.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void sendBatch(TimeZoneConverter stub, List<Pending> batch) {
+        List<ConversionRequest> requests = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            requests.add(pending.request);
+        }
+        ConversionRequestList payload = new ConversionRequestList(requests);
+        calls.increment();
+        conversions.add(batch.size());
+        List<ConversionResult> results;
+        try {
+            results = stub.convertBatch(payload);
+        } catch (RemoteException e) {
+            if (isUnsupported(e)) {
+                batchSupported = false;
+                sendSingly(stub, batch);
+                return;
+            }
+            failAll(batch, e);
+            return;
+        } catch (RuntimeException e) {
+            failAll(batch, e);
+            return;
+        }
+        if (results == null || results.size() != batch.size()) {
+            failAll(batch, new RemoteException("Batch returned " + (results == null ? "no" : results.size())
+                    + " results for " + batch.size() + " requests"));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            ConversionResult result = results.get(i);
+            if (result.isSuccess()) {
+                batch.get(i).future.complete(result.getResult());
+            } else {
+                batch.get(i).future.completeExceptionally(new RemoteException(result.getError()));
+            }
+        }
+    }
+
+    private static void failAll(List<Pending> batch, Exception error) {
+        for (Pending pending : batch) {
+            pending.future.completeExceptionally(error);
+        }
+    }
+
+    /** True if the server is older and does not know convertBatch. */
+    static boolean isUnsupported(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnmarshalException && cause.getMessage() != null
+                    && cause.getMessage().contains("unrecognized method hash")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof java.util.concurrent.CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncConverter[endpoints=" + endpoints.size() + ", maxInFlight=" + maxInFlight + ", maxBatchSize="
+                + maxBatchSize + "]";
+    }
+}
@@ -0,0 +1,69 @@
+package client;
+
+import java.util.Random;
+
+/**
+ * Delays between reconnect attempts. The step doubles from
+ * {@code initialMillis} up to {@code maxMillis}, and each delay is drawn at
+ * random from the upper half of the current step. Clients that lost the same
+ * server at the same moment therefore drift apart instead of all coming back
+ * at once when it returns, while every client still waits at least half a
+ * step.
+ */
+public class Backoff {
+
+    public static final long DEFAULT_INITIAL_MILLIS = 500;
+    public static final long DEFAULT_MAX_MILLIS = 30_000;
+
+    private final long initialMillis;
+    private final long maxMillis;
+    private final Random random;
+    private int attempts;
+
+    public Backoff(long initialMillis, long maxMillis) {
+        this(initialMillis, maxMillis, new Random());
+    }
+
+    Backoff(long initialMillis, long maxMillis, Random random) {
+        if (initialMillis < 1 || maxMillis < initialMillis) {
+            throw new IllegalArgumentException("Invalid backoff: " + initialMillis + ".." + maxMillis + " ms");
+        }
+        this.initialMillis = initialMillis;
+        this.maxMillis = maxMillis;
+        this.random = random;
+    }
+
+    /**
+     * Reads the bounds from the {@code client.reconnect.initialMillis} and
+     * {@code client.reconnect.maxMillis} system properties.
+     */
+    public static Backoff configured() {
+        return new Backoff(Long.getLong("client.reconnect.initialMillis", DEFAULT_INITIAL_MILLIS),
+                Long.getLong("client.reconnect.maxMillis", DEFAULT_MAX_MILLIS));
+    }
+
+    /** Returns the delay before the next attempt and counts the attempt. */
+    public synchronized long nextDelayMillis() {
+        long step = maxMillis;
+        if (attempts < 62 && initialMillis <= maxMillis >> attempts) {
+            step = initialMillis << attempts;
+        }
+        attempts++;
+        long half = step - step / 2;
+        return half + (long) (random.nextDouble() * (step - half + 1));
+    }
+
+    /** Starts over from {@code initialMillis}, e.g. after a successful attempt. */
+    public synchronized void reset() {
+        attempts = 0;
+    }
+
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public String toString() {
+        return "Backoff[" + initialMillis + ".." + maxMillis + " ms, attempts=" + getAttempts() + "]";
+    }
+}
@@ -0,0 +1,614 @@
+package client;
+
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import server.ConversionRequest;
+import server.ConversionRequestList;
+import server.ConversionResult;
+import server.LocalConverter;
+import server.ResultCache;
+import server.TimeZoneConverter;
+
+/**
+ * Runs remote conversions for the client UI off the JavaFX application
+ * thread.
+ *
+ * Calls execute one at a time on a background thread. Submitting a new
+ * conversion cancels any that has not started yet, and results of calls that
+ * were overtaken by newer input are dropped, so only the latest input ever
+ * reaches the UI. Callbacks are delivered through the UI executor (normally
+ * {@code Platform::runLater}).
+ *
+ * Results are kept in a {@link ResultCache} tagged with the server's
+ * {@link TimeZoneConverter#getTzDataVersion() tz data version}, so repeating
+ * a conversion is answered straight away without a round trip. The version is
+ * read on connect and checked again every {@code versionCheckMillis}; when the
+ * server reports a different version, including one it had before, the cache
+ * starts over. With replicas, each result is cached under the version of the
+ * replica that computed it.
+ *
+ * Without a server (not connected yet, disconnected, or unreachable)
+ * conversions run in-process on a {@link LocalConverter}, which gives the
+ * server's results and error messages for the client JVM's own tzdb, and are
+ * marked {@link Source#LOCAL}. When a call fails because the connection is
+ * gone, that conversion is answered locally and the server is looked up again
+ * in the background, with delays from a {@link Backoff}, until it is back.
+ */
+public class ConversionPipeline {
+
+    public static final String BINDING_NAME = "TimeZoneConverter";
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    public static final long DEFAULT_VERSION_CHECK_MILLIS = 60_000;
+
+    /** Where a result came from. */
+    public enum Source {
+        SERVER,
+        /** The result cache; the server returned this earlier. */
+        CACHE,
+        /** Computed in the client because no server was available. */
+        LOCAL
+    }
+
+    /** Results of {@link #convertBatch} and where they came from. */
+    public static final class BatchResult {
+        private final List<ConversionResult> results;
+        private final Source source;
+
+        BatchResult(List<ConversionResult> results, Source source) {
+            this.results = results;
+            this.source = source;
+        }
+
+        /** One result per request, in request order. */
+        public List<ConversionResult> getResults() {
+            return results;
+        }
+
+        /** {@link Source#SERVER} or {@link Source#LOCAL}; batches are not cached. */
+        public Source getSource() {
+            return source;
+        }
+    }
+
+    /** Connection state changes, delivered on the UI executor. */
+    public interface ConnectionListener {
+        /** The next background reconnect attempt is due in {@code delayMillis}. */
+        void reconnecting(int attempt, long delayMillis);
+
+        void reconnected();
+
+        /** The server became unreachable; conversions run locally from now on. */
+        void connectionLost(String message);
+    }
+
+    private final Executor uiExecutor;
+    private final ExecutorService worker;
+    private final ScheduledExecutorService reconnector;
+    private final ResultCache cache;
+    private final long versionCheckMillis;
+    private final long versionCheckNanos;
+    private final Backoff backoff;
+    private final AtomicLong latest = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+    private final Object connectionLock = new Object();
+    private final Object versionLock = new Object();
+    /** The server's version while known, otherwise {@code null}. */
+    private volatile SeenVersion tzDataVersion;
+    // Guarded by versionLock
+    private SeenVersion lastSeenVersion;
+    private volatile long versionCheckedAt;
+    private volatile ConnectionListener connectionListener;
+    private volatile TimeZoneConverter converter;
+    private final Object localLock = new Object();
+    // Guarded by localLock
+    private LocalConverter local;
+    private Future<?> pending;
+
+    // Guarded by connectionLock
+    private String host;
+    private int port;
+    /** Bumped by every connect and disconnect, so stale reconnects are dropped. */
+    private long connectEpoch;
+    private ScheduledFuture<?> reconnect;
+
+    /**
+     * Sizes the cache from the {@code client.cache.size} system property (0
+     * turns it off), checks the tz version every
+     * {@code client.cache.versionCheckMillis} and reconnects with
+     * {@link Backoff#configured()}.
+     */
+    public ConversionPipeline(Executor uiExecutor) {
+        this(uiExecutor, Integer.getInteger("client.cache.size", DEFAULT_CACHE_SIZE),
+                Long.getLong("client.cache.versionCheckMillis", DEFAULT_VERSION_CHECK_MILLIS), Backoff.configured());
+    }
+
+    /**
+     * @param cacheSize          most results to keep, 0 for no cache
+     * @param versionCheckMillis how long cached results are trusted before
+     *                           the server's tz version is checked again
+     * @param backoff            delays between background reconnect attempts
+     */
+    public ConversionPipeline(Executor uiExecutor, int cacheSize, long versionCheckMillis, Backoff backoff) {
+        this.uiExecutor = uiExecutor;
+        this.cache = cacheSize > 0 ? new ResultCache(cacheSize) : null;
+        this.versionCheckMillis = versionCheckMillis;
+        this.versionCheckNanos = TimeUnit.MILLISECONDS.toNanos(versionCheckMillis);
+        this.backoff = backoff;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "conversion-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reconnector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "conversion-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void setConnectionListener(ConnectionListener connectionListener) {
+        this.connectionListener = connectionListener;
+    }
+
+    public boolean isConnected() {
+        return converter != null;
+    }
+
+    /** Whether the server was lost and is being looked up again in the background. */
+    public boolean isReconnecting() {
+        synchronized (connectionLock) {
+            return reconnect != null;
+        }
+    }
+
+    /**
+     * @return the result cache, or {@code null} if results are not cached
+     */
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return the tz data version of the server as last seen, {@code null}
+     *         while not known, or "unknown-" and a connection number for a
+     *         server too old to report it
+     */
+    public String getTzDataVersion() {
+        SeenVersion version = tzDataVersion;
+        return version == null ? null : version.name;
+    }
+
+    /**
+     * Looks the converter up in the registry at host:port in the background.
+     * If host is "localhost" and that fails, 127.0.0.1 is tried as well.
+     *
+     * A comma-separated list of {@code host[:port][/name]} replicas connects
+     * through a {@link ReplicatedConverter} instead, which balances calls over
+     * them and fails over on its own. A name ending in {@code *} (e.g.
+     * {@code host/TimeZoneConverter-*}) spreads calls over every endpoint a
+     * multi-endpoint server bound under that prefix.
+     *
+     * @param onConnected receives the host that was actually reached
+     */
+    public void connect(String host, int port, Consumer<String> onConnected, Consumer<Exception> onError) {
+        long epoch;
+        synchronized (connectionLock) {
+            cancelReconnect();
+            epoch = ++connectEpoch;
+        }
+        worker.execute(() -> {
+            try {
+                String reached = host;
+                TimeZoneConverter stub;
+                try {
+                    stub = lookup(host, port);
+                } catch (Exception e) {
+                    if (!"localhost".equalsIgnoreCase(host)) {
+                        throw e;
+                    }
+                    try {
+                        stub = lookup("127.0.0.1", port);
+                        reached = "127.0.0.1";
+                    } catch (Exception e2) {
+                        throw e;
+                    }
+                }
+                synchronized (connectionLock) {
+                    if (epoch != connectEpoch) {
+                        // Disconnected or connected elsewhere meanwhile.
+                        discard(stub);
+                        return;
+                    }
+                    this.host = reached;
+                    this.port = port;
+                    replace(stub);
+                }
+                readVersion(stub);
+                String connectedHost = reached;
+                uiExecutor.execute(() -> onConnected.accept(connectedHost));
+            } catch (Exception e) {
+                uiExecutor.execute(() -> onError.accept(e));
+            }
+        });
+    }
+
+    /**
+     * Drops the current stub and stops reconnecting; conversions run locally
+     * until the next {@link #connect}. Conversions still in flight are
+     * ignored.
+     */
+    public void disconnect() {
+        latest.incrementAndGet();
+        synchronized (connectionLock) {
+            cancelReconnect();
+            connectEpoch++;
+            host = null;
+            replace(null);
+        }
+    }
+
+    /**
+     * Like {@link #submit(String, String, String, BiConsumer, Consumer)} for
+     * callers that do not care where the result came from.
+     */
+    public void submit(String time, String fromZone, String toZone, Consumer<String> onResult,
+            Consumer<String> onError) {
+        submit(time, fromZone, toZone, (result, source) -> onResult.accept(result), onError);
+    }
+
+    /**
+     * Converts in the background and hands the {@code yyyy-MM-dd HH:mm:ss}
+     * result, and where it came from, to {@code onResult}, unless newer input
+     * has been submitted in the meantime. A cached result is handed over
+     * without contacting the server. Without a server the conversion runs
+     * locally, but still in the background: the first one builds the local
+     * engine, which loads every zone.
+     */
+    public synchronized void submit(String time, String fromZone, String toZone, BiConsumer<String, Source> onResult,
+            Consumer<String> onError) {
+        long generation = latest.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        boolean checkVersion = claimVersionCheck();
+        SeenVersion version = tzDataVersion;
+        if (cache != null && version != null) {
+            String cached = cache.get(time, fromZone, toZone, version.generation);
+            if (cached != null) {
+                deliver(generation, () -> onResult.accept(cached, Source.CACHE));
+                if (checkVersion) {
+                    worker.execute(this::checkVersion);
+                }
+                return;
+            }
+        }
+        pending = worker.submit(() -> {
+            if (generation != latest.get()) {
+                return;
+            }
+            if (checkVersion) {
+                checkVersion();
+            }
+            TimeZoneConverter current = converter;
+            if (current == null) {
+                convertLocally(generation, time, fromZone, toZone, onResult, onError);
+                return;
+            }
+            // Cached under the version current when the call started; if
+            // that changed meanwhile, the cache ignores the result.
+            SeenVersion callVersion = tzDataVersion;
+            try {
+                String result;
+                if (cache != null && current instanceof ReplicatedConverter) {
+                    // Replicas may run different rules during a rollout, so
+                    // cache under the version of the one that answered.
+                    ReplicatedConverter.VersionedResult versioned = ((ReplicatedConverter) current)
+                            .convertTimeVersioned(time, fromZone, toZone, versionCheckMillis);
+                    result = versioned.getResult();
+                    callVersion = versioned.getTzDataVersion() == null ? null
+                            : seeVersion(versioned.getTzDataVersion());
+                } else {
+                    result = current.convertTime(time, fromZone, toZone);
+                }
+                if (cache != null && callVersion != null) {
+                    cache.put(time, fromZone, toZone, callVersion.generation, result);
+                }
+                deliver(generation, () -> onResult.accept(result, Source.SERVER));
+            } catch (RemoteException e) {
+                if (!isConnectionFailure(e)) {
+                    deliver(generation, () -> onError.accept(e.getMessage()));
+                    return;
+                }
+                connectionLost(current, e);
+                convertLocally(generation, time, fromZone, toZone, onResult, onError);
+            } catch (RuntimeException e) {
+                deliver(generation, () -> onError.accept(e.getMessage()));
+            }
+        });
+    }
+
+    /**
+     * Converts a batch in one server call on the calling thread, for callers
+     * that already run in the background. Unlike {@link #submit} nothing is
+     * cancelled or dropped. Without a server, or when the connection fails,
+     * the batch is converted locally and reconnecting starts as it does for
+     * single conversions.
+     *
+     * @throws RemoteException if the batch as a whole is rejected, e.g. too
+     *                         large
+     */
+    public BatchResult convertBatch(List<ConversionRequest> requests) throws RemoteException {
+        TimeZoneConverter current = converter;
+        if (current != null) {
+            try {
+                return new BatchResult(current.convertBatch(new ConversionRequestList(requests)), Source.SERVER);
+            } catch (RemoteException e) {
+                if (!isConnectionFailure(e)) {
+                    throw e;
+                }
+                connectionLost(current, e);
+            }
+        }
+        return new BatchResult(local().convertBatch(requests), Source.LOCAL);
+    }
+
+    public void shutdown() {
+        synchronized (connectionLock) {
+            cancelReconnect();
+            connectEpoch++;
+            replace(null);
+        }
+        worker.shutdownNow();
+        reconnector.shutdownNow();
+    }
+
+    private void convertLocally(long generation, String time, String fromZone, String toZone,
+            BiConsumer<String, Source> onResult, Consumer<String> onError) {
+        try {
+            String result = local().convertTime(time, fromZone, toZone);
+            deliver(generation, () -> onResult.accept(result, Source.LOCAL));
+        } catch (RemoteException | RuntimeException e) {
+            deliver(generation, () -> onError.accept(e.getMessage()));
+        }
+    }
+
+    private LocalConverter local() {
+        // Not the pipeline's own lock, which submit takes on the UI thread.
+        synchronized (localLock) {
+            if (local == null) {
+                local = new LocalConverter();
+            }
+            return local;
+        }
+    }
+
+    /**
+     * Goes offline after {@code failed} could not be reached and starts
+     * reconnecting, unless another call already did.
+     */
+    private void connectionLost(TimeZoneConverter failed, Exception cause) {
+        synchronized (connectionLock) {
+            if (converter != failed) {
+                return;
+            }
+            replace(null);
+            notifyConnection(listener -> listener.connectionLost(cause.getMessage()));
+            backoff.reset();
+            scheduleReconnect(connectEpoch);
+        }
+    }
+
+    /** Caller holds connectionLock. */
+    private void scheduleReconnect(long epoch) {
+        long delay = backoff.nextDelayMillis();
+        int attempt = backoff.getAttempts();
+        reconnect = reconnector.schedule(() -> attemptReconnect(epoch), delay, TimeUnit.MILLISECONDS);
+        notifyConnection(listener -> listener.reconnecting(attempt, delay));
+    }
+
+    private void attemptReconnect(long epoch) {
+        String targetHost;
+        int targetPort;
+        synchronized (connectionLock) {
+            if (epoch != connectEpoch || host == null) {
+                return;
+            }
+            targetHost = host;
+            targetPort = port;
+        }
+        TimeZoneConverter stub;
+        try {
+            stub = lookup(targetHost, targetPort);
+            probe(stub);
+        } catch (Exception e) {
+            synchronized (connectionLock) {
+                if (epoch == connectEpoch) {
+                    scheduleReconnect(epoch);
+                }
+            }
+            return;
+        }
+        synchronized (connectionLock) {
+            if (epoch != connectEpoch) {
+                discard(stub);
+                return;
+            }
+            reconnect = null;
+            replace(stub);
+        }
+        readVersion(stub);
+        notifyConnection(ConnectionListener::reconnected);
+    }
+
+    /** Caller holds connectionLock. */
+    private void cancelReconnect() {
+        if (reconnect != null) {
+            reconnect.cancel(false);
+            reconnect = null;
+        }
+    }
+
+    /** Fails unless the exported converter behind {@code stub} answers. */
+    private static void probe(TimeZoneConverter stub) throws RemoteException {
+        try {
+            stub.getTzDataVersion();
+        } catch (RemoteException e) {
+            if (!AsyncConverter.isUnsupported(e)) {
+                throw e;
+            }
+        }
+    }
+
+    /** True at most once per version check interval, and only while caching. */
+    private boolean claimVersionCheck() {
+        if (cache == null || converter == null) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - versionCheckedAt < versionCheckNanos) {
+            return false;
+        }
+        versionCheckedAt = now;
+        return true;
+    }
+
+    private void checkVersion() {
+        TimeZoneConverter current = converter;
+        if (current != null) {
+            readVersion(current);
+        }
+    }
+
+    /**
+     * Asks the server for its tz data version. A different version than
+     * before empties the cache on its next lookup.
+     */
+    private void readVersion(TimeZoneConverter stub) {
+        if (cache == null) {
+            return;
+        }
+        versionCheckedAt = System.nanoTime();
+        try {
+            seeVersion(stub.getTzDataVersion());
+        } catch (RemoteException e) {
+            if (AsyncConverter.isUnsupported(e)) {
+                // An older server cannot change its rules while running, but
+                // another one may be reached after a reconnect.
+                seeVersion("unknown-" + connections.get());
+            }
+            // Otherwise keep the last known version; a lost connection
+            // shows up on the next conversion.
+        }
+    }
+
+    /**
+     * Makes {@code name} the current version, in a new generation unless it
+     * is the version seen last, so a server that goes back to earlier rules
+     * still empties the cache.
+     */
+    private SeenVersion seeVersion(String name) {
+        synchronized (versionLock) {
+            SeenVersion last = lastSeenVersion;
+            if (last == null || !last.name.equals(name)) {
+                last = new SeenVersion(name, last == null ? 1 : last.generation + 1);
+                lastSeenVersion = last;
+            }
+            tzDataVersion = last;
+            return last;
+        }
+    }
+
+    private void deliver(long generation, Runnable callback) {
+        uiExecutor.execute(() -> {
+            if (generation == latest.get()) {
+                callback.run();
+            }
+        });
+    }
+
+    private void notifyConnection(Consumer<ConnectionListener> event) {
+        ConnectionListener listener = connectionListener;
+        if (listener != null) {
+            uiExecutor.execute(() -> event.accept(listener));
+        }
+    }
+
+    /** Swaps the converter, closing a replaced {@link ReplicatedConverter}. */
+    private void replace(TimeZoneConverter next) {
+        TimeZoneConverter previous = converter;
+        converter = next;
+        if (next == null) {
+            tzDataVersion = null;
+        } else if (next != previous) {
+            connections.incrementAndGet();
+        }
+        if (previous != next) {
+            discard(previous);
+        }
+    }
+
+    private static void discard(TimeZoneConverter stub) {
+        if (stub instanceof ReplicatedConverter) {
+            ((ReplicatedConverter) stub).close();
+        }
+    }
+
+    private static TimeZoneConverter lookup(String host, int port) throws Exception {
+        if (host.contains(",") || host.contains("/")) {
+            ReplicatedConverter replicated = new ReplicatedConverter(ReplicatedConverter.Endpoint.discover(host, port));
+            try {
+                replicated.connect();
+            } catch (RemoteException e) {
+                replicated.close();
+                throw e;
+            }
+            return replicated;
+        }
+        Registry registry = LocateRegistry.getRegistry(host, port);
+        return (TimeZoneConverter) registry.lookup(BINDING_NAME);
+    }
+
+    /**
+     * True for failures that mean the server could not be reached, as opposed
+     * to a RemoteException the server itself threw (e.g. a validation error).
+     */
+    static boolean isConnectionFailure(Throwable error) {
+        Throwable cause = error;
+        while (cause != null) {
+            if (cause instanceof ConnectException || cause instanceof ConnectIOException
+                    || cause instanceof NoSuchObjectException || cause instanceof java.net.ConnectException
+                    || cause instanceof java.net.SocketException || cause instanceof java.io.EOFException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    /** A server tz data version, numbered in the order this pipeline saw it. */
+    private static final class SeenVersion {
+        final String name;
+        final long generation;
+
+        SeenVersion(String name, long generation) {
+            this.name = name;
+            this.generation = generation;
+        }
+    }
+}
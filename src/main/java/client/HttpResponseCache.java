@@ -0,0 +1,304 @@
+package client;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Two-level (memory, then disk) cache of processed HTTP responses, keyed by
+ * URL. Each entry keeps the payload, the response's ETag for conditional
+ * revalidation and the time it stops being fresh. The disk level is
+ * optional; without a directory the cache is memory only.
+ *
+ * Both levels are bounded. Memory keeps the {@code maxMemoryEntries} most
+ * recently used entries. On disk, entries that expired more than
+ * {@code staleRetentionMillis} ago are deleted when the cache is opened, and
+ * every write deletes the least recently written files beyond
+ * {@code maxDiskEntries}.
+ */
+public class HttpResponseCache {
+
+    /** A cached payload. Immutable; {@link #withExpiry} returns a copy. */
+    public static final class Entry {
+        private final String payload;
+        private final String etag;
+        private final long expiresAtMillis;
+
+        public Entry(String payload, String etag, long expiresAtMillis) {
+            this.payload = payload;
+            this.etag = etag;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        /** @return the ETag, or {@code null} if the server sent none */
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public Entry withExpiry(long expiresAtMillis) {
+            return new Entry(payload, etag, expiresAtMillis);
+        }
+    }
+
+    public static final int DEFAULT_MAX_MEMORY_ENTRIES = 256;
+    public static final int DEFAULT_MAX_DISK_ENTRIES = 2048;
+    /** Expired entries are kept this long for conditional revalidation. */
+    public static final long DEFAULT_STALE_RETENTION_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".cache";
+
+    private final Map<String, Entry> memory;
+    private final int maxDiskEntries;
+    private final long staleRetentionMillis;
+    private final Path directory;
+    private final LongSupplier clock;
+
+    /**
+     * @param directory where entries are persisted, or {@code null} for a
+     *                  memory-only cache
+     */
+    public HttpResponseCache(Path directory) {
+        this(directory, System::currentTimeMillis);
+    }
+
+    HttpResponseCache(Path directory, LongSupplier clock) {
+        this(directory, DEFAULT_MAX_MEMORY_ENTRIES, DEFAULT_MAX_DISK_ENTRIES, DEFAULT_STALE_RETENTION_MILLIS, clock);
+    }
+
+    HttpResponseCache(Path directory, int maxMemoryEntries, int maxDiskEntries, long staleRetentionMillis,
+            LongSupplier clock) {
+        if (maxMemoryEntries < 1 || maxDiskEntries < 1) {
+            throw new IllegalArgumentException("Cache sizes must be at least 1");
+        }
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+        this.maxDiskEntries = maxDiskEntries;
+        this.staleRetentionMillis = staleRetentionMillis;
+        Path usable = directory;
+        if (usable != null) {
+            try {
+                Files.createDirectories(usable);
+            } catch (IOException e) {
+                System.err.println("News cache directory unavailable, caching in memory only: " + e.getMessage());
+                usable = null;
+            }
+        }
+        this.directory = usable;
+        this.clock = clock;
+        if (usable != null) {
+            pruneExpired();
+        }
+    }
+
+    /**
+     * @return the entry for {@code url}, fresh or stale, or {@code null}
+     */
+    public Entry get(String url) {
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(url);
+        }
+        if (entry == null && directory != null) {
+            entry = readFromDisk(url);
+            if (entry != null) {
+                synchronized (memory) {
+                    memory.putIfAbsent(url, entry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    public boolean isFresh(Entry entry) {
+        return entry != null && clock.getAsLong() < entry.getExpiresAtMillis();
+    }
+
+    public void put(String url, Entry entry) {
+        synchronized (memory) {
+            memory.put(url, entry);
+        }
+        if (directory != null) {
+            writeToDisk(url, entry);
+            pruneOverQuota();
+        }
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    public int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /** @return the number of entries on disk, 0 for a memory-only cache */
+    public int diskSize() {
+        return directory == null ? 0 : listEntries().size();
+    }
+
+    private Entry readFromDisk(String url) {
+        Path file = fileFor(url);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = Files.newInputStream(file); DataInputStream data = new DataInputStream(in)) {
+            if (data.readInt() != FORMAT_VERSION || !url.equals(data.readUTF())) {
+                return null;
+            }
+            long expiresAt = data.readLong();
+            String etag = data.readBoolean() ? data.readUTF() : null;
+            byte[] payload = new byte[data.readInt()];
+            data.readFully(payload);
+            return new Entry(new String(payload, StandardCharsets.UTF_8), etag, expiresAt);
+        } catch (IOException e) {
+            // Corrupt or partially written entry: treat as a miss.
+            return null;
+        }
+    }
+
+    private void writeToDisk(String url, Entry entry) {
+        Path file = fileFor(url);
+        try {
+            Path temp = Files.createTempFile(directory, "entry", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp); DataOutputStream data = new DataOutputStream(out)) {
+                byte[] payload = entry.getPayload().getBytes(StandardCharsets.UTF_8);
+                data.writeInt(FORMAT_VERSION);
+                data.writeUTF(url);
+                data.writeLong(entry.getExpiresAtMillis());
+                data.writeBoolean(entry.getEtag() != null);
+                if (entry.getEtag() != null) {
+                    data.writeUTF(entry.getEtag());
+                }
+                data.writeInt(payload.length);
+                data.write(payload);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not persist cached response for " + url + ": " + e.getMessage());
+        }
+    }
+
+    /** Deletes entries past their stale retention, and leftover temp files. */
+    private void pruneExpired() {
+        long cutoff = clock.getAsLong() - staleRetentionMillis;
+        for (Path file : listEntries()) {
+            try (InputStream in = Files.newInputStream(file); DataInputStream data = new DataInputStream(in)) {
+                if (data.readInt() == FORMAT_VERSION) {
+                    data.readUTF();
+                    if (data.readLong() >= cutoff) {
+                        continue;
+                    }
+                }
+            } catch (IOException e) {
+                // Unreadable: delete below.
+            }
+            deleteQuietly(file);
+        }
+        // A temp file this old is not being written any more, e.g. a client
+        // sharing the directory was killed mid-write.
+        long abandoned = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "entry*.tmp")) {
+            for (Path temp : temps) {
+                try {
+                    if (Files.getLastModifiedTime(temp).toMillis() < abandoned) {
+                        deleteQuietly(temp);
+                    }
+                } catch (IOException e) {
+                    // Already gone.
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clean up news cache: " + e.getMessage());
+        }
+    }
+
+    /** Deletes the least recently written entries beyond maxDiskEntries. */
+    private void pruneOverQuota() {
+        List<Path> files = listEntries();
+        if (files.size() <= maxDiskEntries) {
+            return;
+        }
+        List<Map.Entry<Path, FileTime>> byAge = new ArrayList<>(files.size());
+        for (Path file : files) {
+            try {
+                byAge.add(Map.entry(file, Files.getLastModifiedTime(file)));
+            } catch (IOException e) {
+                // Already gone.
+            }
+        }
+        byAge.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+        for (int i = 0; i < byAge.size() - maxDiskEntries; i++) {
+            deleteQuietly(byAge.get(i).getKey());
+        }
+    }
+
+    private List<Path> listEntries() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : entries) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not list news cache: " + e.getMessage());
+        }
+        return files;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Retried on the next prune.
+        }
+    }
+
+    private Path fileFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
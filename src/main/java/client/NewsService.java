@@ -0,0 +1,263 @@
+package client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Fetches the headlines ("today") and Wikipedia "on this day" events (any
+ * other date) shown under a conversion.
+ *
+ * Responses are cached in an {@link HttpResponseCache} for their max-age (or
+ * a default TTL) and revalidated with If-None-Match once stale. Concurrent
+ * requests for the same URL share one download. Downloads run on virtual
+ * threads, share one OkHttp connection pool, and are parsed with a streaming
+ * reader that stops after the first {@link #MAX_ITEMS} items, so only those
+ * are ever materialized.
+ */
+public class NewsService {
+
+    public static final String DEFAULT_HEADLINES_BASE = "https://saurav.tech/NewsAPI/top-headlines/category/general/";
+    public static final String DEFAULT_ON_THIS_DAY_BASE = "https://en.wikipedia.org/api/rest_v1/feed/onthisday/events/";
+
+    static final int MAX_ITEMS = 5;
+    static final long HEADLINES_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    static final long ON_THIS_DAY_TTL_MILLIS = TimeUnit.HOURS.toMillis(12);
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    /** Thrown (wrapped) when the news server answers with a non-success status. */
+    public static class HttpStatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int code;
+
+        public HttpStatusException(int code) {
+            super("Server returned: " + code);
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PayloadParser {
+        String parse(Reader body) throws IOException;
+    }
+
+    private final OkHttpClient httpClient;
+    private final HttpResponseCache cache;
+    private final ExecutorService executor;
+    private final String headlinesBase;
+    private final String onThisDayBase;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public NewsService() {
+        this(new OkHttpClient(), new HttpResponseCache(defaultCacheDirectory()), DEFAULT_HEADLINES_BASE,
+                DEFAULT_ON_THIS_DAY_BASE);
+    }
+
+    public NewsService(OkHttpClient httpClient, HttpResponseCache cache, String headlinesBase, String onThisDayBase) {
+        this.httpClient = httpClient;
+        this.cache = cache;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.headlinesBase = headlinesBase;
+        this.onThisDayBase = onThisDayBase;
+    }
+
+    /**
+     * The on-disk cache lives in {@code client.cacheDir} if set, otherwise in
+     * {@code ~/.timezoneclient/cache}.
+     */
+    static Path defaultCacheDirectory() {
+        String configured = System.getProperty("client.cacheDir");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".timezoneclient", "cache");
+    }
+
+    /**
+     * Returns the text for the news area: top headlines for the country of
+     * {@code zoneId} if {@code date} is today, otherwise historical events for
+     * that day of the year.
+     */
+    public CompletableFuture<String> fetch(String zoneId, LocalDate date) {
+        String dateStr = date.format(DateTimeFormatter.ofPattern("MMMM d, yyyy"));
+        if (date.equals(LocalDate.now())) {
+            String countryCode = countryCodeFor(zoneId);
+            return fetchPayload(headlinesBase + countryCode + ".json", HEADLINES_TTL_MILLIS,
+                    body -> parseItems(body, "articles", false))
+                    .handle((items, error) -> error == null
+                            ? "Top Headlines for " + dateStr + " (" + countryCode.toUpperCase() + "):\n" + items
+                            : describeError("Could not fetch news.", error));
+        }
+        return fetchPayload(onThisDayBase + date.getMonthValue() + "/" + date.getDayOfMonth(),
+                ON_THIS_DAY_TTL_MILLIS, body -> parseItems(body, "events", true))
+                .handle((items, error) -> error == null
+                        ? "On this day (" + date.format(DateTimeFormatter.ofPattern("MMMM d")) + ") in history:\n"
+                                + items
+                        : describeError("Could not fetch history.", error));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Determine country code from Zone ID for the News API
+    // Supported by API: in, us, au, ru, fr, gb
+    static String countryCodeFor(String zoneId) {
+        if (zoneId.startsWith("Australia/")) {
+            return "au";
+        } else if (zoneId.startsWith("America/")) {
+            return "us";
+        } else if (zoneId.equals("Europe/London")) {
+            return "gb";
+        } else if (zoneId.equals("Europe/Paris")) {
+            return "fr";
+        } else if (zoneId.equals("Asia/Kolkata")) {
+            return "in";
+        } else if (zoneId.equals("Europe/Moscow")) {
+            return "ru";
+        }
+        return "us"; // Default
+    }
+
+    private CompletableFuture<String> fetchPayload(String url, long defaultTtlMillis, PayloadParser parser) {
+        HttpResponseCache.Entry cached = cache.get(url);
+        if (cache.isFresh(cached)) {
+            return CompletableFuture.completedFuture(cached.getPayload());
+        }
+        // Identical requests already on their way share the same download.
+        CompletableFuture<String> download = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(url, download);
+        if (existing != null) {
+            return existing;
+        }
+        executor.execute(() -> {
+            String payload = null;
+            Throwable failure = null;
+            try {
+                payload = download(url, cached, defaultTtlMillis, parser);
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                // The cache already holds the result, so later callers hit it.
+                inFlight.remove(url, download);
+            }
+            if (failure != null) {
+                download.completeExceptionally(failure);
+            } else {
+                download.complete(payload);
+            }
+        });
+        return download;
+    }
+
+    private String download(String url, HttpResponseCache.Entry stale, long defaultTtlMillis, PayloadParser parser) {
+        Request.Builder request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", "TimeZoneConverter/1.0");
+        if (stale != null && stale.getEtag() != null) {
+            request.header("If-None-Match", stale.getEtag());
+        }
+        try (Response response = httpClient.newCall(request.build()).execute()) {
+            long expiresAt = cache.now() + ttlMillis(response, defaultTtlMillis);
+            if (response.code() == 304 && stale != null) {
+                cache.put(url, stale.withExpiry(expiresAt));
+                return stale.getPayload();
+            }
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new HttpStatusException(response.code());
+            }
+            String payload = parser.parse(response.body().charStream());
+            cache.put(url, new HttpResponseCache.Entry(payload, response.header("ETag"), expiresAt));
+            return payload;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static long ttlMillis(Response response, long defaultTtlMillis) {
+        String cacheControl = response.header("Cache-Control");
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return defaultTtlMillis;
+    }
+
+    /**
+     * Reads the first {@link #MAX_ITEMS} elements of the top-level array
+     * {@code arrayName} and renders them as bullet lines; the rest of the
+     * document is never parsed.
+     */
+    static String parseItems(Reader body, String arrayName, boolean withYear) throws IOException {
+        StringBuilder items = new StringBuilder();
+        try (JsonReader reader = new JsonReader(body)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals(arrayName)) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                for (int i = 0; i < MAX_ITEMS && reader.hasNext(); i++) {
+                    String title = null;
+                    String year = null;
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.skipValue();
+                        } else if (name.equals(withYear ? "text" : "title")) {
+                            title = reader.nextString();
+                        } else if (withYear && name.equals("year")) {
+                            year = reader.nextString();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    items.append("• ");
+                    if (withYear) {
+                        items.append(year).append(": ");
+                    }
+                    items.append(title).append("\n\n");
+                }
+                return items.toString();
+            }
+        }
+        throw new IOException("Response has no \"" + arrayName + "\" array");
+    }
+
+    private static String describeError(String prefix, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof HttpStatusException) {
+            return prefix + " " + cause.getMessage();
+        }
+        return "Error fetching news: " + cause.getMessage();
+    }
+}
@@ -0,0 +1,474 @@
+package client;
+
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.ConversionRequest;
+import server.ConversionResult;
+import server.RangeCallback;
+import server.RangePage;
+import server.RangeRequest;
+import server.ServerOverloadedException;
+import server.TimeZoneConverter;
+
+/**
+ * Client-side stub that spreads calls over several converter replicas.
+ *
+ * Each call goes to the healthy replica with the fewest calls outstanding
+ * from this client (ties are rotated). If a replica cannot be reached the
+ * call is retried on another one and the replica is taken out of rotation;
+ * a background health check probes it again after an exponentially growing,
+ * jittered {@link Backoff} and puts it back once it answers. Calls the server
+ * rejected as overloaded are also retried elsewhere. Errors the server
+ * itself raised (e.g. an invalid zone) are returned as they are.
+ *
+ * All conversion methods are idempotent and are retried on any connection
+ * failure. {@link #streamRange} is only retried if the connection could not
+ * be opened, as pages may already have been delivered otherwise.
+ */
+public class ReplicatedConverter implements TimeZoneConverter, AutoCloseable {
+
+    static final long DEFAULT_BASE_BACKOFF_MILLIS = Backoff.DEFAULT_INITIAL_MILLIS;
+    static final long DEFAULT_MAX_BACKOFF_MILLIS = Backoff.DEFAULT_MAX_MILLIS;
+    static final long DEFAULT_HEALTH_CHECK_MILLIS = 1_000;
+
+    /** One replica: a registry address and the name the converter is bound under. */
+    public static final class Endpoint {
+        private final String host;
+        private final int port;
+        private final String name;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder calls = new LongAdder();
+        private volatile TimeZoneConverter stub;
+        private volatile boolean healthy = true;
+        private volatile long retryAt;
+        // Guarded by this; set by the converter the endpoint is given to
+        private Backoff backoff;
+        // Guarded by this; see versionOf
+        private String tzDataVersion;
+        private long tzDataVersionReadAt;
+
+        public Endpoint(String host, int port, String name) {
+            this.host = host;
+            this.port = port;
+            this.name = name;
+        }
+
+        /**
+         * Parses {@code host[:port][/name]}, e.g. {@code 10.0.0.5:1100/TimeZoneConverter-2}.
+         */
+        public static Endpoint parse(String spec, int defaultPort) {
+            String rest = spec.trim();
+            String name = ConversionPipeline.BINDING_NAME;
+            int slash = rest.indexOf('/');
+            if (slash >= 0) {
+                name = rest.substring(slash + 1);
+                rest = rest.substring(0, slash);
+            }
+            int port = defaultPort;
+            int colon = rest.lastIndexOf(':');
+            if (colon >= 0) {
+                try {
+                    port = Integer.parseInt(rest.substring(colon + 1));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid port in endpoint: " + spec);
+                }
+                rest = rest.substring(0, colon);
+            }
+            if (rest.isEmpty()) {
+                throw new IllegalArgumentException("Missing host in endpoint: " + spec);
+            }
+            return new Endpoint(rest, port, name);
+        }
+
+        /** Parses a comma-separated list of {@link #parse endpoints}. */
+        public static List<Endpoint> parseList(String specs, int defaultPort) {
+            List<Endpoint> endpoints = new ArrayList<>();
+            for (String spec : specs.split(",")) {
+                if (!spec.trim().isEmpty()) {
+                    endpoints.add(parse(spec, defaultPort));
+                }
+            }
+            return endpoints;
+        }
+
+        /**
+         * Like {@link #parseList}, but an entry whose name ends in {@code *},
+         * e.g. {@code host:1099/TimeZoneConverter-*}, stands for every name
+         * in that registry with the same prefix.
+         */
+        public static List<Endpoint> discover(String specs, int defaultPort) throws Exception {
+            List<Endpoint> endpoints = new ArrayList<>();
+            for (Endpoint endpoint : parseList(specs, defaultPort)) {
+                if (!endpoint.name.endsWith("*")) {
+                    endpoints.add(endpoint);
+                    continue;
+                }
+                String prefix = endpoint.name.substring(0, endpoint.name.length() - 1);
+                String[] names = LocateRegistry.getRegistry(endpoint.host, endpoint.port).list();
+                Arrays.sort(names);
+                for (String name : names) {
+                    if (name.startsWith(prefix)) {
+                        endpoints.add(new Endpoint(endpoint.host, endpoint.port, name));
+                    }
+                }
+            }
+            if (endpoints.isEmpty()) {
+                throw new IllegalArgumentException("No endpoints match " + specs);
+            }
+            return endpoints;
+        }
+
+        /** The registry name the replica is bound under. */
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        /** Calls sent to this replica, including failed ones. */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        TimeZoneConverter stub() throws Exception {
+            TimeZoneConverter current = stub;
+            if (current == null) {
+                Registry registry = LocateRegistry.getRegistry(host, port);
+                current = (TimeZoneConverter) registry.lookup(name);
+                stub = current;
+            }
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port + "/" + name + (healthy ? "" : " (down)");
+        }
+    }
+
+    /** A result and the tz data version of the replica that computed it. */
+    public static final class VersionedResult {
+        private final String result;
+        private final String tzDataVersion;
+
+        VersionedResult(String result, String tzDataVersion) {
+            this.result = result;
+            this.tzDataVersion = tzDataVersion;
+        }
+
+        public String getResult() {
+            return result;
+        }
+
+        /** {@code null} if the replica is too old to report it. */
+        public String getTzDataVersion() {
+            return tzDataVersion;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RemoteFunction<T> {
+        T apply(TimeZoneConverter converter) throws RemoteException;
+    }
+
+    @FunctionalInterface
+    private interface EndpointFunction<T> {
+        T apply(Endpoint endpoint, TimeZoneConverter converter) throws RemoteException;
+    }
+
+    private final List<Endpoint> endpoints;
+    private final ScheduledExecutorService healthChecker;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public ReplicatedConverter(List<Endpoint> endpoints) {
+        this(endpoints, DEFAULT_BASE_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS, DEFAULT_HEALTH_CHECK_MILLIS);
+    }
+
+    public ReplicatedConverter(List<Endpoint> endpoints, long baseBackoffMillis, long maxBackoffMillis,
+            long healthCheckMillis) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        this.endpoints = Collections.unmodifiableList(new ArrayList<>(endpoints));
+        for (Endpoint endpoint : this.endpoints) {
+            Backoff backoff = new Backoff(baseBackoffMillis, maxBackoffMillis);
+            synchronized (endpoint) {
+                endpoint.backoff = backoff;
+            }
+        }
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckMillis, healthCheckMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Looks up every replica once, taking unreachable ones out of rotation.
+     *
+     * @throws RemoteException if none could be reached
+     */
+    public void connect() throws RemoteException {
+        Exception last = null;
+        for (Endpoint endpoint : endpoints) {
+            try {
+                endpoint.stub();
+                markUp(endpoint);
+            } catch (Exception e) {
+                markDown(endpoint);
+                last = e;
+            }
+        }
+        if (endpoints.stream().noneMatch(Endpoint::isHealthy)) {
+            throw new RemoteException("No replica reachable: " + endpoints, last);
+        }
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    @Override
+    public String convertTime(String time, String fromZone, String toZone) throws RemoteException {
+        return invoke(c -> c.convertTime(time, fromZone, toZone), true);
+    }
+
+    /**
+     * Like {@link #convertTime}, but also returns the tz data version of the
+     * replica that did the conversion, so results can be cached by version
+     * while replicas are moved to new rules one at a time. The version is
+     * asked of that same replica, unless it answered less than
+     * {@code versionMaxAgeMillis} ago.
+     */
+    public VersionedResult convertTimeVersioned(String time, String fromZone, String toZone,
+            long versionMaxAgeMillis) throws RemoteException {
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(versionMaxAgeMillis);
+        return invoke((endpoint, c) -> {
+            String version = versionOf(endpoint, c, maxAgeNanos);
+            return new VersionedResult(c.convertTime(time, fromZone, toZone), version);
+        }, true);
+    }
+
+    @Override
+    public List<ConversionResult> convertBatch(List<ConversionRequest> requests) throws RemoteException {
+        return invoke(c -> c.convertBatch(requests), true);
+    }
+
+    @Override
+    public String getTzDataVersion() throws RemoteException {
+        return invoke(TimeZoneConverter::getTzDataVersion, true);
+    }
+
+    @Override
+    public String[] getZoneTable() throws RemoteException {
+        return invoke(TimeZoneConverter::getZoneTable, true);
+    }
+
+    @Override
+    public long convertPacked(long localDateTime, int fromZone, int toZone) throws RemoteException {
+        return invoke(c -> c.convertPacked(localDateTime, fromZone, toZone), true);
+    }
+
+    @Override
+    public long toEpochSecond(long localDateTime, int zone) throws RemoteException {
+        return invoke(c -> c.toEpochSecond(localDateTime, zone), true);
+    }
+
+    @Override
+    public long fromEpochSecond(long epochSecond, int zone) throws RemoteException {
+        return invoke(c -> c.fromEpochSecond(epochSecond, zone), true);
+    }
+
+    @Override
+    public RangePage convertRange(RangeRequest request, int firstSlot, int maxSlots) throws RemoteException {
+        return invoke(c -> c.convertRange(request, firstSlot, maxSlots), true);
+    }
+
+    @Override
+    public int streamRange(RangeRequest request, int pageSize, RangeCallback callback) throws RemoteException {
+        return invoke(c -> c.streamRange(request, pageSize, callback), false);
+    }
+
+    private <T> T invoke(RemoteFunction<T> call, boolean idempotent) throws RemoteException {
+        return invoke((endpoint, stub) -> call.apply(stub), idempotent);
+    }
+
+    private <T> T invoke(EndpointFunction<T> call, boolean idempotent) throws RemoteException {
+        List<Endpoint> tried = new ArrayList<>(endpoints.size());
+        RemoteException last = null;
+        Endpoint endpoint;
+        while ((endpoint = choose(tried)) != null) {
+            tried.add(endpoint);
+            TimeZoneConverter stub;
+            try {
+                stub = endpoint.stub();
+            } catch (Exception e) {
+                markDown(endpoint);
+                last = e instanceof RemoteException ? (RemoteException) e
+                        : new RemoteException("Lookup failed for " + endpoint + ": " + e.getMessage(), e);
+                continue;
+            }
+            endpoint.outstanding.incrementAndGet();
+            endpoint.calls.increment();
+            try {
+                T result = call.apply(endpoint, stub);
+                markUp(endpoint);
+                return result;
+            } catch (RemoteException e) {
+                if (isOverloaded(e)) {
+                    // Rejected before running: safe to send elsewhere.
+                    last = e;
+                    continue;
+                }
+                if (!ConversionPipeline.isConnectionFailure(e)) {
+                    throw e;
+                }
+                markDown(endpoint);
+                if (!idempotent && !neverSent(e)) {
+                    throw e;
+                }
+                last = e;
+            } finally {
+                endpoint.outstanding.decrementAndGet();
+            }
+        }
+        throw last != null ? last : new RemoteException("No replica available: " + endpoints);
+    }
+
+    /**
+     * The healthy, untried replica with the fewest outstanding calls; failing
+     * that, the untried one due to come back soonest.
+     */
+    private Endpoint choose(List<Endpoint> tried) {
+        int n = endpoints.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), n);
+        Endpoint best = null;
+        Endpoint fallback = null;
+        for (int i = 0; i < n; i++) {
+            Endpoint candidate = endpoints.get((start + i) % n);
+            if (tried.contains(candidate)) {
+                continue;
+            }
+            if (candidate.healthy) {
+                if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                    best = candidate;
+                }
+            } else if (fallback == null || candidate.retryAt < fallback.retryAt) {
+                fallback = candidate;
+            }
+        }
+        return best != null ? best : fallback;
+    }
+
+    private void checkHealth() {
+        long now = System.currentTimeMillis();
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.healthy || endpoint.retryAt > now) {
+                continue;
+            }
+            try {
+                endpoint.stub = null;
+                endpoint.stub().convertTime("1970-01-01 00:00:00", "UTC", "UTC");
+                markUp(endpoint);
+            } catch (Exception e) {
+                markDown(endpoint);
+            }
+        }
+    }
+
+    private static String versionOf(Endpoint endpoint, TimeZoneConverter stub, long maxAgeNanos)
+            throws RemoteException {
+        long now = System.nanoTime();
+        synchronized (endpoint) {
+            if (endpoint.tzDataVersion != null && now - endpoint.tzDataVersionReadAt < maxAgeNanos) {
+                return endpoint.tzDataVersion;
+            }
+        }
+        String version;
+        try {
+            version = stub.getTzDataVersion();
+        } catch (RemoteException e) {
+            if (!AsyncConverter.isUnsupported(e)) {
+                throw e;
+            }
+            return null;
+        }
+        synchronized (endpoint) {
+            endpoint.tzDataVersion = version;
+            endpoint.tzDataVersionReadAt = now;
+        }
+        return version;
+    }
+
+    private void markUp(Endpoint endpoint) {
+        synchronized (endpoint) {
+            endpoint.backoff.reset();
+            endpoint.healthy = true;
+        }
+    }
+
+    private void markDown(Endpoint endpoint) {
+        synchronized (endpoint) {
+            endpoint.stub = null;
+            // It may come back with other rules.
+            endpoint.tzDataVersion = null;
+            endpoint.retryAt = System.currentTimeMillis() + endpoint.backoff.nextDelayMillis();
+            endpoint.healthy = false;
+        }
+    }
+
+    /**
+     * True if a replica turned the call away because it was saturated. Over
+     * RMI the exception arrives wrapped in a {@link java.rmi.ServerException}.
+     */
+    static boolean isOverloaded(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServerOverloadedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean neverSent(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectIOException
+                    || cause instanceof java.net.ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplicatedConverter" + endpoints;
+    }
+}
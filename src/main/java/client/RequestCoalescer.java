@@ -0,0 +1,69 @@
+package client;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debounces input changes: every {@link #trigger()} restarts a quiet-period
+ * timer, and the action runs once, on the UI executor, when no further change
+ * arrived within the window. Edits to date, time and zones that happen close
+ * together therefore produce a single conversion request.
+ */
+public class RequestCoalescer {
+
+    public static final long DEFAULT_WINDOW_MILLIS = 250;
+
+    private final long windowMillis;
+    private final Executor uiExecutor;
+    private final Runnable action;
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+
+    public RequestCoalescer(long windowMillis, Executor uiExecutor, Runnable action) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Debounce window must not be negative");
+        }
+        this.windowMillis = windowMillis;
+        this.uiExecutor = uiExecutor;
+        this.action = action;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the debounce window from the {@code client.debounceMillis} system
+     * property.
+     */
+    public static long configuredWindowMillis() {
+        return Long.getLong("client.debounceMillis", DEFAULT_WINDOW_MILLIS);
+    }
+
+    public synchronized void trigger() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = scheduler.schedule(() -> uiExecutor.execute(action), windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drops any pending trigger and runs the action right away. Must be called
+     * on the UI thread.
+     */
+    public synchronized void flush() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        action.run();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package client;
+
+import java.time.Instant;
+
+import javafx.application.Platform;
+
+/**
+ * Startup milestones of the client, measured from JVM launch: when the first
+ * frame was shown and when the first conversion result arrived.
+ *
+ * With {@code -Dclient.startup.report=true} each milestone is printed to
+ * standard error as {@code startup <milestone>=<millis>ms}. With
+ * {@code -Dclient.startup.exitAfter=firstFrame} or {@code firstConversion}
+ * the client exits once that milestone is reached, which is how
+ * {@code StartupBenchmark} and the AppCDS training run drive it.
+ */
+public final class StartupTimer {
+
+    public static final String FIRST_FRAME = "firstFrame";
+    public static final String FIRST_CONVERSION = "firstConversion";
+
+    private static final boolean REPORT = Boolean.getBoolean("client.startup.report");
+    private static final String EXIT_AFTER = System.getProperty("client.startup.exitAfter");
+
+    private static final long LAUNCH_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+
+    private static boolean firstFrameSeen;
+    private static boolean firstConversionSeen;
+
+    private StartupTimer() {
+    }
+
+    /** Call on the FX thread once the stage has been shown. */
+    public static void firstFrame() {
+        if (!firstFrameSeen) {
+            firstFrameSeen = true;
+            // The frame is rendered on the pulse after show(); measure after it.
+            Platform.runLater(() -> reached(FIRST_FRAME));
+        }
+    }
+
+    /** Call on the FX thread when a conversion result has been displayed. */
+    public static void firstConversion() {
+        if (!firstConversionSeen) {
+            firstConversionSeen = true;
+            reached(FIRST_CONVERSION);
+        }
+    }
+
+    public static long sinceLaunchMillis() {
+        return System.currentTimeMillis() - LAUNCH_MILLIS;
+    }
+
+    private static void reached(String milestone) {
+        if (REPORT) {
+            System.err.println("startup " + milestone + "=" + sinceLaunchMillis() + "ms");
+        }
+        if (milestone.equals(EXIT_AFTER)) {
+            Platform.exit();
+        }
+    }
+}
@@ -10,39 +10,36 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import server.TimeZoneConverter;
-import java.rmi.Naming;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.ResultCache;
 
 public class TimeZoneClient extends Application {
 
-    private TimeZoneConverter converter;
-    private final OkHttpClient httpClient = new OkHttpClient();
-    private final Gson gson = new Gson();
+    private static final String TWELVE_HOUR = "12-hour (AM/PM)";
+    private static final DateTimeFormatter TWELVE_HOUR_FORMAT = DateTimeFormatter.ofPattern("hh:mm:ss a");
+    private static final DateTimeFormatter TWENTY_FOUR_HOUR_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private final ConversionPipeline pipeline = new ConversionPipeline(Platform::runLater);
+    // Created on the first news request so startup does not load OkHttp and Gson
+    private NewsService newsService;
+    private final AtomicLong newsGeneration = new AtomicLong();
+    private RequestCoalescer coalescer;
+    // Created when the world clock window is first opened
+    private WorldClock worldClock;
+    private Stage worldClockStage;
+    // Last yyyy-MM-dd HH:mm:ss result, re-rendered when only the output format changes
+    private String lastResult;
+    private ConversionPipeline.Source lastSource;
 
     @Override
     public void start(Stage primaryStage) {
         try {
-            converter = null;
-
             VBox root = new VBox();
             root.setPadding(new Insets(20));
             root.setAlignment(Pos.CENTER); // Set alignment to center
@@ -66,38 +63,35 @@ public class TimeZoneClient extends Application {
             timeField.setMaxWidth(Double.MAX_VALUE); // Set max width for consistency
 
             // Connection controls
-            TextField hostField = new TextField("127.0.0.1"); // Changed default to server IP
-            hostField.setPromptText("RMI host");
-            TextField portField = new TextField("1099");
+            TextField hostField = new TextField(System.getProperty("client.host", "127.0.0.1"));
+            hostField.setPromptText("RMI host, or host:port,host:port,... for replicas");
+            TextField portField = new TextField(System.getProperty("client.port", "1099"));
             portField.setPromptText("RMI port");
             Button connectButton = new Button("Connect to Server");
             Button disconnectButton = new Button("Disconnect");
             disconnectButton.setDisable(true);
-            Label statusLabel = new Label("Disconnected");
-
-            // Get all available ZoneIds and sort them
-            List<String> allZones = new ArrayList<>(ZoneId.getAvailableZoneIds());
-            Collections.sort(allZones);
+            Label statusLabel = new Label("Not connected; converting locally");
 
-            ChoiceBox<String> fromZoneChoiceBox = new ChoiceBox<>();
-            fromZoneChoiceBox.getItems().addAll(allZones);
-            fromZoneChoiceBox.setValue(ZoneId.systemDefault().getId());
+            // Searchable pickers; the full zone list is loaded when first opened
+            ZonePicker fromZoneChoiceBox = new ZonePicker(ZoneId.systemDefault().getId());
             fromZoneChoiceBox.setMaxWidth(Double.MAX_VALUE);
 
-            ChoiceBox<String> toZoneChoiceBox = new ChoiceBox<>();
-            toZoneChoiceBox.getItems().addAll(allZones);
-            toZoneChoiceBox.setValue("UTC");
+            ZonePicker toZoneChoiceBox = new ZonePicker("UTC");
             toZoneChoiceBox.setMaxWidth(Double.MAX_VALUE);
 
             // New ChoiceBox for output format
             ChoiceBox<String> outputFormatChoiceBox = new ChoiceBox<>();
-            outputFormatChoiceBox.getItems().addAll("12-hour (AM/PM)", "24-hour");
-            outputFormatChoiceBox.setValue("12-hour (AM/PM)"); // Default to 12-hour format
-            outputFormatChoiceBox.setDisable(true); // Initially disabled
+            outputFormatChoiceBox.getItems().addAll(TWELVE_HOUR, "24-hour");
+            outputFormatChoiceBox.setValue(TWELVE_HOUR); // Default to 12-hour format
             outputFormatChoiceBox.setMaxWidth(Double.MAX_VALUE);
 
             Label resultLabel = new Label();
 
+            // Client cache statistics, see ConversionPipeline
+            Label cacheLabel = new Label();
+            cacheLabel.setVisible(pipeline.getCache() != null);
+            cacheLabel.setManaged(pipeline.getCache() != null);
+
             // News display box
             TextArea newsArea = new TextArea();
             newsArea.setEditable(false);
@@ -105,111 +99,75 @@ public class TimeZoneClient extends Application {
             newsArea.setPrefHeight(60);
             newsArea.setPromptText("Regional news or historical events will appear here...");
 
+            // Shows the last result in the selected format; no server call involved.
+            // Results computed in the client are labelled and styled as local.
+            Runnable renderResult = () -> {
+                if (lastResult != null) {
+                    String formatted = formatResult(lastResult, outputFormatChoiceBox.getValue());
+                    boolean local = lastSource == ConversionPipeline.Source.LOCAL;
+                    resultLabel.setText("Converted Time: " + formatted + (local ? " (local)" : ""));
+                    setStyleClass(resultLabel, "local", local);
+                }
+            };
+
+            // Remote calls and background reconnects run in the pipeline, off the FX thread
+            pipeline.setConnectionListener(new ConversionPipeline.ConnectionListener() {
+                @Override
+                public void reconnecting(int attempt, long delayMillis) {
+                    statusLabel.setText(String.format(
+                            "Offline, converting locally. Reconnecting in %.1f s (attempt %d)", delayMillis / 1000.0,
+                            attempt));
+                }
+
+                @Override
+                public void reconnected() {
+                    statusLabel.setText("Reconnected to server");
+                    // Replace a local result with the server's
+                    coalescer.trigger();
+                }
+
+                @Override
+                public void connectionLost(String message) {
+                    statusLabel.setText("Connection lost: " + message + "; converting locally");
+                }
+            });
+
             // Method to perform conversion
             Runnable performConversion = () -> {
-                if (converter == null) {
-                    resultLabel.setText("Not connected to server");
-                    return;
-                }
                 LocalDate selectedDate = datePicker.getValue();
                 if (selectedDate == null) {
                     resultLabel.setText("Please select a date.");
                     return;
                 }
+                String selectedTime = timeField.getText();
+                if (selectedTime == null || selectedTime.isEmpty()) {
+                    resultLabel.setText("Please enter a time.");
+                    return;
+                }
+                String time;
                 try {
-                    String selectedTime = timeField.getText();
-                    if (selectedTime == null || selectedTime.isEmpty()) {
-                        resultLabel.setText("Please enter a time.");
-                        return;
-                    }
-                    String time = formatDateTime(selectedDate, selectedTime);
-                    String fromZone = fromZoneChoiceBox.getValue();
-                    String toZone = toZoneChoiceBox.getValue();
-                    String result = converter.convertTime(time, fromZone, toZone);
-                    String timeOnly = result.split(" ")[1]; // Extract time part after space
-
-                    // Format the output based on user selection
-                    LocalTime convertedLocalTime = LocalTime.parse(timeOnly);
-                    String formattedOutput;
-                    if ("12-hour (AM/PM)".equals(outputFormatChoiceBox.getValue())) {
-                        formattedOutput = convertedLocalTime.format(DateTimeFormatter.ofPattern("hh:mm:ss a"));
-                    } else {
-                        formattedOutput = convertedLocalTime.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-                    }
-                    resultLabel.setText("Converted Time: " + formattedOutput);
-                    fetchNews(toZone, selectedDate, newsArea);
-                } catch (Exception ex) {
-                    // Detect connection / Remote exceptions and handle disconnect
-                    Throwable cause = ex;
-                    boolean connectionError = false;
-                    while (cause != null) {
-                        if (cause instanceof java.rmi.ConnectException || cause instanceof java.net.ConnectException
-                                || cause instanceof java.rmi.RemoteException) {
-                            connectionError = true;
-                            break;
-                        }
-                        cause = cause.getCause();
-                    }
-                    if (connectionError) {
-                        // Try one automatic reconnect attempt before giving up
-                        statusLabel.setText("Connection lost, attempting reconnect...");
-                        try {
-                            // Use the host from hostField for reconnection
-                            TimeZoneConverter newStub = (TimeZoneConverter) Naming
-                                    .lookup("rmi://" + hostField.getText() + ":" + portField.getText()
-                                            + "/TimeZoneConverter");
-                            converter = newStub;
-                            statusLabel.setText("Reconnected to server");
-                            // retry conversion once
-                            String selectedTime2 = timeField.getText();
-                            if (selectedTime2 == null || selectedTime2.isEmpty()) {
-                                resultLabel.setText("Please enter a time.");
-                                return;
-                            }
-                            String time2 = formatDateTime(selectedDate, selectedTime2);
-                            String fromZone2 = fromZoneChoiceBox.getValue();
-                            String toZone2 = toZoneChoiceBox.getValue();
-                            String result2 = converter.convertTime(time2, fromZone2, toZone2);
-                            String timeOnly2 = result2.split(" ")[1];
-
-                            LocalTime convertedLocalTime2 = LocalTime.parse(timeOnly2);
-                            String formattedOutput2;
-                            if ("12-hour (AM/PM)".equals(outputFormatChoiceBox.getValue())) {
-                                formattedOutput2 = convertedLocalTime2
-                                        .format(DateTimeFormatter.ofPattern("hh:mm:ss a"));
-                            } else {
-                                formattedOutput2 = convertedLocalTime2.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
-                            }
-                            resultLabel.setText("Converted Time: " + formattedOutput2);
-                            fetchNews(toZone2, selectedDate, newsArea);
-                            return;
-                        } catch (Exception reconnectEx) {
-                            // Reconnect failed: update UI and disable inputs
-                            statusLabel.setText("Connection lost: " + reconnectEx.getMessage());
-                            converter = null;
-                            disconnectButton.setDisable(true);
-                            connectButton.setDisable(false);
-                            datePicker.setDisable(true);
-                            timeField.setDisable(true); // Disable time field
-                            fromZoneChoiceBox.setDisable(true);
-                            toZoneChoiceBox.setDisable(true);
-                            outputFormatChoiceBox.setDisable(true); // Disable output format choice box
-                            resultLabel.setText("Not connected to server");
-                            return;
-                        }
-                    }
+                    time = formatDateTime(selectedDate, selectedTime);
+                } catch (IllegalArgumentException ex) {
                     resultLabel.setText("Error: " + ex.getMessage());
+                    return;
                 }
+                String fromZone = fromZoneChoiceBox.getValue();
+                String toZone = toZoneChoiceBox.getValue();
+                pipeline.submit(time, fromZone, toZone, (result, source) -> {
+                    lastResult = result;
+                    lastSource = source;
+                    renderResult.run();
+                    cacheLabel.setText(cacheStatus());
+                    StartupTimer.firstConversion();
+                    fetchNews(toZone, selectedDate, newsArea);
+                }, error -> {
+                    lastResult = null;
+                    setStyleClass(resultLabel, "local", false);
+                    resultLabel.setText("Error: " + error);
+                });
             };
 
-            // Initially disable input controls until connected
-            datePicker.setDisable(true);
-            timeField.setDisable(true); // Disable time field
-            fromZoneChoiceBox.setDisable(true);
-            toZoneChoiceBox.setDisable(true);
-            outputFormatChoiceBox.setDisable(true); // Disable output format choice box
-
-            // Connect button action: attempt RMI lookup
+            // Connect button action: registry lookup happens in the pipeline
             connectButton.setOnAction(evt -> {
                 String host = hostField.getText().trim();
                 String portText = portField.getText().trim();
@@ -221,76 +179,59 @@ public class TimeZoneClient extends Application {
                     return;
                 }
 
-                try {
-                    // Try connecting using Registry directly
-                    Registry registry = LocateRegistry.getRegistry(host, port);
-                    converter = (TimeZoneConverter) registry.lookup("TimeZoneConverter");
-
-                    statusLabel.setText("Connected to server at " + host + ":" + port);
-                    connectButton.setDisable(true);
+                int connectPort = port;
+                statusLabel.setText("Connecting to " + host + ":" + port + "...");
+                connectButton.setDisable(true);
+                pipeline.connect(host, port, connectedHost -> {
+                    statusLabel.setText("Connected to server at " + connectedHost + ":" + connectPort);
+                    hostField.setText(connectedHost);
                     disconnectButton.setDisable(false);
-                    datePicker.setDisable(false);
-                    timeField.setDisable(false);
-                    fromZoneChoiceBox.setDisable(false);
-                    toZoneChoiceBox.setDisable(false);
-                    outputFormatChoiceBox.setDisable(false);
-                    performConversion.run();
-                } catch (Exception e) {
-                    // Fallback: If host was "localhost", try "127.0.0.1" explicitly
-                    if ("localhost".equalsIgnoreCase(host)) {
-                        try {
-                            Registry registry = LocateRegistry.getRegistry("127.0.0.1", port);
-                            converter = (TimeZoneConverter) registry.lookup("TimeZoneConverter");
-
-                            statusLabel.setText("Connected to server at 127.0.0.1:" + port);
-                            hostField.setText("127.0.0.1");
-                            connectButton.setDisable(true);
-                            disconnectButton.setDisable(false);
-                            datePicker.setDisable(false);
-                            timeField.setDisable(false);
-                            fromZoneChoiceBox.setDisable(false);
-                            toZoneChoiceBox.setDisable(false);
-                            outputFormatChoiceBox.setDisable(false);
-                            performConversion.run();
-                            return;
-                        } catch (Exception e2) {
-                            // Fallback failed
-                        }
-                    }
-                    statusLabel.setText("Connection error: " + e.getMessage());
+                    coalescer.flush();
+                }, e -> {
+                    statusLabel.setText("Connection error: " + e.getMessage() + "; converting locally");
+                    connectButton.setDisable(false);
                     e.printStackTrace();
-                }
+                });
             });
 
-            // Disconnect action: clear converter and disable inputs
+            // Disconnect action: clear converter and continue locally
             disconnectButton.setOnAction(evt -> {
                 try {
                     // Just drop reference to remote stub; do not attempt to unbind server-side
-                    converter = null;
-                    statusLabel.setText("Disconnected");
+                    pipeline.disconnect();
+                    statusLabel.setText("Disconnected; converting locally");
                     disconnectButton.setDisable(true);
                     connectButton.setDisable(false);
-                    datePicker.setDisable(true);
-                    timeField.setDisable(true); // Disable time field
-                    fromZoneChoiceBox.setDisable(true);
-                    toZoneChoiceBox.setDisable(true);
-                    outputFormatChoiceBox.setDisable(true); // Disable output format choice box
-                    resultLabel.setText("Not connected to server");
+                    coalescer.trigger();
                 } catch (Exception ex) {
                     statusLabel.setText("Error disconnecting: " + ex.getMessage());
                 }
             });
 
-            // Add listeners for real-time conversion (only meaningful once connected)
-            datePicker.valueProperty().addListener((obs, oldVal, newVal) -> performConversion.run());
-            timeField.textProperty().addListener((obs, oldVal, newVal) -> performConversion.run());
-            fromZoneChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> performConversion.run());
-            toZoneChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> performConversion.run());
-            outputFormatChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> performConversion.run()); // Listener
-                                                                                                                 // for
-                                                                                                                 // new
-                                                                                                                 // choice
-                                                                                                                 // box
+            // Add listeners for real-time conversion (locally until connected).
+            // Changes are debounced so a burst of edits (typing a time, switching
+            // zones) results in a single request once the input settles.
+            coalescer = new RequestCoalescer(RequestCoalescer.configuredWindowMillis(), Platform::runLater,
+                    performConversion);
+            datePicker.valueProperty().addListener((obs, oldVal, newVal) -> coalescer.trigger());
+            timeField.textProperty().addListener((obs, oldVal, newVal) -> coalescer.trigger());
+            fromZoneChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> coalescer.trigger());
+            toZoneChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> coalescer.trigger());
+            // Only the presentation changes, so the last result is re-rendered
+            outputFormatChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> renderResult.run());
+            // Show a (local) result for the initial input straight away
+            coalescer.trigger();
+
+            // World clock window: the From Zone's current time in many zones, one batch call per tick
+            Button worldClockButton = new Button("World Clock");
+            worldClockButton.getStyleClass().add("btn-secondary");
+            worldClockButton.setMaxWidth(Double.MAX_VALUE);
+            worldClockButton.setOnAction(evt -> showWorldClock(primaryStage, fromZoneChoiceBox.getValue()));
+            fromZoneChoiceBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+                if (worldClock != null && newVal != null) {
+                    worldClock.setSourceZone(newVal);
+                }
+            });
 
             // Layout Organization
             HBox connectionBox = new HBox(10, hostField, portField);
@@ -309,6 +250,7 @@ public class TimeZoneClient extends Application {
             connectButton.getStyleClass().add("btn-primary");
             disconnectButton.getStyleClass().add("btn-secondary");
             statusLabel.getStyleClass().add("status-label");
+            cacheLabel.getStyleClass().add("status-label");
             resultLabel.getStyleClass().add("result-box");
             resultLabel.setMaxWidth(Double.MAX_VALUE);
             newsArea.getStyleClass().add("news-area");
@@ -319,6 +261,7 @@ public class TimeZoneClient extends Application {
                     connectionBox,
                     actionBox,
                     statusLabel,
+                    cacheLabel,
                     new Label("Date & Time"),
                     datePicker,
                     timeField, // Add time field to UI
@@ -329,6 +272,7 @@ public class TimeZoneClient extends Application {
                     new Label("Output Format"), // Label for the new choice box
                     outputFormatChoiceBox, // Add output format choice box to UI
                     resultLabel,
+                    worldClockButton,
                     new Label("Regional News"),
                     newsArea);
 
@@ -339,12 +283,77 @@ public class TimeZoneClient extends Application {
             primaryStage.setTitle("Time Zone Converter Client");
             primaryStage.setScene(scene);
             primaryStage.show();
+            StartupTimer.firstFrame();
+            ZoneIndex.prefetch();
+
+            if (Boolean.getBoolean("client.autoConnect")) {
+                connectButton.fire();
+            }
 
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private void showWorldClock(Stage owner, String sourceZone) {
+        if (worldClockStage == null) {
+            worldClock = new WorldClock(pipeline, Platform::runLater);
+            worldClock.setSourceZone(sourceZone);
+            worldClock.setZones(WorldClock.configuredZones());
+            Scene scene = new Scene(new WorldClockView(worldClock), 420, 560);
+            scene.getStylesheets().add(getClass().getResource("/style.css").toExternalForm());
+            worldClockStage = new Stage();
+            worldClockStage.initOwner(owner);
+            worldClockStage.setTitle("World Clock");
+            worldClockStage.setScene(scene);
+            // Only tick while the window is open
+            worldClockStage.setOnShown(event -> worldClock.start(WorldClock.configuredTickMillis()));
+            worldClockStage.setOnHidden(event -> worldClock.stop());
+        }
+        worldClockStage.show();
+        worldClockStage.toFront();
+    }
+
+    @Override
+    public void stop() {
+        if (coalescer != null) {
+            coalescer.shutdown();
+        }
+        if (worldClock != null) {
+            worldClock.shutdown();
+        }
+        pipeline.shutdown();
+        if (newsService != null) {
+            newsService.shutdown();
+        }
+    }
+
+    /** Formats the time of a {@code yyyy-MM-dd HH:mm:ss} result in the chosen output format. */
+    static String formatResult(String result, String outputFormat) {
+        LocalTime time = LocalTime.parse(result.substring(result.indexOf(' ') + 1));
+        return time.format(TWELVE_HOUR.equals(outputFormat) ? TWELVE_HOUR_FORMAT : TWENTY_FOUR_HOUR_FORMAT);
+    }
+
+    private static void setStyleClass(Control control, String styleClass, boolean present) {
+        if (!present) {
+            control.getStyleClass().remove(styleClass);
+        } else if (!control.getStyleClass().contains(styleClass)) {
+            control.getStyleClass().add(styleClass);
+        }
+    }
+
+    private String cacheStatus() {
+        ResultCache cache = pipeline.getCache();
+        if (cache == null) {
+            return "";
+        }
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        String version = pipeline.getTzDataVersion();
+        return String.format("Cache: %.0f%% hits (%d of %d), %d entries, tz data %s", cache.getHitRatio() * 100,
+                hits, lookups, cache.size(), version == null ? "unknown" : version);
+    }
+
     private void fetchNews(String zoneAbbr, LocalDate date, TextArea newsArea) {
         boolean isToday = date.equals(LocalDate.now());
         String dateStr = date.format(DateTimeFormatter.ofPattern("MMMM d, yyyy"));
@@ -355,82 +364,16 @@ public class TimeZoneClient extends Application {
             newsArea.setText("Loading historical events for " + dateStr + "...");
         }
 
-        new Thread(() -> {
-            try {
-                if (isToday) {
-                    // Determine country code from Zone ID for the News API
-                    // Supported by API: in, us, au, ru, fr, gb
-                    String countryCode = "us"; // Default
-                    if (zoneAbbr.startsWith("Australia/"))
-                        countryCode = "au";
-                    else if (zoneAbbr.startsWith("America/"))
-                        countryCode = "us";
-                    else if (zoneAbbr.equals("Europe/London"))
-                        countryCode = "gb";
-                    else if (zoneAbbr.equals("Europe/Paris"))
-                        countryCode = "fr";
-                    else if (zoneAbbr.equals("Asia/Kolkata"))
-                        countryCode = "in";
-                    else if (zoneAbbr.equals("Europe/Moscow"))
-                        countryCode = "ru";
-
-                    String url = "https://saurav.tech/NewsAPI/top-headlines/category/general/" + countryCode + ".json";
-
-                    Request request = new Request.Builder().url(url).build();
-                    try (Response response = httpClient.newCall(request).execute()) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            String jsonResponse = response.body().string();
-                            JsonObject jsonObject = gson.fromJson(jsonResponse, JsonObject.class);
-                            JsonArray articles = jsonObject.getAsJsonArray("articles");
-
-                            StringBuilder newsBuilder = new StringBuilder(
-                                    "Top Headlines for " + dateStr + " (" + countryCode.toUpperCase() + "):\n");
-                            for (int i = 0; i < Math.min(5, articles.size()); i++) {
-                                JsonObject article = articles.get(i).getAsJsonObject();
-                                String title = article.get("title").getAsString();
-                                newsBuilder.append("• ").append(title).append("\n\n");
-                            }
-                            Platform.runLater(() -> newsArea.setText(newsBuilder.toString()));
-                        } else {
-                            Platform.runLater(() -> newsArea
-                                    .setText("Could not fetch news. Server returned: " + response.code()));
-                        }
-                    }
-                } else {
-                    // Use Wikipedia On This Day API for past/future dates
-                    String url = "https://en.wikipedia.org/api/rest_v1/feed/onthisday/events/" + date.getMonthValue()
-                            + "/" + date.getDayOfMonth();
-
-                    Request request = new Request.Builder()
-                            .url(url)
-                            .header("User-Agent", "TimeZoneConverter/1.0")
-                            .build();
-
-                    try (Response response = httpClient.newCall(request).execute()) {
-                        if (response.isSuccessful() && response.body() != null) {
-                            String jsonResponse = response.body().string();
-                            JsonObject jsonObject = gson.fromJson(jsonResponse, JsonObject.class);
-                            JsonArray events = jsonObject.getAsJsonArray("events");
-
-                            StringBuilder newsBuilder = new StringBuilder("On this day ("
-                                    + date.format(DateTimeFormatter.ofPattern("MMMM d")) + ") in history:\n");
-                            for (int i = 0; i < Math.min(5, events.size()); i++) {
-                                JsonObject event = events.get(i).getAsJsonObject();
-                                String text = event.get("text").getAsString();
-                                String year = event.get("year").getAsString();
-                                newsBuilder.append("• ").append(year).append(": ").append(text).append("\n\n");
-                            }
-                            Platform.runLater(() -> newsArea.setText(newsBuilder.toString()));
-                        } else {
-                            Platform.runLater(() -> newsArea
-                                    .setText("Could not fetch history. Server returned: " + response.code()));
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                Platform.runLater(() -> newsArea.setText("Error fetching news: " + e.getMessage()));
+        // Only the most recent request may update the news area
+        long generation = newsGeneration.incrementAndGet();
+        if (newsService == null) {
+            newsService = new NewsService();
+        }
+        newsService.fetch(zoneAbbr, date).thenAccept(text -> Platform.runLater(() -> {
+            if (generation == newsGeneration.get()) {
+                newsArea.setText(text);
             }
-        }).start();
+        }));
     }
 
     private String formatDateTime(LocalDate date, String time12Hour) {
@@ -451,7 +394,10 @@ public class TimeZoneClient extends Application {
                     try {
                         int hour = Integer.parseInt(parts[0].trim());
                         int minute = Integer.parseInt(parts[1].trim());
-                        return String.format("%s %02d:%02d:00", datePart, hour, minute);
+                        // Out-of-range values are rejected here rather than by the server
+                        if (hour >= 0 && hour < 24 && minute >= 0 && minute < 60) {
+                            return String.format("%s %02d:%02d:00", datePart, hour, minute);
+                        }
                     } catch (NumberFormatException nfe) {
                         // Invalid number format
                     }
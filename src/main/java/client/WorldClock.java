@@ -0,0 +1,346 @@
+package client;
+
+import java.rmi.RemoteException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import server.ConversionEngine;
+import server.ConversionRequest;
+import server.ConversionResult;
+
+/**
+ * The current time in one source zone, converted to a list of target zones.
+ *
+ * Every tick converts all targets with a single
+ * {@link ConversionPipeline#convertBatch batch call} (or locally while
+ * offline) on a background thread, compares the results with the previous
+ * tick and hands only the rows that changed to the listener, on the UI
+ * executor. A tick that changed nothing does not reach the UI at all.
+ */
+public class WorldClock {
+
+    public static final long DEFAULT_TICK_MILLIS = 1_000;
+    public static final List<String> DEFAULT_ZONES =
+            Collections.unmodifiableList(Arrays.asList("UTC", "America/New_York", "Europe/London", "Asia/Tokyo"));
+
+    /** One target zone and its converted time, or the error converting to it. */
+    public static final class Row {
+        private final String zone;
+        private final String time;
+        private final String error;
+
+        Row(String zone, String time, String error) {
+            this.zone = zone;
+            this.time = time;
+            this.error = error;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        /** The {@code yyyy-MM-dd HH:mm:ss} time in {@link #getZone()}, or {@code null} on error. */
+        public String getTime() {
+            return time;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Row)) {
+                return false;
+            }
+            Row other = (Row) o;
+            return zone.equals(other.zone) && Objects.equals(time, other.time) && Objects.equals(error, other.error);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(zone, time, error);
+        }
+
+        @Override
+        public String toString() {
+            return zone + " " + (time != null ? time : "error: " + error);
+        }
+    }
+
+    /** What a tick changed. */
+    public static final class Update {
+        private final List<Row> rows;
+        private final int[] changed;
+        private final boolean structural;
+        private final ConversionPipeline.Source source;
+
+        Update(List<Row> rows, int[] changed, boolean structural, ConversionPipeline.Source source) {
+            this.rows = rows;
+            this.changed = changed;
+            this.structural = structural;
+            this.source = source;
+        }
+
+        /** All rows, in target zone order. */
+        public List<Row> getRows() {
+            return rows;
+        }
+
+        /** Indexes of the rows that differ from the previous update. */
+        public int[] getChanged() {
+            return changed.clone();
+        }
+
+        /** True if the zones themselves changed, so every row must be replaced. */
+        public boolean isStructural() {
+            return structural;
+        }
+
+        public ConversionPipeline.Source getSource() {
+            return source;
+        }
+    }
+
+    /** Receives updates on the UI executor. */
+    public interface Listener {
+        void updated(Update update);
+
+        void failed(String message);
+    }
+
+    private final ConversionPipeline pipeline;
+    private final Executor uiExecutor;
+    private final Clock clock;
+    private final ScheduledExecutorService ticker;
+    private final Object refreshLock = new Object();
+    private volatile Listener listener;
+    private ScheduledFuture<?> ticking;
+
+    // Guarded by this
+    private ZoneId sourceZone = ZoneId.systemDefault();
+    private List<String> zones = DEFAULT_ZONES;
+    private boolean zonesChanged = true;
+    // Guarded by refreshLock
+    private List<Row> previous = Collections.emptyList();
+    private ConversionPipeline.Source previousSource;
+
+    public WorldClock(ConversionPipeline pipeline, Executor uiExecutor) {
+        this(pipeline, uiExecutor, Clock.systemUTC());
+    }
+
+    public WorldClock(ConversionPipeline pipeline, Executor uiExecutor, Clock clock) {
+        this.pipeline = pipeline;
+        this.uiExecutor = uiExecutor;
+        this.clock = clock;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "world-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the tick interval from the {@code client.worldClock.tickMillis}
+     * system property.
+     */
+    public static long configuredTickMillis() {
+        return Long.getLong("client.worldClock.tickMillis", DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Reads the initial target zones from the comma-separated
+     * {@code client.worldClock.zones} system property.
+     */
+    public static List<String> configuredZones() {
+        String value = System.getProperty("client.worldClock.zones");
+        if (value == null || value.trim().isEmpty()) {
+            return DEFAULT_ZONES;
+        }
+        List<String> zones = new ArrayList<>();
+        for (String zone : value.split(",")) {
+            if (!zone.trim().isEmpty()) {
+                zones.add(zone.trim());
+            }
+        }
+        return zones;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public synchronized String getSourceZone() {
+        return sourceZone.getId();
+    }
+
+    /** Converts from the current time in {@code zone} from the next tick on. */
+    public void setSourceZone(String zone) {
+        ZoneId zoneId = ZoneId.of(zone);
+        synchronized (this) {
+            sourceZone = zoneId;
+        }
+        refreshSoon();
+    }
+
+    public synchronized List<String> getZones() {
+        return zones;
+    }
+
+    /** Replaces the target zones and refreshes straight away. */
+    public void setZones(List<String> zones) {
+        List<String> copy = Collections.unmodifiableList(new ArrayList<>(zones));
+        synchronized (this) {
+            this.zones = copy;
+            zonesChanged = true;
+        }
+        refreshSoon();
+    }
+
+    public void addZone(String zone) {
+        List<String> next;
+        synchronized (this) {
+            if (zones.contains(zone)) {
+                return;
+            }
+            next = new ArrayList<>(zones);
+            next.add(zone);
+        }
+        setZones(next);
+    }
+
+    public void removeZone(String zone) {
+        List<String> next;
+        synchronized (this) {
+            next = new ArrayList<>(zones);
+        }
+        if (next.remove(zone)) {
+            setZones(next);
+        }
+    }
+
+    /**
+     * Ticks every {@code tickMillis}, on the boundaries of the interval so a
+     * one-second clock changes with the second, until {@link #stop()}.
+     */
+    public synchronized void start(long tickMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick interval must be positive");
+        }
+        stop();
+        long initialDelay = tickMillis - Math.floorMod(clock.millis(), tickMillis);
+        ticker.execute(this::tick);
+        ticking = ticker.scheduleAtFixedRate(this::tick, initialDelay, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (ticking != null) {
+            ticking.cancel(false);
+            ticking = null;
+        }
+    }
+
+    public void shutdown() {
+        stop();
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Converts all targets once, on the calling thread, and notifies the
+     * listener if anything changed. Called on every tick.
+     */
+    void refresh() throws RemoteException {
+        synchronized (refreshLock) {
+            refreshLocked();
+        }
+    }
+
+    private void refreshLocked() throws RemoteException {
+        ZoneId source;
+        List<String> targets;
+        boolean structural;
+        synchronized (this) {
+            source = sourceZone;
+            targets = zones;
+            structural = zonesChanged;
+            zonesChanged = false;
+        }
+        String time = LocalDateTime.now(clock.withZone(source)).truncatedTo(ChronoUnit.SECONDS)
+                .format(ConversionEngine.FORMATTER);
+        List<ConversionRequest> requests = new ArrayList<>(targets.size());
+        for (String target : targets) {
+            requests.add(new ConversionRequest(time, source.getId(), target));
+        }
+        ConversionPipeline.BatchResult batch;
+        try {
+            batch = pipeline.convertBatch(requests);
+        } catch (RemoteException e) {
+            synchronized (this) {
+                // Try the whole zone list again next tick.
+                zonesChanged |= structural;
+            }
+            throw e;
+        }
+        List<ConversionResult> results = batch.getResults();
+        List<Row> rows = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            ConversionResult result = results.get(i);
+            rows.add(result.isSuccess() ? new Row(targets.get(i), result.getResult(), null)
+                    : new Row(targets.get(i), null, result.getError()));
+        }
+
+        structural |= rows.size() != previous.size();
+        int[] changed = new int[rows.size()];
+        int count = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (structural || !rows.get(i).equals(previous.get(i))) {
+                changed[count++] = i;
+            }
+        }
+        boolean sourceChanged = batch.getSource() != previousSource;
+        previous = rows;
+        previousSource = batch.getSource();
+        if (count == 0 && !structural && !sourceChanged) {
+            return;
+        }
+        Update update = new Update(Collections.unmodifiableList(rows), Arrays.copyOf(changed, count), structural,
+                batch.getSource());
+        Listener current = listener;
+        if (current != null) {
+            uiExecutor.execute(() -> current.updated(update));
+        }
+    }
+
+    private void tick() {
+        try {
+            refresh();
+        } catch (RemoteException | RuntimeException e) {
+            Listener current = listener;
+            if (current != null) {
+                uiExecutor.execute(() -> current.failed(e.getMessage()));
+            }
+        }
+    }
+
+    /** Refreshes on the ticker thread if ticking, rather than wait for the next tick. */
+    private synchronized void refreshSoon() {
+        if (ticking != null) {
+            ticker.execute(this::tick);
+        }
+    }
+}
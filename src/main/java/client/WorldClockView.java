@@ -0,0 +1,108 @@
+package client;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * World clock panel: the current time of the source zone in every target zone
+ * of a {@link WorldClock}.
+ *
+ * The rows live in a {@link ListView}, which only creates cells for the
+ * visible rows, and each update replaces just the rows the clock reports as
+ * changed, so a tick re-renders at most the visible changed cells.
+ */
+public class WorldClockView extends VBox {
+
+    private final WorldClock clock;
+    private final ObservableList<WorldClock.Row> rows = FXCollections.observableArrayList();
+    private final Label statusLabel = new Label();
+
+    public WorldClockView(WorldClock clock) {
+        super(10);
+        this.clock = clock;
+        getStyleClass().add("card");
+
+        Label headerLabel = new Label("World Clock");
+        headerLabel.getStyleClass().add("header-label");
+        Label sourceLabel = new Label("Now in " + clock.getSourceZone());
+
+        ListView<WorldClock.Row> listView = new ListView<>(rows);
+        listView.setCellFactory(view -> new RowCell());
+        listView.setFixedCellSize(28);
+        listView.getStyleClass().add("world-clock");
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        ZonePicker zonePicker = new ZonePicker("UTC");
+        zonePicker.setMaxWidth(Double.MAX_VALUE);
+        HBox.setHgrow(zonePicker, Priority.ALWAYS);
+        Button addButton = new Button("Add");
+        addButton.getStyleClass().add("btn-primary");
+        addButton.setOnAction(evt -> clock.addZone(zonePicker.getValue()));
+        Button removeButton = new Button("Remove");
+        removeButton.getStyleClass().add("btn-secondary");
+        removeButton.setOnAction(evt -> {
+            WorldClock.Row selected = listView.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                clock.removeZone(selected.getZone());
+            }
+        });
+        HBox zoneBox = new HBox(10, zonePicker, addButton, removeButton);
+        zoneBox.setAlignment(Pos.CENTER_LEFT);
+
+        statusLabel.getStyleClass().add("status-label");
+
+        clock.setListener(new WorldClock.Listener() {
+            @Override
+            public void updated(WorldClock.Update update) {
+                sourceLabel.setText("Now in " + clock.getSourceZone());
+                if (update.isStructural()) {
+                    rows.setAll(update.getRows());
+                } else {
+                    for (int index : update.getChanged()) {
+                        rows.set(index, update.getRows().get(index));
+                    }
+                }
+                boolean local = update.getSource() == ConversionPipeline.Source.LOCAL;
+                statusLabel.setText(rows.size() + " zones" + (local ? ", converted locally (offline)" : ""));
+                if (!local) {
+                    listView.getStyleClass().remove("local");
+                } else if (!listView.getStyleClass().contains("local")) {
+                    listView.getStyleClass().add("local");
+                }
+            }
+
+            @Override
+            public void failed(String message) {
+                statusLabel.setText("Error: " + message);
+            }
+        });
+
+        getChildren().addAll(headerLabel, sourceLabel, zoneBox, listView, statusLabel);
+    }
+
+    public WorldClock getClock() {
+        return clock;
+    }
+
+    private static final class RowCell extends ListCell<WorldClock.Row> {
+        @Override
+        protected void updateItem(WorldClock.Row row, boolean empty) {
+            super.updateItem(row, empty);
+            if (empty || row == null) {
+                setText(null);
+            } else if (row.getTime() != null) {
+                setText(row.getZone() + "   " + row.getTime());
+            } else {
+                setText(row.getZone() + "   " + row.getError());
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package client;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The sorted list of zone IDs offered by the zone pickers, and the search
+ * over it.
+ *
+ * Reading and sorting the ~600 IDs costs a few milliseconds that do not need
+ * to be paid before the first frame, so the list is built on first use (or
+ * ahead of time by {@link #prefetch()}) and shared from then on.
+ */
+public final class ZoneIndex {
+
+    private ZoneIndex() {
+    }
+
+    private static final class Holder {
+        static final List<String> ZONES = load();
+
+        private static List<String> load() {
+            List<String> zones = new ArrayList<>(ZoneId.getAvailableZoneIds());
+            Collections.sort(zones);
+            return Collections.unmodifiableList(zones);
+        }
+    }
+
+    /** All zone IDs, sorted. Builds the list on the first call. */
+    public static List<String> all() {
+        return Holder.ZONES;
+    }
+
+    public static boolean isZone(String zoneId) {
+        return Collections.binarySearch(all(), zoneId) >= 0;
+    }
+
+    /** Builds the list on a background thread so the first search does not wait for it. */
+    public static void prefetch() {
+        Thread thread = new Thread(ZoneIndex::all, "zone-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Whether {@code zoneId} matches what the user typed: every
+     * whitespace-separated word of {@code query} must occur in the ID, case
+     * insensitively, with spaces in a word matching the underscores of IDs
+     * such as "America/New_York".
+     */
+    public static boolean matches(String zoneId, String query) {
+        if (query == null || query.isBlank()) {
+            return true;
+        }
+        String id = zoneId.toLowerCase(Locale.ROOT).replace('_', ' ');
+        for (String word : query.toLowerCase(Locale.ROOT).replace('_', ' ').trim().split("\\s+")) {
+            if (!id.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The zone IDs that {@link #matches match} {@code query}, in order. */
+    public static List<String> search(String query) {
+        List<String> result = new ArrayList<>();
+        for (String zone : all()) {
+            if (matches(zone, query)) {
+                result.add(zone);
+            }
+        }
+        return result;
+    }
+}
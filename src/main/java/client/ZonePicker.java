@@ -0,0 +1,67 @@
+package client;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.ComboBox;
+
+/**
+ * Searchable zone selector.
+ *
+ * Unlike a {@code ChoiceBox}, which builds a menu item for every entry, the
+ * drop-down is a virtualized list that only creates cells for the visible
+ * rows. It starts out holding just the selected zone; the full
+ * {@link ZoneIndex} is loaded the first time the list is opened or the user
+ * types. Typing filters the list; text that is not a zone ID is discarded when
+ * the editor is committed, so {@link #getValue()} is always a valid zone.
+ */
+public class ZonePicker extends ComboBox<String> {
+
+    private static final int VISIBLE_ROWS = 12;
+
+    private final ObservableList<String> zones = FXCollections.observableArrayList();
+    private final FilteredList<String> filtered = new FilteredList<>(zones);
+    private boolean loaded;
+
+    public ZonePicker(String initialZone) {
+        zones.add(initialZone);
+        setItems(filtered);
+        setValue(initialZone);
+        setEditable(true);
+        setVisibleRowCount(VISIBLE_ROWS);
+        setPromptText("Type to search zones");
+
+        setOnShowing(event -> ensureLoaded());
+        getEditor().textProperty().addListener((obs, oldText, newText) -> {
+            if (!getEditor().isFocused() || newText == null || newText.equals(getValue())) {
+                return;
+            }
+            ensureLoaded();
+            filtered.setPredicate(zone -> ZoneIndex.matches(zone, newText));
+            if (!filtered.isEmpty() && !isShowing()) {
+                show();
+            }
+        });
+        valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue == null || !ZoneIndex.isZone(newValue)) {
+                // Free text that is not a zone: keep the previous selection.
+                setValue(oldValue);
+                return;
+            }
+            filtered.setPredicate(null);
+        });
+        getEditor().focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                getEditor().setText(getValue());
+                filtered.setPredicate(null);
+            }
+        });
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            loaded = true;
+            zones.setAll(ZoneIndex.all());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package loadgen;
+
+import server.Settings;
+
+/**
+ * Settings for {@link LoadGenerator}, given as {@code -Dloadgen.<key>=value}
+ * or {@code --<key>=value}; the command line wins.
+ */
+public class LoadGenConfig {
+
+    private static final String PROPERTY_PREFIX = "loadgen.";
+
+    /** Zones used when none are configured: a mix of DST and fixed-offset zones. */
+    static final String DEFAULT_ZONES = "UTC,America/New_York,America/Los_Angeles,Europe/London,Europe/Berlin,"
+            + "Asia/Kolkata,Asia/Tokyo,Australia/Sydney,Pacific/Auckland,America/Sao_Paulo";
+
+    private final Settings settings;
+
+    private LoadGenConfig(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static LoadGenConfig fromArgs(String[] args) {
+        return new LoadGenConfig(Settings.parse(PROPERTY_PREFIX, args));
+    }
+
+    public String getHost() {
+        return settings.getString("host", "127.0.0.1");
+    }
+
+    public int getPort() {
+        return getInt("port", 1099);
+    }
+
+    /**
+     * Registry name to call. A name ending in {@code *} (e.g.
+     * {@code TimeZoneConverter-*}) spreads the stubs over every name with that
+     * prefix, i.e. over all endpoints of a multi-endpoint server.
+     */
+    public String getBindName() {
+        return settings.getString("bindName", "TimeZoneConverter");
+    }
+
+    /** Number of stubs looked up from the registry; workers share them round robin. */
+    public int getClients() {
+        return getInt("clients", 4);
+    }
+
+    /** Number of worker threads, i.e. the maximum number of calls in flight. */
+    public int getConcurrency() {
+        return getInt("concurrency", 16);
+    }
+
+    /**
+     * Target calls per second over all workers. 0 runs closed loop: every
+     * worker issues its next call as soon as the previous one returns.
+     */
+    public int getRate() {
+        return getInt("rate", 0);
+    }
+
+    public int getWarmupSeconds() {
+        return getInt("warmup", 10);
+    }
+
+    public int getDurationSeconds() {
+        return getInt("duration", 30);
+    }
+
+    /** Comma-separated zone IDs; each call converts between two of them. */
+    public String[] getZones() {
+        return settings.getString("zones", DEFAULT_ZONES).split("\\s*,\\s*");
+    }
+
+    /** Timestamps are drawn uniformly from these years (inclusive). */
+    public int getFromYear() {
+        return getInt("fromYear", 1990);
+    }
+
+    public int getToYear() {
+        return getInt("toYear", 2030);
+    }
+
+    public long getSeed() {
+        return getInt("seed", 42);
+    }
+
+    int getInt(String key, int defaultValue) {
+        return settings.getInt(key, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return "LoadGenConfig" + settings;
+    }
+}
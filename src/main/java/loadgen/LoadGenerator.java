@@ -0,0 +1,173 @@
+package loadgen;
+
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import client.ReplicatedConverter;
+import server.ConversionEngine;
+import server.TimeZoneConverter;
+import server.metrics.LatencyHistogram;
+
+/**
+ * Headless load generator for {@code TimeZoneServer}. Run with e.g.
+ *
+ * <pre>
+ * java -cp target/classes loadgen.LoadGenerator --host=127.0.0.1 --concurrency=32 --rate=20000 --duration=60
+ * </pre>
+ *
+ * Workers call {@code convertTime} with random timestamps and zone pairs
+ * through {@code clients} stubs. With a {@code rate}, each worker follows a
+ * fixed schedule and latency is measured from when a call was due, not when
+ * it was sent, so a stalled server is charged for the calls that queued up
+ * behind it. Without a rate the workers run closed loop and the histogram is
+ * corrected for the calls they would have made at the warm-up mean latency.
+ * Samples taken during warm-up are discarded.
+ */
+public class LoadGenerator {
+
+    private static final int INPUTS_PER_WORKER = 1024;
+
+    private final LoadGenConfig config;
+    private final LatencyHistogram responseTimes = new LatencyHistogram();
+    private final LatencyHistogram serviceTimes = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private volatile long measureStart;
+    private volatile long measureEnd;
+
+    public LoadGenerator(LoadGenConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadGenConfig config = LoadGenConfig.fromArgs(args);
+        System.out.println("Running with " + config);
+        new LoadGenerator(config).run();
+    }
+
+    public void run() throws Exception {
+        Registry registry = LocateRegistry.getRegistry(config.getHost(), config.getPort());
+        String[] names = ReplicatedConverter.Endpoint.discover(config.getHost() + ":" + config.getPort() + "/"
+                + config.getBindName(), config.getPort()).stream().map(ReplicatedConverter.Endpoint::getName)
+                .toArray(String[]::new);
+        // A whole number of stubs per name, so every endpoint gets the same share.
+        int perName = (Math.max(1, config.getClients()) + names.length - 1) / names.length;
+        TimeZoneConverter[] stubs = new TimeZoneConverter[perName * names.length];
+        for (int i = 0; i < stubs.length; i++) {
+            stubs[i] = (TimeZoneConverter) registry.lookup(names[i % names.length]);
+        }
+        System.out.println("Calling " + String.join(", ", names) + " through " + stubs.length + " stubs");
+
+        int concurrency = Math.max(1, config.getConcurrency());
+        long intervalNanos = config.getRate() > 0 ? TimeUnit.SECONDS.toNanos(concurrency) / config.getRate() : 0;
+        long start = System.nanoTime();
+        measureStart = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        measureEnd = measureStart + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            TimeZoneConverter stub = stubs[w % stubs.length];
+            // Stagger the schedules so paced workers do not fire in lockstep.
+            long firstCall = start + (intervalNanos * w) / concurrency;
+            Random random = new Random(config.getSeed() + w);
+            Thread worker = new Thread(() -> {
+                try {
+                    work(stub, random, firstCall, intervalNanos);
+                } finally {
+                    done.countDown();
+                }
+            }, "loadgen-" + w);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        report(TimeUnit.NANOSECONDS.toSeconds(measureEnd - measureStart));
+    }
+
+    private void work(TimeZoneConverter stub, Random random, long firstCall, long intervalNanos) {
+        String[] zones = config.getZones();
+        String[][] inputs = inputs(random, zones);
+        long warmupTotal = 0;
+        long warmupCount = 0;
+        long correctionInterval = 0;
+        long due = firstCall;
+
+        for (int i = 0;; i = (i + 1) % INPUTS_PER_WORKER) {
+            if (intervalNanos > 0) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long sent = System.nanoTime();
+            if (sent >= measureEnd) {
+                return;
+            }
+            boolean failed = false;
+            try {
+                stub.convertTime(inputs[i][0], inputs[i][1], inputs[i][2]);
+            } catch (Exception e) {
+                failed = true;
+            }
+            long finished = System.nanoTime();
+            long serviceTime = finished - sent;
+
+            if (sent < measureStart) {
+                warmupTotal += serviceTime;
+                warmupCount++;
+            } else {
+                if (correctionInterval == 0 && intervalNanos == 0 && warmupCount > 0) {
+                    correctionInterval = warmupTotal / warmupCount;
+                }
+                serviceTimes.record(serviceTime);
+                if (intervalNanos > 0) {
+                    responseTimes.record(finished - due);
+                } else {
+                    responseTimes.recordCorrected(serviceTime, correctionInterval);
+                }
+                if (failed) {
+                    errors.increment();
+                }
+            }
+            due += intervalNanos;
+        }
+    }
+
+    private String[][] inputs(Random random, String[] zones) {
+        LocalDateTime from = LocalDateTime.of(config.getFromYear(), 1, 1, 0, 0);
+        long span = TimeUnit.DAYS.toSeconds(365L * (config.getToYear() - config.getFromYear() + 1));
+        String[][] inputs = new String[INPUTS_PER_WORKER][];
+        for (int i = 0; i < inputs.length; i++) {
+            String time = from.plusSeconds((long) (random.nextDouble() * span)).format(ConversionEngine.FORMATTER);
+            inputs[i] = new String[] { time, zones[random.nextInt(zones.length)], zones[random.nextInt(zones.length)] };
+        }
+        return inputs;
+    }
+
+    private void report(long seconds) {
+        long calls = serviceTimes.getCount();
+        System.out.println();
+        System.out.printf("Calls:      %d in %ds (%.0f/s), errors: %d%n", calls, seconds,
+                seconds == 0 ? 0.0 : (double) calls / seconds, errors.sum());
+        System.out.println("                   p50        p90        p99      p99.9       max   (ms)");
+        printLatencies("response time", responseTimes);
+        printLatencies("service time", serviceTimes);
+        if (config.getRate() == 0) {
+            System.out.println("(closed loop: response time is corrected for coordinated omission"
+                    + " at the warm-up mean latency)");
+        }
+    }
+
+    private static void printLatencies(String label, LatencyHistogram histogram) {
+        System.out.printf("%-14s %10.3f %10.3f %10.3f %10.3f %10.3f%n", label,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMax() / 1e6);
+    }
+}
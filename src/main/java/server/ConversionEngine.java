@@ -0,0 +1,154 @@
+package server;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The conversion logic behind {@link TimeZoneConverterImpl#convertTime}.
+ *
+ * Holds a single shared formatter (DateTimeFormatter is immutable and
+ * thread-safe) and a {@link ZoneCache}, so a conversion no longer builds a
+ * formatter and parses both zone names on every call. Offsets come from
+ * precomputed {@link OffsetTables} rather than walking the zone rules, and
+ * an optional {@link ResultCache} answers repeated string conversions.
+ *
+ * An engine converts with one fixed {@link TzData}, the one its offset tables
+ * were built from. New rules mean a new engine, see {@link #withTzData}, which
+ * {@link LiveEngine} swaps in atomically.
+ */
+public class ConversionEngine {
+
+    public static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN);
+
+    private final ZoneCache zoneCache;
+    private final ZoneTable zoneTable;
+    private final OffsetTables offsetTables;
+    private final ResultCache resultCache;
+    private final TzData tzData;
+    private final String tzDataVersion;
+
+    public ConversionEngine() {
+        this(new ZoneCache(), new ZoneTable(), new OffsetTables(), null);
+    }
+
+    /**
+     * @param resultCache cache for string conversions, or {@code null} to
+     *                    always compute
+     */
+    public ConversionEngine(ZoneCache zoneCache, ZoneTable zoneTable, OffsetTables offsetTables,
+            ResultCache resultCache) {
+        this.zoneCache = zoneCache;
+        this.zoneTable = zoneTable;
+        this.offsetTables = offsetTables;
+        this.resultCache = resultCache;
+        this.tzData = offsetTables.getTzData();
+        this.tzDataVersion = tzData.getVersion();
+    }
+
+    /**
+     * Returns an engine converting with {@code tzData}. It gets offset tables
+     * of its own, covering the same years, and shares this engine's zone
+     * cache, zone table and result cache; cached results are keyed by tz
+     * data generation, so the two engines never see each other's.
+     */
+    public ConversionEngine withTzData(TzData tzData) {
+        OffsetTables tables = new OffsetTables(offsetTables.getFromYear(), offsetTables.getToYear(), tzData);
+        return new ConversionEngine(zoneCache, zoneTable, tables, resultCache);
+    }
+
+    /**
+     * Converts a {@code yyyy-MM-dd HH:mm:ss} local time from one zone to
+     * another. Failures surface as the same runtime exceptions the
+     * equivalent inline java.time calls would throw.
+     */
+    public String convert(String time, String fromZone, String toZone) {
+        if (resultCache == null) {
+            return compute(time, fromZone, toZone);
+        }
+        String result = resultCache.get(time, fromZone, toZone, tzData.getGeneration());
+        if (result == null) {
+            result = compute(time, fromZone, toZone);
+            resultCache.put(time, fromZone, toZone, tzData.getGeneration(), result);
+        }
+        return result;
+    }
+
+    private String compute(String time, String fromZone, String toZone) {
+        LocalDateTime localDateTime = LocalDateTime.parse(time, FORMATTER);
+        ZoneId from = zoneCache.resolve(fromZone);
+        ZoneId to = zoneCache.resolve(toZone);
+        return convert(localDateTime, from, to).format(FORMATTER);
+    }
+
+    /**
+     * Same result as {@code localDateTime.atZone(from).withZoneSameInstant(to).toLocalDateTime()}.
+     */
+    public LocalDateTime convert(LocalDateTime localDateTime, ZoneId from, ZoneId to) {
+        long converted = convertLocalSeconds(localDateTime.toEpochSecond(ZoneOffset.UTC), from, to);
+        return LocalDateTime.ofEpochSecond(converted, localDateTime.getNano(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Converts a local date-time given as seconds since the local epoch
+     * (1970-01-01T00:00 on the wall clock) from one zone to another.
+     */
+    public long convertLocalSeconds(long localSecond, ZoneId from, ZoneId to) {
+        long epochSecond = offsetTables.toEpochSecond(localSecond, from);
+        return epochSecond + offsetTables.offsetAt(epochSecond, to);
+    }
+
+    /**
+     * Packed-date-time variant of {@link #convert(LocalDateTime, ZoneId, ZoneId)};
+     * see {@link PackedDateTime}.
+     */
+    public long convertPacked(long localDateTime, ZoneId from, ZoneId to) {
+        return PackedDateTime.pack(convert(PackedDateTime.unpack(localDateTime), from, to));
+    }
+
+    public long toEpochSecond(long localDateTime, ZoneId zone) {
+        long localSecond = PackedDateTime.unpack(localDateTime).toEpochSecond(ZoneOffset.UTC);
+        return offsetTables.toEpochSecond(localSecond, zone);
+    }
+
+    public long fromEpochSecond(long epochSecond, ZoneId zone) {
+        int offset = offsetTables.offsetAt(epochSecond, zone);
+        return PackedDateTime.pack(LocalDateTime.ofEpochSecond(epochSecond + offset, 0, ZoneOffset.UTC));
+    }
+
+    public ZoneId resolveZone(String zoneName) {
+        return zoneCache.resolve(zoneName);
+    }
+
+    public ZoneTable getZoneTable() {
+        return zoneTable;
+    }
+
+    public OffsetTables getOffsetTables() {
+        return offsetTables;
+    }
+
+    public TzData getTzData() {
+        return tzData;
+    }
+
+    /**
+     * @return the version of the tz database the engine converts with, e.g. "2024a"
+     */
+    public String getTzDataVersion() {
+        return tzDataVersion;
+    }
+
+    /**
+     * @return the result cache, or {@code null} if results are not cached
+     */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public ZoneCache getZoneCache() {
+        return zoneCache;
+    }
+}
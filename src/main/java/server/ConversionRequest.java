@@ -0,0 +1,99 @@
+package server;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Objects;
+
+/**
+ * One item of a {@link TimeZoneConverter#convertBatch(java.util.List)} call.
+ * Fields have the same meaning as the arguments of
+ * {@link TimeZoneConverter#convertTime(String, String, String)}.
+ *
+ * Encoded with {@link WireFormat}: the time as a varint, the zones as
+ * per-stream indices.
+ */
+public final class ConversionRequest implements Externalizable {
+
+    private static final long serialVersionUID = 2L;
+
+    private String time;
+    private String fromZone;
+    private String toZone;
+
+    /** For deserialization only. */
+    public ConversionRequest() {
+    }
+
+    public ConversionRequest(String time, String fromZone, String toZone) {
+        this.time = time;
+        this.fromZone = fromZone;
+        this.toZone = toZone;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public String getFromZone() {
+        return fromZone;
+    }
+
+    public String getToZone() {
+        return toZone;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeVersion(out);
+        writeFields(out, null);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.readVersion(in, ConversionRequest.class);
+        readFields(in, null);
+    }
+
+    /**
+     * The request without version byte, as embedded in a
+     * {@link ConversionRequestList}.
+     *
+     * @param zones the list's zone numbering, or {@code null} to write the zone names inline
+     */
+    void writeFields(ObjectOutput out, WireFormat.ZoneDictionary zones) throws IOException {
+        WireFormat.writeTime(out, time, WireFormat.REQUEST_BASE);
+        WireFormat.writeZone(out, fromZone, zones);
+        WireFormat.writeZone(out, toZone, zones);
+    }
+
+    void readFields(ObjectInput in, WireFormat.ZoneDictionary zones) throws IOException {
+        time = WireFormat.readTime(in, WireFormat.REQUEST_BASE);
+        fromZone = WireFormat.readZone(in, zones);
+        toZone = WireFormat.readZone(in, zones);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConversionRequest)) {
+            return false;
+        }
+        ConversionRequest other = (ConversionRequest) o;
+        return Objects.equals(time, other.time) && Objects.equals(fromZone, other.fromZone)
+                && Objects.equals(toZone, other.toZone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, fromZone, toZone);
+    }
+
+    @Override
+    public String toString() {
+        return "ConversionRequest[" + time + ", " + fromZone + " -> " + toZone + "]";
+    }
+}
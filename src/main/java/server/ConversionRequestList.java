@@ -0,0 +1,37 @@
+package server;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collection;
+
+/**
+ * Batch of requests in the compact form of {@link CompactList}. Any list can
+ * be passed to {@link TimeZoneConverter#convertBatch}; this one is cheaper to
+ * send when it is large.
+ */
+public final class ConversionRequestList extends CompactList<ConversionRequest> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** For deserialization only. */
+    public ConversionRequestList() {
+    }
+
+    public ConversionRequestList(Collection<? extends ConversionRequest> requests) {
+        super(requests);
+    }
+
+    @Override
+    void writeElement(ObjectOutput out, ConversionRequest request, WireFormat.ZoneDictionary zones)
+            throws IOException {
+        request.writeFields(out, zones);
+    }
+
+    @Override
+    ConversionRequest readElement(ObjectInput in, WireFormat.ZoneDictionary zones) throws IOException {
+        ConversionRequest request = new ConversionRequest();
+        request.readFields(in, zones);
+        return request;
+    }
+}
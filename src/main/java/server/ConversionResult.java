@@ -0,0 +1,94 @@
+package server;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Outcome of one batch item: either the converted time or the error message
+ * that {@link TimeZoneConverter#convertTime(String, String, String)} would have
+ * thrown for the same input.
+ *
+ * Encoded with {@link WireFormat}: a tag, then the result time as a varint or
+ * the error message.
+ */
+public final class ConversionResult implements Externalizable {
+
+    private static final long serialVersionUID = 2L;
+
+    private static final int SUCCESS = 0;
+    private static final int FAILURE = 1;
+
+    private String result;
+    private String error;
+
+    /** For deserialization only. */
+    public ConversionResult() {
+    }
+
+    private ConversionResult(String result, String error) {
+        this.result = result;
+        this.error = error;
+    }
+
+    public static ConversionResult success(String result) {
+        return new ConversionResult(result, null);
+    }
+
+    public static ConversionResult failure(String error) {
+        return new ConversionResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeVersion(out);
+        writeFields(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.readVersion(in, ConversionResult.class);
+        readFields(in);
+    }
+
+    /** The result without version byte, as embedded in a {@link ConversionResultList}. */
+    void writeFields(ObjectOutput out) throws IOException {
+        if (isSuccess()) {
+            out.writeByte(SUCCESS);
+            WireFormat.writeTime(out, result, WireFormat.REQUEST_BASE);
+        } else {
+            out.writeByte(FAILURE);
+            WireFormat.writeString(out, error);
+        }
+    }
+
+    void readFields(ObjectInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        if (tag == SUCCESS) {
+            result = WireFormat.readTime(in, WireFormat.REQUEST_BASE);
+        } else if (tag == FAILURE) {
+            error = WireFormat.readString(in);
+        } else {
+            throw new InvalidObjectException("Unknown ConversionResult tag " + tag);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess() ? "ConversionResult[" + result + "]" : "ConversionResult[error=" + error + "]";
+    }
+}
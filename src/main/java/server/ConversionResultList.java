@@ -0,0 +1,36 @@
+package server;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collection;
+
+/**
+ * Results of {@link TimeZoneConverter#convertBatch} in the compact form of
+ * {@link CompactList}.
+ */
+public final class ConversionResultList extends CompactList<ConversionResult> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** For deserialization only. */
+    public ConversionResultList() {
+    }
+
+    public ConversionResultList(Collection<? extends ConversionResult> results) {
+        super(results);
+    }
+
+    @Override
+    void writeElement(ObjectOutput out, ConversionResult result, WireFormat.ZoneDictionary zones)
+            throws IOException {
+        result.writeFields(out);
+    }
+
+    @Override
+    ConversionResult readElement(ObjectInput in, WireFormat.ZoneDictionary zones) throws IOException {
+        ConversionResult result = new ConversionResult();
+        result.readFields(in);
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+package server;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.registry.Registry;
+import java.rmi.server.RMIServerSocketFactory;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Several converter instances sharing one engine and dispatcher, each
+ * exported on its own port so each has its own RMI listener and connection
+ * threads.
+ *
+ * With more than one endpoint they are bound as {@code <name>-0} to
+ * {@code <name>-(n-1)}, and {@code <name>} itself stays bound to the first
+ * for clients that only know the plain name.
+ */
+public final class EndpointGroup {
+
+    private final List<TimeZoneConverterImpl> endpoints;
+    private final List<Integer> ports;
+
+    private EndpointGroup(List<TimeZoneConverterImpl> endpoints, List<Integer> ports) {
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.ports = Collections.unmodifiableList(ports);
+    }
+
+    /**
+     * @param basePort port of the first endpoint, the others use the ports
+     *                 after it; 0 picks a free port for each
+     * @param tuning   socket tuning, or {@code null} for the default sockets
+     */
+    public static EndpointGroup export(ConversionEngine engine, RequestDispatcher dispatcher, int count, int basePort,
+            SocketTuning tuning) throws RemoteException {
+        return export(new LiveEngine(engine), dispatcher, count, basePort, tuning);
+    }
+
+    /**
+     * Like {@link #export(ConversionEngine, RequestDispatcher, int, int, SocketTuning)},
+     * with an engine that can be swapped while the endpoints are serving.
+     */
+    public static EndpointGroup export(LiveEngine engine, RequestDispatcher dispatcher, int count, int basePort,
+            SocketTuning tuning) throws RemoteException {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1");
+        }
+        List<TimeZoneConverterImpl> endpoints = new ArrayList<>(count);
+        List<Integer> ports = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                // Objects exported on port 0 with equal socket factories share
+                // a listener; a factory of its own gives each endpoint its own.
+                EndpointSocketFactory ssf = new EndpointSocketFactory(
+                        tuning == null ? null : new TunedServerSocketFactory(tuning));
+                TimeZoneConverterImpl endpoint = new TimeZoneConverterImpl(engine, dispatcher,
+                        basePort > 0 ? basePort + i : 0, tuning == null ? null : new TunedClientSocketFactory(tuning),
+                        ssf);
+                endpoints.add(endpoint);
+                ports.add(ssf.port);
+            }
+        } catch (RemoteException | RuntimeException e) {
+            unexport(endpoints);
+            throw e;
+        }
+        return new EndpointGroup(endpoints, ports);
+    }
+
+    public static String indexedName(String name, int index) {
+        return name + "-" + index;
+    }
+
+    public void bind(Registry registry, String name) throws RemoteException {
+        registry.rebind(name, endpoints.get(0));
+        if (endpoints.size() > 1) {
+            for (int i = 0; i < endpoints.size(); i++) {
+                registry.rebind(indexedName(name, i), endpoints.get(i));
+            }
+        }
+    }
+
+    public List<TimeZoneConverterImpl> getEndpoints() {
+        return endpoints;
+    }
+
+    /** The ports the endpoints listen on, in endpoint order. */
+    public List<Integer> getPorts() {
+        return ports;
+    }
+
+    public int size() {
+        return endpoints.size();
+    }
+
+    public void unexport() {
+        unexport(endpoints);
+    }
+
+    private static void unexport(List<TimeZoneConverterImpl> endpoints) {
+        for (TimeZoneConverterImpl endpoint : endpoints) {
+            try {
+                UnicastRemoteObject.unexportObject(endpoint, true);
+            } catch (NoSuchObjectException e) {
+                // Already gone.
+            }
+        }
+    }
+
+    /**
+     * Server socket factory for one endpoint. It is only equal to itself, and
+     * remembers the port its socket was bound to.
+     */
+    private static final class EndpointSocketFactory implements RMIServerSocketFactory {
+        private final RMIServerSocketFactory delegate;
+        private volatile int port;
+
+        /** @param delegate factory to create the socket with, or {@code null} for a plain one */
+        EndpointSocketFactory(RMIServerSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            ServerSocket socket = delegate != null ? delegate.createServerSocket(port) : new ServerSocket(port);
+            this.port = socket.getLocalPort();
+            return socket;
+        }
+    }
+}
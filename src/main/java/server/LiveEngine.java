@@ -0,0 +1,53 @@
+package server;
+
+/**
+ * The {@link ConversionEngine} currently in use, replaceable at runtime when
+ * new tz data arrives.
+ *
+ * A reload builds the next engine off to the side, including offset tables
+ * for every zone the current engine has built tables for, and then publishes
+ * it with a single volatile write. Calls read {@link #get()} once and use that
+ * engine throughout, so they never wait for a reload and never mix the rules
+ * of two versions.
+ */
+public final class LiveEngine {
+
+    private volatile ConversionEngine current;
+
+    public LiveEngine(ConversionEngine initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("Engine cannot be null");
+        }
+        this.current = initial;
+    }
+
+    public ConversionEngine get() {
+        return current;
+    }
+
+    public String getTzDataVersion() {
+        return current.getTzDataVersion();
+    }
+
+    /**
+     * Switches to an engine converting with {@code tzData}, unless that
+     * version is already active.
+     *
+     * @return whether a new engine was published
+     */
+    public synchronized boolean reload(TzData tzData) {
+        ConversionEngine previous = current;
+        if (previous.getTzDataVersion().equals(tzData.getVersion())) {
+            return false;
+        }
+        ConversionEngine next = previous.withTzData(tzData);
+        next.getOffsetTables().preload(previous.getOffsetTables().zones());
+        current = next;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "LiveEngine[tzData=" + current.getTzData() + "]";
+    }
+}
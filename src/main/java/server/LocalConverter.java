@@ -0,0 +1,130 @@
+package server;
+
+import java.rmi.RemoteException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The string conversions of {@link TimeZoneConverter} as plain method calls,
+ * with the validation and error messages of the remote service.
+ * {@link TimeZoneConverterImpl} serves its {@code convertTime} and
+ * {@code convertBatch} through one of these, and a client can run one
+ * in-process, against its own tzdb, when no server is reachable.
+ *
+ * Failures are reported as {@link RemoteException}s with the same messages a
+ * server would send, so callers need not tell the two apart.
+ */
+public class LocalConverter {
+
+    private final LiveEngine engine;
+
+    public LocalConverter() {
+        this(new LiveEngine(new ConversionEngine()));
+    }
+
+    public LocalConverter(LiveEngine engine) {
+        this.engine = engine;
+    }
+
+    /** See {@link TimeZoneConverter#convertTime}. */
+    public String convertTime(String time, String fromZone, String toZone) throws RemoteException {
+        validate(time, fromZone, toZone);
+        try {
+            return engine.get().convert(time, fromZone, toZone);
+        } catch (Exception e) {
+            throw new RemoteException("Error converting time: " + e.getMessage());
+        }
+    }
+
+    /** See {@link TimeZoneConverter#convertBatch}. */
+    public List<ConversionResult> convertBatch(List<ConversionRequest> requests) throws RemoteException {
+        if (requests == null) {
+            throw new RemoteException("Batch cannot be null");
+        }
+        if (requests.size() > TimeZoneConverterImpl.MAX_BATCH_SIZE) {
+            throw new RemoteException("Batch too large: " + requests.size() + " items (max "
+                    + TimeZoneConverterImpl.MAX_BATCH_SIZE + ")");
+        }
+        // Zones repeat heavily within a batch (one source zone, many targets),
+        // so each distinct name is resolved once and reused for the rest; a
+        // time shared by consecutive requests (a world clock tick) is parsed
+        // once too. The whole batch converts with one engine, i.e. one tz
+        // version.
+        ConversionEngine engine = this.engine.get();
+        Map<String, Object> zones = new HashMap<>();
+        String lastTime = null;
+        LocalDateTime lastParsed = null;
+        List<ConversionResult> results = new ArrayList<>(requests.size());
+        for (ConversionRequest request : requests) {
+            if (request == null) {
+                results.add(ConversionResult.failure("Request cannot be null"));
+                continue;
+            }
+            try {
+                validate(request.getTime(), request.getFromZone(), request.getToZone());
+            } catch (RemoteException e) {
+                results.add(ConversionResult.failure(e.getMessage()));
+                continue;
+            }
+            try {
+                if (!request.getTime().equals(lastTime)) {
+                    lastParsed = LocalDateTime.parse(request.getTime(), ConversionEngine.FORMATTER);
+                    lastTime = request.getTime();
+                }
+                LocalDateTime localDateTime = lastParsed;
+                ZoneId from = resolveOnce(engine, zones, request.getFromZone());
+                ZoneId to = resolveOnce(engine, zones, request.getToZone());
+                String result = engine.convert(localDateTime, from, to).format(ConversionEngine.FORMATTER);
+                results.add(ConversionResult.success(result));
+            } catch (Exception e) {
+                results.add(ConversionResult.failure("Error converting time: " + e.getMessage()));
+            }
+        }
+        return new ConversionResultList(results);
+    }
+
+    /** See {@link TimeZoneConverter#getTzDataVersion}. */
+    public String getTzDataVersion() {
+        return engine.getTzDataVersion();
+    }
+
+    public LiveEngine getLiveEngine() {
+        return engine;
+    }
+
+    /**
+     * Rejects a missing time or zone with the message the server sends for it.
+     */
+    public static void validate(String time, String fromZone, String toZone) throws RemoteException {
+        if (time == null || time.trim().isEmpty()) {
+            throw new RemoteException("Time string cannot be null or empty");
+        }
+        if (fromZone == null || fromZone.trim().isEmpty()) {
+            throw new RemoteException("From zone cannot be null or empty");
+        }
+        if (toZone == null || toZone.trim().isEmpty()) {
+            throw new RemoteException("To zone cannot be null or empty");
+        }
+    }
+
+    private static ZoneId resolveOnce(ConversionEngine engine, Map<String, Object> zones, String zoneName) {
+        Object resolved = zones.get(zoneName);
+        if (resolved == null) {
+            try {
+                resolved = engine.resolveZone(zoneName);
+            } catch (DateTimeException e) {
+                resolved = e;
+            }
+            zones.put(zoneName, resolved);
+        }
+        if (resolved instanceof DateTimeException) {
+            throw (DateTimeException) resolved;
+        }
+        return (ZoneId) resolved;
+    }
+}
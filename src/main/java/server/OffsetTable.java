@@ -0,0 +1,141 @@
+package server;
+
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+/**
+ * A zone's {@link ZoneRules} flattened into sorted primitive arrays for a
+ * fixed window of instants, so offsets can be found with a binary search
+ * instead of walking the rules.
+ *
+ * Both lookups return {@link #OUT_OF_WINDOW} when the answer is not covered
+ * by the table; callers then fall back to {@link ZoneRules}.
+ */
+public final class OffsetTable {
+
+    public static final long OUT_OF_WINDOW = Long.MIN_VALUE;
+
+    /** Largest offset java.time allows, used to keep local lookups inside the window. */
+    private static final int MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private final long windowStart;
+    private final long windowEnd;
+    /** Transition instants in epoch seconds, ascending. */
+    private final long[] instants;
+    /** offsets[0] applies before the first transition, offsets[k + 1] after transition k. */
+    private final int[] offsets;
+    /** Local epoch seconds at which transition k starts, i.e. the earlier side of its gap or overlap. */
+    private final long[] localStarts;
+    /** Local epoch seconds at which the gap or overlap of transition k ends. */
+    private final long[] localEnds;
+    private final boolean usable;
+
+    private OffsetTable(long windowStart, long windowEnd, long[] instants, int[] offsets) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.instants = instants;
+        this.offsets = offsets;
+        this.localStarts = new long[instants.length];
+        this.localEnds = new long[instants.length];
+        boolean ordered = true;
+        for (int k = 0; k < instants.length; k++) {
+            localStarts[k] = instants[k] + Math.min(offsets[k], offsets[k + 1]);
+            localEnds[k] = instants[k] + Math.max(offsets[k], offsets[k + 1]);
+            if (k > 0 && localStarts[k] < localEnds[k - 1]) {
+                ordered = false;
+            }
+        }
+        // Transitions closer together than their own gap/overlap would make
+        // local time ambiguous across more than two offsets; never seen in
+        // tzdb, but leave such zones entirely to ZoneRules if it happens.
+        this.usable = ordered;
+    }
+
+    /**
+     * Builds the table for instants in {@code [windowStart, windowEnd)}, given
+     * in epoch seconds.
+     */
+    public static OffsetTable build(ZoneRules rules, long windowStart, long windowEnd) {
+        int count = 0;
+        long[] instants = new long[16];
+        int[] offsets = new int[17];
+        offsets[0] = rules.getOffset(Instant.ofEpochSecond(windowStart)).getTotalSeconds();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(windowStart));
+        while (transition != null && transition.toEpochSecond() < windowEnd) {
+            if (count == instants.length) {
+                instants = Arrays.copyOf(instants, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2 + 1);
+            }
+            instants[count] = transition.toEpochSecond();
+            offsets[count + 1] = transition.getOffsetAfter().getTotalSeconds();
+            count++;
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        return new OffsetTable(windowStart, windowEnd, Arrays.copyOf(instants, count),
+                Arrays.copyOf(offsets, count + 1));
+    }
+
+    /**
+     * Returns the offset in seconds in effect at {@code epochSecond}, or
+     * {@link #OUT_OF_WINDOW}.
+     */
+    public long offsetAt(long epochSecond) {
+        if (!usable || epochSecond < windowStart || epochSecond >= windowEnd) {
+            return OUT_OF_WINDOW;
+        }
+        return offsets[countAtOrBefore(instants, epochSecond)];
+    }
+
+    /**
+     * Returns the instant of a local date-time (given as seconds since the
+     * local epoch) with the same resolution rules as
+     * {@link java.time.ZonedDateTime#ofLocal}: times in a gap are shifted
+     * forward by the gap length and times in an overlap take the earlier
+     * offset. Returns {@link #OUT_OF_WINDOW} if not covered by the table.
+     */
+    public long toEpochSecond(long localSecond) {
+        if (!usable || localSecond - MAX_OFFSET_SECONDS < windowStart
+                || localSecond + MAX_OFFSET_SECONDS >= windowEnd) {
+            return OUT_OF_WINDOW;
+        }
+        int k = countAtOrBefore(localStarts, localSecond);
+        if (k == 0) {
+            return localSecond - offsets[0];
+        }
+        int transition = k - 1;
+        if (localSecond < localEnds[transition]) {
+            // In the gap or overlap: both cases resolve with the offset before.
+            return localSecond - offsets[transition];
+        }
+        return localSecond - offsets[transition + 1];
+    }
+
+    public int transitionCount() {
+        return instants.length;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    long transitionInstant(int k) {
+        return instants[k];
+    }
+
+    /** Number of elements of the ascending array that are {@code <= value}. */
+    private static int countAtOrBefore(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
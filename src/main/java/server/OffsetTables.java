@@ -0,0 +1,126 @@
+package server;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-zone {@link OffsetTable}s for a configurable window of years, built
+ * lazily on first use (or all at once via {@link #preload}). Lookups outside
+ * the window are answered from the zone's {@link ZoneRules}, so results are
+ * identical to plain java.time for any input.
+ *
+ * Rules come from a {@link TzData}, the JVM's own unless given otherwise, so
+ * a set of tables always reflects exactly one tz database version.
+ */
+public class OffsetTables {
+
+    public static final int DEFAULT_FROM_YEAR = 1970;
+    public static final int DEFAULT_TO_YEAR = 2100;
+
+    private final int fromYear;
+    private final int toYear;
+    private final long windowStart;
+    private final long windowEnd;
+    private final TzData tzData;
+    private final ConcurrentHashMap<ZoneId, OffsetTable> tables = new ConcurrentHashMap<>();
+
+    public OffsetTables() {
+        this(DEFAULT_FROM_YEAR, DEFAULT_TO_YEAR);
+    }
+
+    /**
+     * @param fromYear first year covered by the tables
+     * @param toYear   last year covered by the tables (inclusive)
+     */
+    public OffsetTables(int fromYear, int toYear) {
+        this(fromYear, toYear, TzData.system());
+    }
+
+    /**
+     * @param fromYear first year covered by the tables
+     * @param toYear   last year covered by the tables (inclusive)
+     * @param tzData   rules the tables are built from
+     */
+    public OffsetTables(int fromYear, int toYear, TzData tzData) {
+        if (toYear < fromYear) {
+            throw new IllegalArgumentException("Invalid year window: " + fromYear + ".." + toYear);
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.windowStart = LocalDate.of(fromYear, 1, 1).toEpochDay() * 86400L;
+        this.windowEnd = LocalDate.of(toYear + 1, 1, 1).toEpochDay() * 86400L;
+        this.tzData = tzData;
+    }
+
+    public void preload(Iterable<ZoneId> zones) {
+        for (ZoneId zone : zones) {
+            table(zone);
+        }
+    }
+
+    public OffsetTable table(ZoneId zone) {
+        return tables.computeIfAbsent(zone, z -> OffsetTable.build(tzData.rules(z), windowStart, windowEnd));
+    }
+
+    /**
+     * Returns the offset in seconds of {@code zone} at {@code epochSecond}.
+     */
+    public int offsetAt(long epochSecond, ZoneId zone) {
+        long offset = table(zone).offsetAt(epochSecond);
+        if (offset != OffsetTable.OUT_OF_WINDOW) {
+            return (int) offset;
+        }
+        return tzData.rules(zone).getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+
+    /**
+     * Returns the epoch second of a local date-time (as seconds since the
+     * local epoch) in {@code zone}, resolving gaps and overlaps like
+     * {@link LocalDateTime#atZone}.
+     */
+    public long toEpochSecond(long localSecond, ZoneId zone) {
+        long epochSecond = table(zone).toEpochSecond(localSecond);
+        if (epochSecond != OffsetTable.OUT_OF_WINDOW) {
+            return epochSecond;
+        }
+        // Same resolution as ZonedDateTime.ofLocal, but against our rules.
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        ZoneRules rules = tzData.rules(zone);
+        List<ZoneOffset> valid = rules.getValidOffsets(local);
+        if (valid.isEmpty()) {
+            ZoneOffsetTransition gap = rules.getTransition(local);
+            return local.plusSeconds(gap.getDuration().getSeconds()).toEpochSecond(gap.getOffsetAfter());
+        }
+        return local.toEpochSecond(valid.get(0));
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    public TzData getTzData() {
+        return tzData;
+    }
+
+    /** Zones whose tables have been built so far. */
+    public Set<ZoneId> zones() {
+        return new HashSet<>(tables.keySet());
+    }
+
+    public int size() {
+        return tables.size();
+    }
+}
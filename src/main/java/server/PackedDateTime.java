@@ -0,0 +1,70 @@
+package server;
+
+import java.time.LocalDateTime;
+
+/**
+ * Packs a second-precision local date-time into a single {@code long}:
+ *
+ * <pre>
+ * | year (signed, 38 bits) | month (4) | day (5) | hour (5) | minute (6) | second (6) |
+ * </pre>
+ *
+ * Packed values of non-negative years sort in chronological order. This is
+ * the wire format of the primitive conversion methods on
+ * {@link TimeZoneConverter}; clients use the same class to build and read it.
+ */
+public final class PackedDateTime {
+
+    private static final int SECOND_BITS = 6;
+    private static final int MINUTE_SHIFT = SECOND_BITS;
+    private static final int HOUR_SHIFT = MINUTE_SHIFT + 6;
+    private static final int DAY_SHIFT = HOUR_SHIFT + 5;
+    private static final int MONTH_SHIFT = DAY_SHIFT + 5;
+    private static final int YEAR_SHIFT = MONTH_SHIFT + 4;
+
+    private PackedDateTime() {
+    }
+
+    public static long pack(int year, int month, int day, int hour, int minute, int second) {
+        return ((long) year << YEAR_SHIFT) | ((long) month << MONTH_SHIFT) | ((long) day << DAY_SHIFT)
+                | ((long) hour << HOUR_SHIFT) | ((long) minute << MINUTE_SHIFT) | second;
+    }
+
+    public static long pack(LocalDateTime dateTime) {
+        return pack(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(), dateTime.getHour(),
+                dateTime.getMinute(), dateTime.getSecond());
+    }
+
+    /**
+     * @throws java.time.DateTimeException if the packed fields do not form a
+     *                                     valid date-time
+     */
+    public static LocalDateTime unpack(long packed) {
+        return LocalDateTime.of(year(packed), month(packed), day(packed), hour(packed), minute(packed),
+                second(packed));
+    }
+
+    public static int year(long packed) {
+        return (int) (packed >> YEAR_SHIFT);
+    }
+
+    public static int month(long packed) {
+        return (int) (packed >>> MONTH_SHIFT) & 0xF;
+    }
+
+    public static int day(long packed) {
+        return (int) (packed >>> DAY_SHIFT) & 0x1F;
+    }
+
+    public static int hour(long packed) {
+        return (int) (packed >>> HOUR_SHIFT) & 0x1F;
+    }
+
+    public static int minute(long packed) {
+        return (int) (packed >>> MINUTE_SHIFT) & 0x3F;
+    }
+
+    public static int second(long packed) {
+        return (int) packed & 0x3F;
+    }
+}
@@ -0,0 +1,18 @@
+package server;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Receives the pages of {@link TimeZoneConverter#streamRange}. Clients
+ * export an implementation (e.g. with
+ * {@link java.rmi.server.UnicastRemoteObject#exportObject(Remote, int)}) and
+ * pass the stub; the server calls it once per page, in order.
+ */
+public interface RangeCallback extends Remote {
+
+    /**
+     * @return false to stop the stream after this page
+     */
+    boolean onPage(RangePage page) throws RemoteException;
+}
@@ -0,0 +1,163 @@
+package server;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes pages of a {@link RangeRequest}.
+ *
+ * Each zone's offset is looked up once at the start of a page and then only
+ * again when a slot passes that zone's next transition, so a page costs one
+ * comparison per zone and slot plus one rules lookup per transition.
+ */
+final class RangeConverter {
+
+    static final int MAX_TARGET_ZONES = 31;
+    static final int MAX_RANGE_SLOTS = 1_000_000;
+
+    private final TzData tzData;
+    private final ZoneId[] zones;
+    private final long startEpoch;
+    private final long step;
+    private final int totalSlots;
+
+    private RangeConverter(TzData tzData, ZoneId[] zones, long startEpoch, long step, int totalSlots) {
+        this.tzData = tzData;
+        this.zones = zones;
+        this.startEpoch = startEpoch;
+        this.step = step;
+        this.totalSlots = totalSlots;
+    }
+
+    /**
+     * @throws IllegalArgumentException with a message for the client if the
+     *                                  request is invalid
+     */
+    static RangeConverter create(ConversionEngine engine, RangeRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Range request cannot be null");
+        }
+        if (isBlank(request.getStart()) || isBlank(request.getEnd())) {
+            throw new IllegalArgumentException("Range start and end cannot be null or empty");
+        }
+        if (isBlank(request.getFromZone())) {
+            throw new IllegalArgumentException("From zone cannot be null or empty");
+        }
+        List<String> toZones = request.getToZones();
+        if (toZones == null || toZones.isEmpty()) {
+            throw new IllegalArgumentException("Target zones cannot be null or empty");
+        }
+        if (toZones.size() > MAX_TARGET_ZONES) {
+            throw new IllegalArgumentException(
+                    "Too many target zones: " + toZones.size() + " (max " + MAX_TARGET_ZONES + ")");
+        }
+        for (String toZone : toZones) {
+            if (isBlank(toZone)) {
+                throw new IllegalArgumentException("Target zone cannot be null or empty");
+            }
+        }
+        if (request.getStepSeconds() < 1) {
+            throw new IllegalArgumentException("Step must be at least one second");
+        }
+
+        ZoneId[] zones = new ZoneId[toZones.size() + 1];
+        long startEpoch;
+        long endEpoch;
+        try {
+            zones[0] = engine.resolveZone(request.getFromZone());
+            for (int i = 0; i < toZones.size(); i++) {
+                zones[i + 1] = engine.resolveZone(toZones.get(i));
+            }
+            startEpoch = toEpochSecond(engine, request.getStart(), zones[0]);
+            endEpoch = toEpochSecond(engine, request.getEnd(), zones[0]);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Error converting time: " + e.getMessage());
+        }
+        if (endEpoch < startEpoch) {
+            throw new IllegalArgumentException("Range end is before range start");
+        }
+        long slots = (endEpoch - startEpoch) / request.getStepSeconds() + 1;
+        if (slots > MAX_RANGE_SLOTS) {
+            throw new IllegalArgumentException("Range too large: " + slots + " slots (max " + MAX_RANGE_SLOTS + ")");
+        }
+        return new RangeConverter(engine.getTzData(), zones, startEpoch, request.getStepSeconds(), (int) slots);
+    }
+
+    int getTotalSlots() {
+        return totalSlots;
+    }
+
+    RangePage page(int firstSlot, int maxSlots) {
+        if (firstSlot < 0 || firstSlot > totalSlots) {
+            throw new IllegalArgumentException("Invalid slot: " + firstSlot + " (range has " + totalSlots + ")");
+        }
+        if (maxSlots < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        int count = Math.min(maxSlots, totalSlots - firstSlot);
+        List<RangeSlot> slots = new ArrayList<>(count);
+        if (count == 0) {
+            return new RangePage(slots, firstSlot, totalSlots);
+        }
+
+        int zoneCount = zones.length;
+        ZoneRules[] rules = new ZoneRules[zoneCount];
+        int[] offsets = new int[zoneCount];
+        long[] nextTransitions = new long[zoneCount];
+        // Start from the slot before the page, so the first slot of a later
+        // page is marked the same way as it would be in one big page.
+        long previous = firstSlot == 0 ? startEpoch : startEpoch + (firstSlot - 1) * step;
+        for (int z = 0; z < zoneCount; z++) {
+            rules[z] = tzData.rules(zones[z]);
+            offsets[z] = offsetAt(rules[z], previous);
+            nextTransitions[z] = nextTransition(rules[z], previous);
+        }
+
+        for (int i = 0; i < count; i++) {
+            long epoch = startEpoch + (firstSlot + i) * step;
+            int transitions = 0;
+            for (int z = 0; z < zoneCount; z++) {
+                if (epoch >= nextTransitions[z]) {
+                    offsets[z] = offsetAt(rules[z], epoch);
+                    nextTransitions[z] = nextTransition(rules[z], epoch);
+                    transitions |= 1 << z;
+                }
+            }
+            String[] targets = new String[zoneCount - 1];
+            for (int z = 1; z < zoneCount; z++) {
+                targets[z - 1] = format(epoch, offsets[z]);
+            }
+            slots.add(new RangeSlot(epoch, format(epoch, offsets[0]), targets, transitions));
+        }
+        return new RangePage(slots, firstSlot, totalSlots);
+    }
+
+    private static long toEpochSecond(ConversionEngine engine, String time, ZoneId zone) {
+        LocalDateTime local = LocalDateTime.parse(time, ConversionEngine.FORMATTER);
+        return engine.getOffsetTables().toEpochSecond(local.toEpochSecond(ZoneOffset.UTC), zone);
+    }
+
+    private static int offsetAt(ZoneRules rules, long epochSecond) {
+        return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+    }
+
+    private static long nextTransition(ZoneRules rules, long epochSecond) {
+        ZoneOffsetTransition next = rules.nextTransition(Instant.ofEpochSecond(epochSecond));
+        return next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+
+    private static String format(long epochSecond, int offset) {
+        return LocalDateTime.ofEpochSecond(epochSecond + offset, 0, ZoneOffset.UTC).format(ConversionEngine.FORMATTER);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
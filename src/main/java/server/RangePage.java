@@ -0,0 +1,82 @@
+package server;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consecutive slots of a range conversion. Slots are numbered from 0 at the
+ * range start; pass {@link #getNextSlot()} to the next
+ * {@link TimeZoneConverter#convertRange} call to continue.
+ *
+ * The slots are written inline, without the per-object framing of
+ * serialization.
+ */
+public final class RangePage implements Externalizable {
+
+    private static final long serialVersionUID = 2L;
+
+    private List<RangeSlot> slots;
+    private int firstSlot;
+    private int totalSlots;
+
+    /** For deserialization only. */
+    public RangePage() {
+    }
+
+    RangePage(List<RangeSlot> slots, int firstSlot, int totalSlots) {
+        this.slots = slots;
+        this.firstSlot = firstSlot;
+        this.totalSlots = totalSlots;
+    }
+
+    public List<RangeSlot> getSlots() {
+        return slots;
+    }
+
+    public int getFirstSlot() {
+        return firstSlot;
+    }
+
+    public int getTotalSlots() {
+        return totalSlots;
+    }
+
+    /** @return the number of the slot after this page, or -1 if this is the last page */
+    public int getNextSlot() {
+        int next = firstSlot + slots.size();
+        return next < totalSlots ? next : -1;
+    }
+
+    public boolean isLast() {
+        return getNextSlot() < 0;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeVersion(out);
+        WireFormat.writeVarInt(out, firstSlot);
+        WireFormat.writeVarInt(out, totalSlots);
+        WireFormat.writeVarInt(out, slots.size());
+        for (RangeSlot slot : slots) {
+            slot.writeFields(out);
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.readVersion(in, RangePage.class);
+        firstSlot = WireFormat.readVarInt(in);
+        totalSlots = WireFormat.readVarInt(in);
+        int count = WireFormat.readCount(in, Integer.MAX_VALUE);
+        slots = new ArrayList<>(Math.min(count, WireFormat.INITIAL_CAPACITY));
+        for (int i = 0; i < count; i++) {
+            RangeSlot slot = new RangeSlot();
+            slot.readFields(in);
+            slots.add(slot);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package server;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A series of instants for {@link TimeZoneConverter#convertRange}: every
+ * {@code stepSeconds} from {@code start} up to and including {@code end}, both
+ * {@code yyyy-MM-dd HH:mm:ss} local times in {@code fromZone}, each shown in
+ * every zone of {@code toZones}.
+ *
+ * Steps are in elapsed time, so across a DST change the local times in
+ * {@code fromZone} jump or repeat rather than slots being skipped or doubled.
+ */
+public final class RangeRequest implements Externalizable {
+
+    private static final long serialVersionUID = 2L;
+
+    private String start;
+    private String end;
+    private long stepSeconds;
+    private String fromZone;
+    private List<String> toZones;
+
+    /** For deserialization only. */
+    public RangeRequest() {
+    }
+
+    public RangeRequest(String start, String end, long stepSeconds, String fromZone, List<String> toZones) {
+        this.start = start;
+        this.end = end;
+        this.stepSeconds = stepSeconds;
+        this.fromZone = fromZone;
+        this.toZones = toZones == null ? null : Collections.unmodifiableList(new ArrayList<>(toZones));
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public String getEnd() {
+        return end;
+    }
+
+    public long getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public String getFromZone() {
+        return fromZone;
+    }
+
+    public List<String> getToZones() {
+        return toZones;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeVersion(out);
+        WireFormat.writeTime(out, start, WireFormat.REQUEST_BASE);
+        WireFormat.writeTime(out, end, WireFormat.REQUEST_BASE);
+        WireFormat.writeZigZag(out, stepSeconds);
+        WireFormat.writeZone(out, fromZone, null);
+        // Count + 1, so that 0 stands for a null list.
+        WireFormat.writeVarInt(out, toZones == null ? 0 : toZones.size() + 1);
+        if (toZones != null) {
+            for (String zone : toZones) {
+                WireFormat.writeZone(out, zone, null);
+            }
+        }
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.readVersion(in, RangeRequest.class);
+        start = WireFormat.readTime(in, WireFormat.REQUEST_BASE);
+        end = WireFormat.readTime(in, WireFormat.REQUEST_BASE);
+        stepSeconds = WireFormat.readZigZag(in);
+        fromZone = WireFormat.readZone(in, null);
+        int count = WireFormat.readCount(in, Integer.MAX_VALUE);
+        if (count == 0) {
+            toZones = null;
+            return;
+        }
+        List<String> zones = new ArrayList<>(Math.min(count - 1, WireFormat.INITIAL_CAPACITY));
+        for (int i = 1; i < count; i++) {
+            zones.add(WireFormat.readZone(in, null));
+        }
+        toZones = Collections.unmodifiableList(zones);
+    }
+
+    @Override
+    public String toString() {
+        return "RangeRequest[" + start + " .. " + end + " every " + stepSeconds + "s, " + fromZone + " -> " + toZones
+                + "]";
+    }
+}
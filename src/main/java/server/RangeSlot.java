@@ -0,0 +1,109 @@
+package server;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * One instant of a {@link RangeRequest}, as local time in the source zone and
+ * in each target zone (in request order).
+ *
+ * A slot is marked as a transition for a zone when at least one offset
+ * transition of that zone (usually a DST change) lies between the previous
+ * slot and this one; the first slot of a range is never marked.
+ *
+ * On the wire each local time is the zone's UTC offset at the slot's instant,
+ * typically one to three bytes.
+ */
+public final class RangeSlot implements Externalizable {
+
+    private static final long serialVersionUID = 2L;
+
+    private long epochSecond;
+    private String sourceTime;
+    private String[] targetTimes;
+    private int transitions;
+
+    /** For deserialization only. */
+    public RangeSlot() {
+    }
+
+    RangeSlot(long epochSecond, String sourceTime, String[] targetTimes, int transitions) {
+        this.epochSecond = epochSecond;
+        this.sourceTime = sourceTime;
+        this.targetTimes = targetTimes;
+        this.transitions = transitions;
+    }
+
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    public String getSourceTime() {
+        return sourceTime;
+    }
+
+    public String getTargetTime(int index) {
+        return targetTimes[index];
+    }
+
+    public int getTargetCount() {
+        return targetTimes.length;
+    }
+
+    /** True if the source zone changed offset since the previous slot. */
+    public boolean isSourceTransition() {
+        return (transitions & 1) != 0;
+    }
+
+    /** True if target zone {@code index} changed offset since the previous slot. */
+    public boolean isTargetTransition(int index) {
+        return (transitions & (1 << (index + 1))) != 0;
+    }
+
+    /** True if any zone changed offset since the previous slot. */
+    public boolean isTransition() {
+        return transitions != 0;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        WireFormat.writeVersion(out);
+        writeFields(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        WireFormat.readVersion(in, RangeSlot.class);
+        readFields(in);
+    }
+
+    /** The slot without version byte, as embedded in a {@link RangePage}. */
+    void writeFields(ObjectOutput out) throws IOException {
+        WireFormat.writeZigZag(out, epochSecond);
+        WireFormat.writeTime(out, sourceTime, epochSecond);
+        WireFormat.writeVarInt(out, targetTimes.length);
+        for (String targetTime : targetTimes) {
+            WireFormat.writeTime(out, targetTime, epochSecond);
+        }
+        WireFormat.writeVarInt(out, transitions);
+    }
+
+    void readFields(ObjectInput in) throws IOException {
+        epochSecond = WireFormat.readZigZag(in);
+        sourceTime = WireFormat.readTime(in, epochSecond);
+        targetTimes = new String[WireFormat.readCount(in, RangeConverter.MAX_TARGET_ZONES)];
+        for (int i = 0; i < targetTimes.length; i++) {
+            targetTimes[i] = WireFormat.readTime(in, epochSecond);
+        }
+        transitions = WireFormat.readVarInt(in);
+    }
+
+    @Override
+    public String toString() {
+        return "RangeSlot[" + sourceTime + " -> " + Arrays.toString(targetTimes)
+                + (transitions != 0 ? ", transition" : "") + "]";
+    }
+}
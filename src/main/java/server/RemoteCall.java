@@ -0,0 +1,11 @@
+package server;
+
+import java.rmi.RemoteException;
+
+/**
+ * The body of a remote method, as run by {@link RequestDispatcher}.
+ */
+@FunctionalInterface
+public interface RemoteCall<T> {
+    T call() throws RemoteException;
+}
@@ -0,0 +1,233 @@
+package server;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.metrics.MethodMetrics;
+import server.metrics.ServerMetrics;
+
+/**
+ * Decides where the body of each remote call runs.
+ *
+ * In {@link ServerConfig.ExecutorMode#DIRECT} mode calls run on the RMI
+ * connection thread as before. Otherwise they run on a virtual-thread or
+ * bounded platform executor, at most {@code maxConcurrency} at a time with up
+ * to {@code queueCapacity} more waiting; anything beyond that is rejected
+ * immediately with a {@link ServerOverloadedException}.
+ *
+ * Calls made through {@link #execute(String, RemoteCall)} are also recorded
+ * in the dispatcher's {@link ServerMetrics}, if it has one: latency from
+ * arrival (so including time spent queued) and outcome per method.
+ */
+public class RequestDispatcher {
+
+    private final ServerConfig.ExecutorMode mode;
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final Semaphore running;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final ServerMetrics metrics;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private RequestDispatcher(ServerConfig.ExecutorMode mode, int maxConcurrency, int queueCapacity,
+            ServerMetrics metrics) {
+        this.mode = mode;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.metrics = metrics;
+        switch (mode) {
+            case VIRTUAL:
+                this.executor = Executors.newVirtualThreadPerTaskExecutor();
+                this.running = new Semaphore(maxConcurrency);
+                break;
+            case PLATFORM:
+                // The queue itself is unbounded; admission keeps it within queueCapacity.
+                this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(), daemonThreads("timezone-worker-"));
+                this.running = null;
+                break;
+            default:
+                this.executor = null;
+                this.running = null;
+        }
+        this.admission = executor != null ? new Semaphore(maxConcurrency + queueCapacity) : null;
+    }
+
+    public static RequestDispatcher direct() {
+        return new RequestDispatcher(ServerConfig.ExecutorMode.DIRECT, 0, 0, null);
+    }
+
+    public static RequestDispatcher create(ServerConfig.ExecutorMode mode, int maxConcurrency, int queueCapacity) {
+        return create(mode, maxConcurrency, queueCapacity, null);
+    }
+
+    /**
+     * @param metrics where calls are recorded, or {@code null} to record nothing
+     */
+    public static RequestDispatcher create(ServerConfig.ExecutorMode mode, int maxConcurrency, int queueCapacity,
+            ServerMetrics metrics) {
+        if (mode != ServerConfig.ExecutorMode.DIRECT && maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity must not be negative");
+        }
+        return new RequestDispatcher(mode, maxConcurrency, queueCapacity, metrics);
+    }
+
+    public static RequestDispatcher create(ServerConfig config) {
+        ServerMetrics metrics = config.isMetricsEnabled() ? new ServerMetrics(config.getZonePairSampling()) : null;
+        return create(config.getExecutorMode(), config.getMaxConcurrency(), config.getQueueCapacity(), metrics);
+    }
+
+    /**
+     * Runs {@code call} and records it under {@code method}.
+     */
+    public <T> T execute(String method, RemoteCall<T> call) throws RemoteException {
+        if (metrics == null) {
+            return execute(call);
+        }
+        MethodMetrics methodMetrics = metrics.method(method);
+        methodMetrics.enter();
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = execute(call);
+        } catch (ServerOverloadedException e) {
+            methodMetrics.rejected();
+            throw e;
+        } catch (RemoteException | RuntimeException | Error e) {
+            methodMetrics.error(System.nanoTime() - start);
+            throw e;
+        }
+        methodMetrics.success(System.nanoTime() - start);
+        return result;
+    }
+
+    public <T> T execute(RemoteCall<T> call) throws RemoteException {
+        if (executor == null) {
+            accepted.increment();
+            return call.call();
+        }
+        if (!admission.tryAcquire()) {
+            rejected.increment();
+            throw new ServerOverloadedException("Server overloaded: " + maxConcurrency + " calls running and "
+                    + queueCapacity + " queued, try again later");
+        }
+        accepted.increment();
+        // The admission permit belongs to the task, not to the waiting
+        // caller: it is released when the task finishes, or by the caller if
+        // it gives up before the task started. Whichever side sets claimed
+        // first decides which.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return runLimited(call);
+                } finally {
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            throw new RemoteException("Server is shutting down", e);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RemoteException) {
+                throw (RemoteException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RemoteException("Error executing call: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                admission.release();
+            } else {
+                // Already running; it keeps its permit until it returns.
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for call to complete");
+        }
+    }
+
+    private <T> T runLimited(RemoteCall<T> call) throws Exception {
+        if (running == null) {
+            return call.call();
+        }
+        running.acquire();
+        try {
+            return call.call();
+        } finally {
+            running.release();
+        }
+    }
+
+    public ServerConfig.ExecutorMode getMode() {
+        return mode;
+    }
+
+    /** @return the metrics calls are recorded in, or {@code null} if disabled */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (executor == null) {
+            return "RequestDispatcher[direct]";
+        }
+        return "RequestDispatcher[" + mode.name().toLowerCase() + ", maxConcurrency=" + maxConcurrency
+                + ", queueCapacity=" + queueCapacity + "]";
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,234 @@
+package server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded, concurrent LRU cache of string conversion results, keyed by
+ * (time, fromZone, toZone).
+ *
+ * The cache is split into independently locked segments, each an
+ * access-ordered {@link LinkedHashMap}, so eviction is LRU per segment and
+ * concurrent callers rarely contend. The segments' capacities add up to
+ * exactly {@code maxEntries}.
+ *
+ * Every entry carries the generation of the tz data it was computed with
+ * (see {@link TzData#getGeneration()}), and a lookup only hits an entry of its
+ * own generation, so a result computed under old rules is never served under
+ * new ones. The first lookup or result of a newer generation clears the cache;
+ * results of an older one, from calls that finish after a reload, are not
+ * stored. Generations only grow, so going back to an earlier version's rules
+ * is a new generation like any other change.
+ */
+public class ResultCache implements ResultCacheMXBean {
+
+    private static final int SEGMENTS = 16;
+
+    private final int maxEntries;
+    private final Segment[] segments;
+    private volatile long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResultCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        int segmentCount = Math.min(SEGMENTS, maxEntries);
+        int perSegment = maxEntries / segmentCount;
+        int remainder = maxEntries % segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(i < remainder ? perSegment + 1 : perSegment);
+        }
+    }
+
+    /**
+     * @return the cached result, or {@code null} on a miss
+     */
+    public String get(String time, String fromZone, String toZone, long tzGeneration) {
+        checkGeneration(tzGeneration);
+        Key key = new Key(time, fromZone, toZone);
+        String result;
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            result = entry != null && entry.generation == tzGeneration ? entry.result : null;
+        }
+        if (result != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return result;
+    }
+
+    public void put(String time, String fromZone, String toZone, long tzGeneration, String result) {
+        checkGeneration(tzGeneration);
+        Key key = new Key(time, fromZone, toZone);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            // Checked under the segment lock, so a newer generation's clear
+            // cannot miss the entry.
+            if (tzGeneration != generation) {
+                // Computed with rules that have been replaced.
+                return;
+            }
+            segment.put(key, new Entry(tzGeneration, result));
+        }
+    }
+
+    private void checkGeneration(long tzGeneration) {
+        if (tzGeneration <= generation) {
+            return;
+        }
+        synchronized (this) {
+            if (tzGeneration <= generation) {
+                return;
+            }
+            if (generation != 0) {
+                invalidations.increment();
+            }
+            // Published before clearing, so puts racing the clear see the new generation.
+            generation = tzGeneration;
+            clear();
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return size();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultCache[size=%d/%d, hitRatio=%.3f, hits=%d, misses=%d, evictions=%d, "
+                + "invalidations=%d, generation=%d]", size(), maxEntries, getHitRatio(), getHits(), getMisses(),
+                getEvictions(), getInvalidations(), generation);
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final long generation;
+        private final String result;
+
+        Entry(long generation, String result) {
+            this.generation = generation;
+            this.result = result;
+        }
+    }
+
+    private static final class Key {
+        private final String time;
+        private final String fromZone;
+        private final String toZone;
+        private final int hash;
+
+        Key(String time, String fromZone, String toZone) {
+            this.time = time;
+            this.fromZone = fromZone;
+            this.toZone = toZone;
+            this.hash = (time.hashCode() * 31 + fromZone.hashCode()) * 31 + toZone.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && time.equals(other.time) && fromZone.equals(other.fromZone)
+                    && toZone.equals(other.toZone);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package server;
+
+/**
+ * JMX view of the server's {@link ResultCache}, registered as
+ * {@code server:type=ResultCache}.
+ */
+public interface ResultCacheMXBean {
+
+    int getSize();
+
+    int getMaxEntries();
+
+    long getHits();
+
+    long getMisses();
+
+    /** Hits over all lookups, 0 before the first one. */
+    double getHitRatio();
+
+    long getEvictions();
+
+    /** How often new tz data emptied the cache. */
+    long getInvalidations();
+
+    /** The {@link TzData#getGeneration() tz data generation} of the cached results. */
+    long getGeneration();
+}
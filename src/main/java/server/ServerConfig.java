@@ -0,0 +1,152 @@
+package server;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Settings for {@link TimeZoneServer}. Every setting can be given as a system
+ * property {@code -Dtimezone.<key>=value} or as a command-line argument
+ * {@code --<key>=value}; the command line wins.
+ */
+public class ServerConfig {
+
+    public enum ExecutorMode {
+        /** Run calls directly on the RMI connection thread (no admission control). */
+        DIRECT,
+        /** Run calls on virtual threads, at most maxConcurrency at a time. */
+        VIRTUAL,
+        /** Run calls on a fixed pool of maxConcurrency platform threads. */
+        PLATFORM
+    }
+
+    private static final String PROPERTY_PREFIX = "timezone.";
+
+    private final Settings settings;
+
+    private ServerConfig(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static ServerConfig fromArgs(String[] args) {
+        return new ServerConfig(Settings.parse(PROPERTY_PREFIX, args));
+    }
+
+    public int getRegistryPort() {
+        return getInt("port", 1099);
+    }
+
+    /**
+     * Registry name the converter is bound under. Several servers can share
+     * one registry by binding under different names.
+     */
+    public String getBindName() {
+        return getString("bindName", "TimeZoneConverter");
+    }
+
+    public int getTableFromYear() {
+        return getInt("table.fromYear", OffsetTables.DEFAULT_FROM_YEAR);
+    }
+
+    public int getTableToYear() {
+        return getInt("table.toYear", OffsetTables.DEFAULT_TO_YEAR);
+    }
+
+    public boolean isPreloadTables() {
+        return getBoolean("table.preload", false);
+    }
+
+    public ExecutorMode getExecutorMode() {
+        String mode = getString("executor", "direct");
+        try {
+            return ExecutorMode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid executor mode: " + mode + " (expected direct, virtual or platform)");
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return getInt("maxConcurrency", Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public int getQueueCapacity() {
+        return getInt("queueCapacity", 256);
+    }
+
+    /** Maximum entries in the conversion result cache; 0 disables it. */
+    public int getResultCacheSize() {
+        return getInt("resultCache.size", 0);
+    }
+
+    /**
+     * Port the converter object is exported on; 0 picks any free port. With
+     * several {@link #getEndpoints() endpoints} they use this port and the
+     * ones after it.
+     */
+    public int getObjectPort() {
+        return getInt("objectPort", 0);
+    }
+
+    /**
+     * Number of converter instances to export, each on its own port and bound
+     * under an indexed name; see {@link EndpointGroup}.
+     */
+    public int getEndpoints() {
+        return getInt("endpoints", 1);
+    }
+
+    /**
+     * Whether to export with {@link TunedClientSocketFactory} and
+     * {@link TunedServerSocketFactory}; see {@link SocketTuning#fromConfig} for
+     * the {@code socket.*} options they use.
+     */
+    public boolean isTunedSockets() {
+        return getBoolean("socket.tuned", false);
+    }
+
+    /**
+     * A {@code tzdb.dat} file to take zone rules from instead of the JVM's,
+     * or {@code null}; see {@link TzData#load}. The file is watched and
+     * reloaded when it changes.
+     */
+    public Path getTzDataFile() {
+        String file = getString("tzdata.file", null);
+        return file == null || file.trim().isEmpty() ? null : Paths.get(file.trim());
+    }
+
+    /** Seconds between checks of the {@link #getTzDataFile() tz data file} for changes; 0 disables them. */
+    public int getTzDataCheckInterval() {
+        return getInt("tzdata.checkInterval", 60);
+    }
+
+    /** Whether remote calls are recorded in {@link server.metrics.ServerMetrics} and exposed over JMX. */
+    public boolean isMetricsEnabled() {
+        return getBoolean("metrics.enabled", true);
+    }
+
+    /** Seconds between metrics dumps to standard output; 0 disables them. */
+    public int getMetricsLogInterval() {
+        return getInt("metrics.logInterval", 0);
+    }
+
+    /** Record the zone pair of one convertTime call in this many. */
+    public int getZonePairSampling() {
+        return getInt("metrics.zonePairSampling", 16);
+    }
+
+    int getInt(String key, int defaultValue) {
+        return settings.getInt(key, defaultValue);
+    }
+
+    boolean getBoolean(String key, boolean defaultValue) {
+        return settings.getBoolean(key, defaultValue);
+    }
+
+    String getString(String key, String defaultValue) {
+        return settings.getString(key, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return "ServerConfig" + settings;
+    }
+}
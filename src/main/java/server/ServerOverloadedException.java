@@ -0,0 +1,16 @@
+package server;
+
+import java.rmi.RemoteException;
+
+/**
+ * Thrown when the server rejects a call because its concurrency limit and
+ * queue are both full. The call was not executed and may be retried later.
+ */
+public class ServerOverloadedException extends RemoteException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ServerOverloadedException(String message) {
+        super(message);
+    }
+}
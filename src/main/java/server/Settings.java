@@ -0,0 +1,70 @@
+package server;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Key/value settings read from system properties with a given prefix and
+ * from {@code --<key>=value} command-line arguments; the command line wins.
+ * A bare {@code --<key>} means {@code true}. Shared by {@link ServerConfig}
+ * and the load generator's configuration.
+ */
+public final class Settings {
+
+    private final Map<String, String> values;
+
+    private Settings(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * @param propertyPrefix prefix of the system properties to read, e.g.
+     *                       {@code "timezone."}; it is stripped from the keys
+     */
+    public static Settings parse(String propertyPrefix, String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(propertyPrefix)) {
+                values.put(name.substring(propertyPrefix.length()), System.getProperty(name));
+            }
+        }
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return new Settings(values);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = values.get(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    public String getString(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package server;
+
+import java.io.Serializable;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Objects;
+
+/**
+ * TCP options and stream compression shared by {@link TunedClientSocketFactory}
+ * and {@link TunedServerSocketFactory}. Travels inside the client factory in
+ * every stub, so both ends of a connection always agree on compression.
+ */
+public final class SocketTuning implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean tcpNoDelay;
+    private final boolean keepAlive;
+    private final int sendBufferSize;
+    private final int receiveBufferSize;
+    private final boolean compress;
+
+    /**
+     * @param sendBufferSize    SO_SNDBUF in bytes, or 0 for the OS default
+     * @param receiveBufferSize SO_RCVBUF in bytes, or 0 for the OS default
+     * @param compress          deflate both directions of the stream
+     */
+    public SocketTuning(boolean tcpNoDelay, boolean keepAlive, int sendBufferSize, int receiveBufferSize,
+            boolean compress) {
+        if (sendBufferSize < 0 || receiveBufferSize < 0) {
+            throw new IllegalArgumentException("Buffer sizes must not be negative");
+        }
+        this.tcpNoDelay = tcpNoDelay;
+        this.keepAlive = keepAlive;
+        this.sendBufferSize = sendBufferSize;
+        this.receiveBufferSize = receiveBufferSize;
+        this.compress = compress;
+    }
+
+    public static SocketTuning fromConfig(ServerConfig config) {
+        return new SocketTuning(
+                config.getBoolean("socket.tcpNoDelay", true),
+                config.getBoolean("socket.keepAlive", true),
+                config.getInt("socket.sendBufferSize", 0),
+                config.getInt("socket.receiveBufferSize", 0),
+                config.getBoolean("socket.compress", false));
+    }
+
+    void apply(Socket socket) throws SocketException {
+        socket.setTcpNoDelay(tcpNoDelay);
+        socket.setKeepAlive(keepAlive);
+        if (sendBufferSize > 0) {
+            socket.setSendBufferSize(sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            socket.setReceiveBufferSize(receiveBufferSize);
+        }
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public boolean isCompress() {
+        return compress;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SocketTuning)) {
+            return false;
+        }
+        SocketTuning other = (SocketTuning) o;
+        return tcpNoDelay == other.tcpNoDelay && keepAlive == other.keepAlive
+                && sendBufferSize == other.sendBufferSize && receiveBufferSize == other.receiveBufferSize
+                && compress == other.compress;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tcpNoDelay, keepAlive, sendBufferSize, receiveBufferSize, compress);
+    }
+
+    @Override
+    public String toString() {
+        return "SocketTuning[tcpNoDelay=" + tcpNoDelay + ", keepAlive=" + keepAlive + ", sendBufferSize="
+                + sendBufferSize + ", receiveBufferSize=" + receiveBufferSize + ", compress=" + compress + "]";
+    }
+}
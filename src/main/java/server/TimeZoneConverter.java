@@ -2,7 +2,66 @@ package server;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 
 public interface TimeZoneConverter extends Remote {
     String convertTime(String time, String fromZone, String toZone) throws RemoteException;
-}
\ No newline at end of file
+
+    /**
+     * Converts several times in one round trip. The result list has one entry
+     * per request, in the same order; a bad item yields a failed result
+     * instead of failing the whole batch.
+     *
+     * The result is a {@link ConversionResultList}; passing the requests as a
+     * {@link ConversionRequestList} makes large batches cheaper to send.
+     */
+    List<ConversionResult> convertBatch(List<ConversionRequest> requests) throws RemoteException;
+
+    /**
+     * Returns the version of the tz database the server converts with, e.g.
+     * "2024a". The server can load new rules while running, so clients that
+     * cache conversions should check this and drop their cache when it
+     * changes.
+     */
+    String getTzDataVersion() throws RemoteException;
+
+    /**
+     * Returns the zone IDs known to the server; a zone's position in the array
+     * is the index expected by the primitive conversion methods below. The
+     * table is fixed for the lifetime of the server, so clients fetch it once.
+     */
+    String[] getZoneTable() throws RemoteException;
+
+    /**
+     * Converts a {@link PackedDateTime packed} local date-time between two
+     * zones given by table index and returns the packed result.
+     */
+    long convertPacked(long localDateTime, int fromZone, int toZone) throws RemoteException;
+
+    /**
+     * Returns the epoch second of a packed local date-time in the given zone.
+     */
+    long toEpochSecond(long localDateTime, int zone) throws RemoteException;
+
+    /**
+     * Returns the packed local date-time of an epoch second in the given zone.
+     */
+    long fromEpochSecond(long epochSecond, int zone) throws RemoteException;
+
+    /**
+     * Returns up to {@code maxSlots} slots of a range conversion, starting at
+     * slot {@code firstSlot} (0 for the first page). Pages are computed
+     * independently, so they can be fetched in any order; at most
+     * {@link TimeZoneConverterImpl#MAX_BATCH_SIZE} slots are returned per call.
+     */
+    RangePage convertRange(RangeRequest request, int firstSlot, int maxSlots) throws RemoteException;
+
+    /**
+     * Computes a whole range and pushes it to {@code callback} in pages of
+     * {@code pageSize} slots, returning once the last page was delivered or
+     * the callback asked to stop.
+     *
+     * @return the number of slots delivered
+     */
+    int streamRange(RangeRequest request, int pageSize, RangeCallback callback) throws RemoteException;
+}
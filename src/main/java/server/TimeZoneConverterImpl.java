@@ -1,16 +1,52 @@
 package server;
 
 import java.rmi.RemoteException;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
 import java.rmi.server.UnicastRemoteObject;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import server.metrics.ServerMetrics;
 
 public class TimeZoneConverterImpl extends UnicastRemoteObject implements TimeZoneConverter {
 
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private final LiveEngine liveEngine;
+    private final LocalConverter local;
+    private final RequestDispatcher dispatcher;
+
     protected TimeZoneConverterImpl() throws RemoteException {
+        this(new ConversionEngine());
+    }
+
+    protected TimeZoneConverterImpl(ConversionEngine engine) throws RemoteException {
+        this(engine, RequestDispatcher.direct());
+    }
+
+    protected TimeZoneConverterImpl(ConversionEngine engine, RequestDispatcher dispatcher) throws RemoteException {
         super();
+        this.liveEngine = new LiveEngine(engine);
+        this.local = new LocalConverter(liveEngine);
+        this.dispatcher = dispatcher;
+    }
+
+    protected TimeZoneConverterImpl(ConversionEngine engine, RequestDispatcher dispatcher, int port,
+            RMIClientSocketFactory csf, RMIServerSocketFactory ssf) throws RemoteException {
+        this(new LiveEngine(engine), dispatcher, port, csf, ssf);
+    }
+
+    /**
+     * @param engine engine to convert with; every call uses the one current
+     *               when it starts
+     */
+    protected TimeZoneConverterImpl(LiveEngine engine, RequestDispatcher dispatcher, int port,
+            RMIClientSocketFactory csf, RMIServerSocketFactory ssf) throws RemoteException {
+        super(port, csf, ssf);
+        this.liveEngine = engine;
+        this.local = new LocalConverter(engine);
+        this.dispatcher = dispatcher;
     }
 
     public static TimeZoneConverterImpl createInstance() {
@@ -23,23 +59,144 @@ public class TimeZoneConverterImpl extends UnicastRemoteObject implements TimeZo
 
     @Override
     public String convertTime(String time, String fromZone, String toZone) throws RemoteException {
-        if (time == null || time.trim().isEmpty()) {
-            throw new RemoteException("Time string cannot be null or empty");
+        return dispatcher.execute("convertTime", () -> doConvertTime(time, fromZone, toZone));
+    }
+
+    @Override
+    public List<ConversionResult> convertBatch(List<ConversionRequest> requests) throws RemoteException {
+        return dispatcher.execute("convertBatch", () -> local.convertBatch(requests));
+    }
+
+    @Override
+    public long convertPacked(long localDateTime, int fromZone, int toZone) throws RemoteException {
+        return dispatcher.execute("convertPacked", () -> doConvertPacked(localDateTime, fromZone, toZone));
+    }
+
+    @Override
+    public long toEpochSecond(long localDateTime, int zone) throws RemoteException {
+        return dispatcher.execute("toEpochSecond", () -> doToEpochSecond(localDateTime, zone));
+    }
+
+    @Override
+    public long fromEpochSecond(long epochSecond, int zone) throws RemoteException {
+        return dispatcher.execute("fromEpochSecond", () -> doFromEpochSecond(epochSecond, zone));
+    }
+
+    @Override
+    public String getTzDataVersion() throws RemoteException {
+        return dispatcher.execute("getTzDataVersion", liveEngine::getTzDataVersion);
+    }
+
+    @Override
+    public RangePage convertRange(RangeRequest request, int firstSlot, int maxSlots) throws RemoteException {
+        return dispatcher.execute("convertRange", () -> doConvertRange(request, firstSlot, maxSlots));
+    }
+
+    @Override
+    public int streamRange(RangeRequest request, int pageSize, RangeCallback callback) throws RemoteException {
+        return doStreamRange(request, pageSize, callback);
+    }
+
+    private String doConvertTime(String time, String fromZone, String toZone) throws RemoteException {
+        ServerMetrics metrics = dispatcher.getMetrics();
+        if (metrics != null) {
+            // Before local.convertTime validates the arguments, so the pairs
+            // of calls it rejects are counted too.
+            metrics.recordZonePair(fromZone, toZone);
         }
-        if (fromZone == null || fromZone.trim().isEmpty()) {
-            throw new RemoteException("From zone cannot be null or empty");
+        return local.convertTime(time, fromZone, toZone);
+    }
+
+    private RangePage doConvertRange(RangeRequest request, int firstSlot, int maxSlots) throws RemoteException {
+        try {
+            return RangeConverter.create(liveEngine.get(), request)
+                    .page(firstSlot, Math.min(maxSlots, MAX_BATCH_SIZE));
+        } catch (IllegalArgumentException e) {
+            throw new RemoteException(e.getMessage());
+        }
+    }
+
+    /**
+     * Each page is computed as a dispatcher call of its own and delivered
+     * outside it, so a slow callback does not hold an admission permit.
+     */
+    private int doStreamRange(RangeRequest request, int pageSize, RangeCallback callback) throws RemoteException {
+        if (callback == null) {
+            throw new RemoteException("Callback cannot be null");
+        }
+        RangeConverter range;
+        try {
+            range = RangeConverter.create(liveEngine.get(), request);
+        } catch (IllegalArgumentException e) {
+            throw new RemoteException(e.getMessage());
+        }
+        int size = Math.max(1, Math.min(pageSize, MAX_BATCH_SIZE));
+        int delivered = 0;
+        while (delivered < range.getTotalSlots()) {
+            int first = delivered;
+            RangePage page = dispatcher.execute("streamRange", () -> range.page(first, size));
+            delivered += page.getSlots().size();
+            if (!callback.onPage(page)) {
+                break;
+            }
+        }
+        return delivered;
+    }
+
+    @Override
+    public String[] getZoneTable() throws RemoteException {
+        return dispatcher.execute("getZoneTable", () -> liveEngine.get().getZoneTable().ids());
+    }
+
+    private long doConvertPacked(long localDateTime, int fromZone, int toZone) throws RemoteException {
+        ConversionEngine engine = liveEngine.get();
+        ZoneId from = zoneAt(engine, fromZone);
+        ZoneId to = zoneAt(engine, toZone);
+        try {
+            return engine.convertPacked(localDateTime, from, to);
+        } catch (Exception e) {
+            throw new RemoteException("Error converting time: " + e.getMessage());
         }
-        if (toZone == null || toZone.trim().isEmpty()) {
-            throw new RemoteException("To zone cannot be null or empty");
+    }
+
+    private long doToEpochSecond(long localDateTime, int zone) throws RemoteException {
+        ConversionEngine engine = liveEngine.get();
+        ZoneId zoneId = zoneAt(engine, zone);
+        try {
+            return engine.toEpochSecond(localDateTime, zoneId);
+        } catch (Exception e) {
+            throw new RemoteException("Error converting time: " + e.getMessage());
         }
+    }
+
+    private long doFromEpochSecond(long epochSecond, int zone) throws RemoteException {
+        ConversionEngine engine = liveEngine.get();
+        ZoneId zoneId = zoneAt(engine, zone);
         try {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            LocalDateTime localDateTime = LocalDateTime.parse(time, formatter);
-            ZonedDateTime fromZonedDateTime = localDateTime.atZone(ZoneId.of(fromZone));
-            ZonedDateTime toZonedDateTime = fromZonedDateTime.withZoneSameInstant(ZoneId.of(toZone));
-            return toZonedDateTime.format(formatter);
+            return engine.fromEpochSecond(epochSecond, zoneId);
         } catch (Exception e) {
             throw new RemoteException("Error converting time: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    private static ZoneId zoneAt(ConversionEngine engine, int index) throws RemoteException {
+        ZoneId zone = engine.getZoneTable().zone(index);
+        if (zone == null) {
+            throw new RemoteException("Invalid zone index: " + index);
+        }
+        return zone;
+    }
+
+    /** The engine in use right now; see {@link #getLiveEngine()}. */
+    public ConversionEngine getEngine() {
+        return liveEngine.get();
+    }
+
+    public LiveEngine getLiveEngine() {
+        return liveEngine;
+    }
+
+    public RequestDispatcher getDispatcher() {
+        return dispatcher;
+    }
+}
@@ -1,7 +1,12 @@
 package server;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.Arrays;
+
+import server.metrics.ServerMetrics;
 
 public class TimeZoneServer {
     public static void main(String[] args) {
@@ -10,22 +15,84 @@ public class TimeZoneServer {
             // connecting to localhost can reach the exported remote object.
             System.setProperty("java.rmi.server.hostname", "127.0.0.1");
 
-            TimeZoneConverterImpl obj = new TimeZoneConverterImpl();
+            // Settings come from -Dtimezone.<key>=value or --<key>=value.
+            ServerConfig config = ServerConfig.fromArgs(args);
+            int port = config.getRegistryPort();
+
+            // Zone rules come from the JVM unless a tzdb.dat file is configured.
+            TzData tzData = TzData.system();
+            Path tzDataFile = config.getTzDataFile();
+            if (tzDataFile != null && Files.exists(tzDataFile)) {
+                tzData = TzData.load(tzDataFile);
+                System.out.println("Loaded tz data " + tzData.getVersion() + " (" + tzData.size() + " zones) from "
+                        + tzDataFile + ".");
+            }
+
+            // Offset tables cover this window of years; conversions outside it
+            // fall back to the zone rules. Optionally build them all up front.
+            OffsetTables offsetTables = new OffsetTables(config.getTableFromYear(), config.getTableToYear(), tzData);
+            ZoneTable zoneTable = new ZoneTable();
+            if (config.isPreloadTables()) {
+                offsetTables.preload(Arrays.asList(zoneTable.zones()));
+                System.out.println("Preloaded offset tables for " + offsetTables.size() + " zones.");
+            }
+            ResultCache resultCache = null;
+            if (config.getResultCacheSize() > 0) {
+                resultCache = new ResultCache(config.getResultCacheSize());
+                System.out.println("Caching up to " + config.getResultCacheSize() + " conversion results.");
+            }
+            LiveEngine engine = new LiveEngine(
+                    new ConversionEngine(new ZoneCache(), zoneTable, offsetTables, resultCache));
+            if (tzDataFile != null) {
+                // Rules changes are built off to the side and swapped in
+                // without dropping any client connection.
+                TzDataWatcher watcher = new TzDataWatcher(tzDataFile, engine);
+                watcher.start(config.getTzDataCheckInterval());
+                System.out.println("Watching " + tzDataFile + " for tz data updates every "
+                        + config.getTzDataCheckInterval() + "s.");
+            }
+            System.out.println("Converting with tz data " + engine.getTzDataVersion() + ".");
+
+            RequestDispatcher dispatcher = RequestDispatcher.create(config);
+            System.out.println("Executing calls with " + dispatcher);
+            ServerMetrics metrics = dispatcher.getMetrics();
+            if (metrics != null) {
+                if (resultCache != null) {
+                    metrics.addComponent("ResultCache", resultCache);
+                }
+                // Visible in jconsole/VisualVM under the "server" domain.
+                metrics.registerMBeans();
+                metrics.startLogging(config.getMetricsLogInterval());
+            }
+
+            SocketTuning tuning = null;
+            if (config.isTunedSockets()) {
+                tuning = SocketTuning.fromConfig(config);
+                System.out.println("Exporting with " + tuning);
+            }
+            EndpointGroup endpoints = EndpointGroup.export(engine, dispatcher, config.getEndpoints(),
+                    config.getObjectPort(), tuning);
 
             // Use an existing registry if one is already running, otherwise create one.
             Registry registry;
             try {
-                registry = LocateRegistry.getRegistry(1099);
+                registry = LocateRegistry.getRegistry(port);
                 // Test registry by invoking a method; throws exception if not available
                 registry.list();
-                System.out.println("Found existing rmiregistry on port 1099, using it.");
+                System.out.println("Found existing rmiregistry on port " + port + ", using it.");
             } catch (Exception e) {
-                registry = LocateRegistry.createRegistry(1099);
-                System.out.println("Created new rmiregistry on port 1099.");
+                registry = LocateRegistry.createRegistry(port);
+                System.out.println("Created new rmiregistry on port " + port + ".");
             }
 
-            registry.rebind("TimeZoneConverter", obj);
-            System.out.println("TimeZone Converter Server is ready");
+            endpoints.bind(registry, config.getBindName());
+            if (endpoints.size() > 1) {
+                System.out.println("Bound " + endpoints.size() + " endpoints as \""
+                        + EndpointGroup.indexedName(config.getBindName(), 0) + "\" to \""
+                        + EndpointGroup.indexedName(config.getBindName(), endpoints.size() - 1) + "\" on ports "
+                        + endpoints.getPorts());
+            }
+            System.out.println("TimeZone Converter Server is ready as \"" + config.getBindName() + "\"");
             // Keep the server process alive so the in-process RMI registry
             // and bound objects remain available to clients.
             try {
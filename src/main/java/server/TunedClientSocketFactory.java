@@ -0,0 +1,51 @@
+package server;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+
+/**
+ * Client half of the tuned socket factories. Exported with the converter, it
+ * is serialized into the stub, so clients pick it up without any code change.
+ */
+public final class TunedClientSocketFactory implements RMIClientSocketFactory, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SocketTuning tuning;
+
+    public TunedClientSocketFactory(SocketTuning tuning) {
+        this.tuning = tuning;
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        TunedSocket socket = new TunedSocket(tuning.isCompress(), null, null);
+        try {
+            tuning.apply(socket);
+            socket.connect(new InetSocketAddress(host, port));
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return socket;
+    }
+
+    public SocketTuning getTuning() {
+        return tuning;
+    }
+
+    // RMI reuses connections per (endpoint, client factory), so equal
+    // factories must compare equal after deserialization.
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TunedClientSocketFactory && tuning.equals(((TunedClientSocketFactory) o).tuning);
+    }
+
+    @Override
+    public int hashCode() {
+        return tuning.hashCode();
+    }
+}
@@ -0,0 +1,70 @@
+package server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server half of the tuned socket factories. Accepted sockets get the
+ * configured TCP options and compression, and the factory counts the bytes
+ * they put on and take off the wire.
+ */
+public final class TunedServerSocketFactory implements RMIServerSocketFactory {
+
+    private final SocketTuning tuning;
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    public TunedServerSocketFactory(SocketTuning tuning) {
+        this.tuning = tuning;
+    }
+
+    @Override
+    public ServerSocket createServerSocket(int port) throws IOException {
+        ServerSocket serverSocket = new ServerSocket() {
+            @Override
+            public Socket accept() throws IOException {
+                TunedSocket socket = new TunedSocket(tuning.isCompress(), bytesRead, bytesWritten);
+                implAccept(socket);
+                try {
+                    tuning.apply(socket);
+                } catch (IOException e) {
+                    socket.close();
+                    throw e;
+                }
+                return socket;
+            }
+        };
+        // SO_RCVBUF above 64K must be set before bind to affect the TCP window.
+        if (tuning.getReceiveBufferSize() > 0) {
+            serverSocket.setReceiveBufferSize(tuning.getReceiveBufferSize());
+        }
+        serverSocket.bind(new InetSocketAddress(port));
+        return serverSocket;
+    }
+
+    public SocketTuning getTuning() {
+        return tuning;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TunedServerSocketFactory && tuning.equals(((TunedServerSocketFactory) o).tuning);
+    }
+
+    @Override
+    public int hashCode() {
+        return tuning.hashCode();
+    }
+}
@@ -0,0 +1,121 @@
+package server;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Socket used by the tuned RMI socket factories. Optionally deflates both
+ * directions; RMI flushes after every message, and the deflater is created in
+ * sync-flush mode so each flush pushes a complete block to the peer. Bytes
+ * actually sent and received on the wire can be counted.
+ */
+class TunedSocket extends Socket {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean compress;
+    private final LongAdder bytesRead;
+    private final LongAdder bytesWritten;
+    private InputStream in;
+    private OutputStream out;
+
+    TunedSocket(boolean compress, LongAdder bytesRead, LongAdder bytesWritten) {
+        this.compress = compress;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+    }
+
+    @Override
+    public synchronized InputStream getInputStream() throws IOException {
+        if (in == null) {
+            InputStream raw = super.getInputStream();
+            if (bytesRead != null) {
+                raw = new CountingInputStream(raw, bytesRead);
+            }
+            in = compress ? new InflaterInputStream(raw, new Inflater(), BUFFER_SIZE) : raw;
+        }
+        return in;
+    }
+
+    @Override
+    public synchronized OutputStream getOutputStream() throws IOException {
+        if (out == null) {
+            OutputStream raw = super.getOutputStream();
+            if (bytesWritten != null) {
+                raw = new CountingOutputStream(raw, bytesWritten);
+            }
+            out = compress ? new DeflaterOutputStream(raw, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE, true) : raw;
+        }
+        return out;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (out instanceof DeflaterOutputStream) {
+                ((DeflaterOutputStream) out).finish();
+            }
+        } catch (IOException e) {
+            // Peer already gone; closing the socket below is all that matters.
+        } finally {
+            super.close();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+
+        CountingInputStream(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                counter.add(n);
+            }
+            return n;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final LongAdder counter;
+
+        CountingOutputStream(OutputStream out, LongAdder counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            counter.add(len);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package server;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.time.zone.ZoneRulesProvider;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An immutable set of zone rules together with the tz database version they
+ * were compiled from, e.g. "2024a".
+ *
+ * {@link #system()} is the JVM's own tzdb. {@link #load(Path)} reads a
+ * {@code tzdb.dat} file in the format the JDK ships in {@code lib/} (and the
+ * TZUpdater tool produces), so a server can pick up a rules change without a
+ * restart; see {@link LiveEngine}. Zones the loaded data does not cover, and
+ * fixed offsets such as UTC, keep their JVM rules.
+ */
+public final class TzData {
+
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+    private static final TzData SYSTEM = new TzData(ZoneRulesProvider.getVersions("UTC").lastKey(), null);
+
+    private final String version;
+    private final long generation;
+    /** Rules by region ID, or {@code null} for the JVM's own. */
+    private final Map<String, ZoneRules> rules;
+
+    private TzData(String version, Map<String, ZoneRules> rules) {
+        this.version = version;
+        this.generation = GENERATIONS.incrementAndGet();
+        this.rules = rules;
+    }
+
+    public static TzData system() {
+        return SYSTEM;
+    }
+
+    /**
+     * @param rules rules by region ID, e.g. "Europe/London"
+     */
+    public static TzData of(String version, Map<String, ZoneRules> rules) {
+        if (version == null || version.isEmpty()) {
+            throw new IllegalArgumentException("Version cannot be null or empty");
+        }
+        return new TzData(version, Collections.unmodifiableMap(new HashMap<>(rules)));
+    }
+
+    /**
+     * Reads a {@code tzdb.dat} file. If it holds several versions the latest
+     * one is used.
+     *
+     * @throws IOException if the file cannot be read or is not a tzdb file
+     */
+    public static TzData load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return TzdbFile.read(in);
+        }
+    }
+
+    /**
+     * Returns the rules of {@code zone} in this data set, or the JVM's rules
+     * if the zone is not covered.
+     */
+    public ZoneRules rules(ZoneId zone) {
+        if (rules != null && !(zone instanceof ZoneOffset)) {
+            ZoneRules loaded = rules.get(zone.getId());
+            if (loaded != null) {
+                return loaded;
+            }
+        }
+        return zone.getRules();
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Increases with every data set created in this JVM, so of two data sets
+     * the later one has the higher generation, even if it reverts to an
+     * earlier version.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /** Whether these are the JVM's own rules. */
+    public boolean isSystem() {
+        return rules == null;
+    }
+
+    /** Number of zones with loaded rules; 0 for {@link #system()}. */
+    public int size() {
+        return rules == null ? 0 : rules.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TzData[version=" + version + (rules == null ? ", system" : ", zones=" + rules.size()) + "]";
+    }
+}
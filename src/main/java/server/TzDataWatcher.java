@@ -0,0 +1,88 @@
+package server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a {@code tzdb.dat} file into a {@link LiveEngine} whenever the file
+ * changes, so a rules update is picked up without restarting the server.
+ *
+ * The file is polled by modification time and size. Replace it atomically
+ * (write elsewhere, then move into place); a file that cannot be read or
+ * parsed is reported and the active rules stay in use.
+ */
+public final class TzDataWatcher implements AutoCloseable {
+
+    private final Path file;
+    private final LiveEngine engine;
+    private String lastStamp;
+    private ScheduledExecutorService poller;
+
+    public TzDataWatcher(Path file, LiveEngine engine) {
+        this.file = file;
+        this.engine = engine;
+    }
+
+    /**
+     * Loads the file if it changed since the last check.
+     *
+     * @return whether a new tz version was published
+     * @throws IOException if the file changed but could not be loaded
+     */
+    public synchronized boolean check() throws IOException {
+        String stamp;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            stamp = attributes.lastModifiedTime() + "/" + attributes.size();
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (stamp.equals(lastStamp)) {
+            return false;
+        }
+        // Remember the stamp even if loading fails, so a broken file is
+        // reported once rather than on every poll.
+        lastStamp = stamp;
+        TzData tzData = TzData.load(file);
+        return engine.reload(tzData);
+    }
+
+    /** Checks the file every {@code seconds}, logging reloads and failures. */
+    public synchronized void start(long seconds) {
+        if (poller != null || seconds <= 0) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tzdata-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::checkAndLog, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    /** {@link #check()}, reporting the outcome on the console. */
+    public void checkAndLog() {
+        try {
+            if (check()) {
+                System.out.println("Now converting with tz data " + engine.getTzDataVersion() + " from " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not load tz data from " + file + ", still using "
+                    + engine.getTzDataVersion() + ": " + e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+}
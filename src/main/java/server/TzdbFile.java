@@ -0,0 +1,195 @@
+package server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reader and writer for the JDK's {@code tzdb.dat} format.
+ *
+ * The file is a {@link DataInputStream} of: the byte 1, "TZDB", the versions,
+ * the region IDs, the distinct rules as length-prefixed blobs, and per version
+ * a list of (region index, rules index) pairs. The JDK's compiler appends
+ * aliases for its legacy TimeZone support, which are ignored here.
+ *
+ * A rules blob is what {@code java.time.zone.Ser} writes in its
+ * {@code writeExternal}: a type byte and the rules' own external form. That
+ * class is not public, so blobs are decoded by wrapping them in the Java
+ * serialization stream of a {@code Ser} object and reading that back, which
+ * yields the {@link ZoneRules} exactly as the JDK's provider would.
+ */
+final class TzdbFile {
+
+    private static final String GROUP_ID = "TZDB";
+    private static final String SER_CLASS = "java.time.zone.Ser";
+    /** Ser's type byte for ZoneRules. */
+    private static final int ZONE_RULES_TYPE = 1;
+    /** Serialization stream up to the block data of a Ser object. */
+    private static final byte[] SER_PREFIX = serPrefix();
+
+    private TzdbFile() {
+    }
+
+    static TzData read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readByte() != 1 || !GROUP_ID.equals(in.readUTF())) {
+            throw new IOException("Not a tzdb.dat file");
+        }
+        int versionCount = in.readUnsignedShort();
+        if (versionCount == 0) {
+            throw new IOException("tzdb.dat file holds no versions");
+        }
+        String[] versions = new String[versionCount];
+        for (int i = 0; i < versionCount; i++) {
+            versions[i] = in.readUTF();
+        }
+        String[] regions = new String[in.readUnsignedShort()];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = in.readUTF();
+        }
+        ZoneRules[] rules = new ZoneRules[in.readUnsignedShort()];
+        for (int i = 0; i < rules.length; i++) {
+            byte[] bytes = new byte[in.readUnsignedShort()];
+            in.readFully(bytes);
+            rules[i] = decode(bytes);
+        }
+        // Versions are listed oldest first; keep the mapping of the last.
+        Map<String, ZoneRules> latest = new HashMap<>();
+        for (int v = 0; v < versionCount; v++) {
+            latest.clear();
+            int count = in.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                int region = in.readUnsignedShort();
+                int rule = in.readUnsignedShort();
+                if (region >= regions.length || rule >= rules.length) {
+                    throw new IOException("Corrupt tzdb.dat file: index out of range");
+                }
+                latest.put(regions[region], rules[rule]);
+            }
+        }
+        return TzData.of(versions[versionCount - 1], latest);
+    }
+
+    /**
+     * Writes a single-version file that {@link #read} and the JDK's own
+     * provider both accept.
+     */
+    static void write(OutputStream output, String version, Map<String, ZoneRules> rulesByRegion)
+            throws IOException {
+        String[] regions = rulesByRegion.keySet().toArray(new String[0]);
+        Arrays.sort(regions);
+        Map<ZoneRules, Integer> distinct = new LinkedHashMap<>();
+        for (String region : regions) {
+            distinct.putIfAbsent(rulesByRegion.get(region), distinct.size());
+        }
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeByte(1);
+        out.writeUTF(GROUP_ID);
+        out.writeShort(1);
+        out.writeUTF(version);
+        out.writeShort(regions.length);
+        for (String region : regions) {
+            out.writeUTF(region);
+        }
+        out.writeShort(distinct.size());
+        for (ZoneRules rules : distinct.keySet()) {
+            byte[] bytes = encode(rules);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+        out.writeShort(regions.length);
+        for (int i = 0; i < regions.length; i++) {
+            out.writeShort(i);
+            out.writeShort(distinct.get(rulesByRegion.get(regions[i])));
+        }
+        out.writeShort(0); // no aliases
+        out.flush();
+    }
+
+    private static ZoneRules decode(byte[] bytes) throws IOException {
+        if (bytes.length == 0 || bytes[0] != ZONE_RULES_TYPE) {
+            throw new IOException("Corrupt tzdb.dat file: unexpected rules type");
+        }
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(SER_PREFIX.length + bytes.length + 6);
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(SER_PREFIX);
+        out.writeByte(ObjectStreamConstants.TC_BLOCKDATALONG);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(stream.toByteArray()))) {
+            Object rules = in.readObject();
+            if (!(rules instanceof ZoneRules)) {
+                throw new InvalidObjectException("Corrupt tzdb.dat file: rules decode to " + rules);
+            }
+            return (ZoneRules) rules;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Cannot decode zone rules: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] encode(ZoneRules rules) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(stream)) {
+            out.writeObject(rules);
+        }
+        byte[] serialized = stream.toByteArray();
+        if (!Arrays.equals(serialized, 0, SER_PREFIX.length, SER_PREFIX, 0, SER_PREFIX.length)) {
+            throw new IOException("Unexpected serialized form of ZoneRules");
+        }
+        // The external form follows as one or more blocks of data.
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(serialized, SER_PREFIX.length, serialized.length - SER_PREFIX.length));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(serialized.length);
+        for (int tag = in.readUnsignedByte(); tag != ObjectStreamConstants.TC_ENDBLOCKDATA;
+                tag = in.readUnsignedByte()) {
+            int length;
+            if (tag == ObjectStreamConstants.TC_BLOCKDATA) {
+                length = in.readUnsignedByte();
+            } else if (tag == ObjectStreamConstants.TC_BLOCKDATALONG) {
+                length = in.readInt();
+            } else {
+                throw new IOException("Unexpected serialized form of ZoneRules");
+            }
+            byte[] block = new byte[length];
+            in.readFully(block);
+            bytes.write(block);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] serPrefix() {
+        try {
+            long serialVersionUID = ObjectStreamClass.lookup(Class.forName(SER_CLASS)).getSerialVersionUID();
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+            out.writeShort(ObjectStreamConstants.STREAM_VERSION);
+            out.writeByte(ObjectStreamConstants.TC_OBJECT);
+            out.writeByte(ObjectStreamConstants.TC_CLASSDESC);
+            out.writeUTF(SER_CLASS);
+            out.writeLong(serialVersionUID);
+            out.writeByte(ObjectStreamConstants.SC_EXTERNALIZABLE | ObjectStreamConstants.SC_BLOCK_DATA);
+            out.writeShort(0); // no serializable fields
+            out.writeByte(ObjectStreamConstants.TC_ENDBLOCKDATA);
+            out.writeByte(ObjectStreamConstants.TC_NULL); // no superclass
+            return stream.toByteArray();
+        } catch (ClassNotFoundException | IOException e) {
+            throw new IllegalStateException("Cannot prepare zone rules decoding", e);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package server;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding shared by the {@link java.io.Externalizable} value types of
+ * {@link TimeZoneConverter} (requests, results and range pages).
+ *
+ * Every object starts with a {@link #VERSION} byte so the format can evolve;
+ * readers reject versions they do not know. Integers are unsigned LEB128
+ * varints, zig-zag encoded where they may be negative. Times in the canonical
+ * {@code yyyy-MM-dd HH:mm:ss} form travel as a varint of local seconds
+ * relative to a base, and come back as the identical string; anything else
+ * (a malformed time the server will reject, say) is sent as-is.
+ *
+ * Zone IDs are numbered per {@link CompactList}: the first time a list
+ * carries a zone its name is written and given the next index, later
+ * occurrences are just the index. A batch of thousands of requests spells out
+ * each distinct zone once, and client and server never need to agree on a
+ * zone table beforehand. The writer and reader of a list see its elements in
+ * the same order, so they build the same numbering. Objects sent on their own
+ * write their zone names inline.
+ */
+final class WireFormat {
+
+    static final int VERSION = 1;
+
+    /** Base of request times: 2000-01-01 00:00:00, as local epoch seconds. */
+    static final long REQUEST_BASE = LocalDateTime.of(2000, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    /**
+     * Lists read from the wire start at most this big and grow as elements
+     * actually arrive, so a corrupt count cannot allocate a huge array.
+     */
+    static final int INITIAL_CAPACITY = 64;
+
+    private static final int CANONICAL_LENGTH = 19;
+
+    /** The zone numbering of one compact list; see the class comment. */
+    static final class ZoneDictionary {
+        private final Map<String, Integer> written = new HashMap<>();
+        private final List<String> read = new ArrayList<>();
+    }
+
+    private WireFormat() {
+    }
+
+    static void writeVersion(ObjectOutput out) throws IOException {
+        out.writeByte(VERSION);
+    }
+
+    /** Reads the version byte of an object of {@code type}. */
+    static int readVersion(ObjectInput in, Class<?> type) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new InvalidObjectException("Unsupported " + type.getSimpleName() + " encoding version " + version
+                    + " (this side reads up to " + VERSION + ")");
+        }
+        return version;
+    }
+
+    static void writeVarLong(ObjectOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(ObjectInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new InvalidObjectException("Malformed varint");
+    }
+
+    static void writeVarInt(ObjectOutput out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    static int readVarInt(ObjectInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value > 0xFFFFFFFFL) {
+            throw new InvalidObjectException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    /** Reads a varint that must be a count or index in {@code [0, max]}. */
+    static int readCount(ObjectInput in, int max) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > max) {
+            throw new InvalidObjectException("Count out of range: " + value + " (max " + max + ")");
+        }
+        return (int) value;
+    }
+
+    static void writeZigZag(ObjectOutput out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZag(ObjectInput in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** A nullable string: varint (byte length + 1, 0 for null), then UTF-8. */
+    static void writeString(ObjectOutput out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    static String readString(ObjectInput in) throws IOException {
+        int length = readCount(in, Integer.MAX_VALUE - 1);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A nullable zone ID: 0 for null, 1 followed by the name for a zone new
+     * to {@code dictionary}, otherwise its index + 2. Without a dictionary
+     * the name is always written.
+     */
+    static void writeZone(ObjectOutput out, String zoneId, ZoneDictionary dictionary) throws IOException {
+        if (zoneId == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        if (dictionary != null) {
+            Integer index = dictionary.written.get(zoneId);
+            if (index != null) {
+                writeVarInt(out, index + 2);
+                return;
+            }
+            dictionary.written.put(zoneId, dictionary.written.size());
+        }
+        writeVarInt(out, 1);
+        writeString(out, zoneId);
+    }
+
+    static String readZone(ObjectInput in, ZoneDictionary dictionary) throws IOException {
+        int ref = readVarInt(in);
+        if (ref == 0) {
+            return null;
+        }
+        if (ref == 1) {
+            String zoneId = readString(in);
+            if (zoneId == null) {
+                throw new InvalidObjectException("Null zone in dictionary entry");
+            }
+            if (dictionary != null) {
+                dictionary.read.add(zoneId);
+            }
+            return zoneId;
+        }
+        int index = ref - 2;
+        int seen = dictionary != null ? dictionary.read.size() : 0;
+        if (index < 0 || index >= seen) {
+            throw new InvalidObjectException("Unknown zone index " + index + " (" + seen + " seen)");
+        }
+        return dictionary.read.get(index);
+    }
+
+    /**
+     * A nullable time string. Canonical times are written as the even varint
+     * {@code zigzag(seconds - base) << 1}, anything else as 1 and the string.
+     */
+    static void writeTime(ObjectOutput out, String time, long base) throws IOException {
+        long seconds = parseCanonical(time);
+        if (seconds == Long.MIN_VALUE) {
+            writeVarLong(out, 1);
+            writeString(out, time);
+            return;
+        }
+        long delta = seconds - base;
+        writeVarLong(out, ((delta << 1) ^ (delta >> 63)) << 1);
+    }
+
+    static String readTime(ObjectInput in, long base) throws IOException {
+        long value = readVarLong(in);
+        if (value == 1) {
+            return readString(in);
+        }
+        if ((value & 1) != 0) {
+            throw new InvalidObjectException("Malformed time tag " + value);
+        }
+        long zigzag = value >>> 1;
+        long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+        try {
+            return formatCanonical(base + delta);
+        } catch (DateTimeException e) {
+            throw new InvalidObjectException("Time out of range: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the local epoch seconds of a canonical {@code yyyy-MM-dd
+     *         HH:mm:ss} time with a four-digit year, or {@link Long#MIN_VALUE}
+     *         if {@code time} is anything else
+     */
+    static long parseCanonical(String time) {
+        if (time == null || time.length() != CANONICAL_LENGTH || time.charAt(4) != '-' || time.charAt(7) != '-'
+                || time.charAt(10) != ' ' || time.charAt(13) != ':' || time.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(time, 0, 4);
+        int month = digits(time, 5, 2);
+        int day = digits(time, 8, 2);
+        int hour = digits(time, 11, 2);
+        int minute = digits(time, 14, 2);
+        int second = digits(time, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        if (day > 28 && day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return Long.MIN_VALUE;
+        }
+        return LocalDate.of(year, month, day).toEpochDay() * 86_400L + hour * 3600 + minute * 60 + second;
+    }
+
+    /** Inverse of {@link #parseCanonical}. */
+    static String formatCanonical(long localSeconds) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            throw new DateTimeException("Year " + year + " has no canonical four-digit form");
+        }
+        char[] chars = new char[CANONICAL_LENGTH];
+        put(chars, 0, year, 4);
+        chars[4] = '-';
+        put(chars, 5, dateTime.getMonthValue(), 2);
+        chars[7] = '-';
+        put(chars, 8, dateTime.getDayOfMonth(), 2);
+        chars[10] = ' ';
+        put(chars, 11, dateTime.getHour(), 2);
+        chars[13] = ':';
+        put(chars, 14, dateTime.getMinute(), 2);
+        chars[16] = ':';
+        put(chars, 17, dateTime.getSecond(), 2);
+        return new String(chars);
+    }
+
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void put(char[] chars, int from, int value, int count) {
+        for (int i = from + count - 1; i >= from; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
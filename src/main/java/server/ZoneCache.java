@@ -0,0 +1,119 @@
+package server;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.zone.ZoneRulesException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, concurrent cache of {@link ZoneId} lookups.
+ *
+ * Invalid zone names are remembered in a separate negative cache so that a
+ * client repeatedly sending a bad name does not pay for the failed parse
+ * every time. Only the failure is remembered, not the exception: every
+ * caller gets a new exception with its own stack trace. Once either cache is
+ * full, further names are still resolved but no longer cached.
+ */
+public class ZoneCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final int DEFAULT_MAX_NEGATIVE_ENTRIES = 256;
+
+    private final int maxEntries;
+    private final int maxNegativeEntries;
+    private final ConcurrentHashMap<String, ZoneId> zones = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, InvalidZone> invalidZones = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+
+    public ZoneCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_NEGATIVE_ENTRIES);
+    }
+
+    public ZoneCache(int maxEntries, int maxNegativeEntries) {
+        if (maxEntries < 0 || maxNegativeEntries < 0) {
+            throw new IllegalArgumentException("Cache sizes must not be negative");
+        }
+        this.maxEntries = maxEntries;
+        this.maxNegativeEntries = maxNegativeEntries;
+    }
+
+    /**
+     * Resolves a zone name exactly like {@link ZoneId#of(String)}, including
+     * the exception (and message) thrown for invalid names.
+     */
+    public ZoneId resolve(String zoneName) {
+        ZoneId zone = zones.get(zoneName);
+        if (zone != null) {
+            hits.increment();
+            return zone;
+        }
+        InvalidZone invalid = invalidZones.get(zoneName);
+        if (invalid != null) {
+            negativeHits.increment();
+            throw invalid.newException();
+        }
+        misses.increment();
+        try {
+            zone = ZoneId.of(zoneName);
+        } catch (DateTimeException e) {
+            if (invalidZones.size() < maxNegativeEntries) {
+                invalidZones.putIfAbsent(zoneName, new InvalidZone(e));
+            }
+            throw e;
+        }
+        if (zones.size() < maxEntries) {
+            zones.putIfAbsent(zoneName, zone);
+        }
+        return zone;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getNegativeHits() {
+        return negativeHits.sum();
+    }
+
+    public int size() {
+        return zones.size();
+    }
+
+    public int negativeSize() {
+        return invalidZones.size();
+    }
+
+    public void clear() {
+        zones.clear();
+        invalidZones.clear();
+    }
+
+    /** The type and message of the exception {@link ZoneId#of(String)} threw for a name. */
+    private static final class InvalidZone {
+        private final String message;
+        private final boolean unknownRegion;
+
+        InvalidZone(DateTimeException e) {
+            this.message = e.getMessage();
+            this.unknownRegion = e instanceof ZoneRulesException;
+        }
+
+        DateTimeException newException() {
+            return unknownRegion ? new ZoneRulesException(message) : new DateTimeException(message);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneCache[size=" + size() + ", negativeSize=" + negativeSize() + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", negativeHits=" + getNegativeHits() + "]";
+    }
+}
@@ -0,0 +1,64 @@
+package server;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed mapping between region zone IDs and compact integer indices, used by
+ * the primitive conversion methods so zone names never travel on the wire.
+ * Indices follow the sorted order of {@link ZoneId#getAvailableZoneIds()} at
+ * construction time.
+ */
+public final class ZoneTable {
+
+    private final String[] ids;
+    private final ZoneId[] zones;
+    private final Map<String, Integer> indices;
+
+    public ZoneTable() {
+        this(ZoneId.getAvailableZoneIds());
+    }
+
+    public ZoneTable(java.util.Collection<String> zoneIds) {
+        List<String> sorted = new ArrayList<>(zoneIds);
+        Collections.sort(sorted);
+        this.ids = sorted.toArray(new String[0]);
+        this.zones = new ZoneId[ids.length];
+        this.indices = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            zones[i] = ZoneId.of(ids[i]);
+            indices.put(ids[i], i);
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return the zone at {@code index}, or {@code null} if out of range
+     */
+    public ZoneId zone(int index) {
+        return index >= 0 && index < zones.length ? zones[index] : null;
+    }
+
+    /**
+     * @return the index of {@code zoneId}, or -1 if it is not in the table
+     */
+    public int indexOf(String zoneId) {
+        Integer index = indices.get(zoneId);
+        return index != null ? index : -1;
+    }
+
+    public ZoneId[] zones() {
+        return zones.clone();
+    }
+
+    public String[] ids() {
+        return ids.clone();
+    }
+}
@@ -0,0 +1,153 @@
+package server.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with a fixed relative
+ * precision, in the style of HdrHistogram.
+ *
+ * Values below 2048 are counted exactly. Above that, each power-of-two range
+ * is split into 1024 equal buckets, so a recorded value is reported to within
+ * 0.1%. Values above the trackable maximum are counted at the maximum.
+ * Recording is a single atomic increment and is safe from any number of
+ * threads; reads are not atomic snapshots but are consistent enough for
+ * reporting while recording continues.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 11;
+    private static final int SUB_BUCKET_HALF = 1 << (SUB_BUCKET_BITS - 1);
+
+    /** Default upper bound: one hour. */
+    public static final long DEFAULT_MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private final long maxValue;
+    private final AtomicLongArray counts;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalValue = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(DEFAULT_MAX_VALUE);
+    }
+
+    public LatencyHistogram(long maxValue) {
+        if (maxValue < 1) {
+            throw new IllegalArgumentException("maxValue must be positive");
+        }
+        this.maxValue = maxValue;
+        this.counts = new AtomicLongArray(indexFor(maxValue) + 1);
+    }
+
+    /**
+     * Records one value; negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), maxValue);
+        counts.getAndIncrement(indexFor(value));
+        totalCount.increment();
+        totalValue.add(value);
+        // Only write when the maximum grows, which is rare once warmed up.
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Records {@code nanos} and corrects for coordinated omission: if the
+     * value is longer than the interval at which samples were expected,
+     * the samples that a stalled caller failed to issue are recorded too,
+     * with linearly decreasing latencies ({@code nanos - interval},
+     * {@code nanos - 2*interval}, ...).
+     */
+    public void recordCorrected(long nanos, long expectedIntervalNanos) {
+        record(nanos);
+        if (expectedIntervalNanos <= 0) {
+            return;
+        }
+        for (long missing = nanos - expectedIntervalNanos; missing >= expectedIntervalNanos;
+                missing -= expectedIntervalNanos) {
+            record(missing);
+        }
+    }
+
+    /** Adds all counts of {@code other} to this histogram. */
+    public void add(LatencyHistogram other) {
+        int n = Math.min(counts.length(), other.counts.length());
+        for (int i = 0; i < n; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalValue.add(other.totalValue.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalValue.reset();
+        max.set(0);
+    }
+
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalValue.sum() / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the smallest recorded value (at bucket precision) that at least
+     *         {@code percentile}% of samples are less than or equal to, or 0
+     *         if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = totalCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1fus p50=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus", getCount(),
+                getMean() / 1_000.0, getValueAtPercentile(50) / 1_000.0, getValueAtPercentile(99) / 1_000.0,
+                getValueAtPercentile(99.9) / 1_000.0, getMax() / 1_000.0);
+    }
+
+    static int indexFor(long value) {
+        int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return bucket * SUB_BUCKET_HALF + (int) (value >>> bucket);
+    }
+
+    static long highestEquivalentValue(int index) {
+        int bucket = Math.max(0, (index >> (SUB_BUCKET_BITS - 1)) - 1);
+        long subBucket = index - (long) bucket * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
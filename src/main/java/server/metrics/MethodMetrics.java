@@ -0,0 +1,121 @@
+package server.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram for one remote method. All updates are
+ * lock-free.
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+
+    private final String method;
+    private final ServerMetrics server;
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    MethodMetrics(String method, ServerMetrics server) {
+        this.method = method;
+        this.server = server;
+    }
+
+    /** Called when a call arrives; must be paired with one of the outcome methods. */
+    public void enter() {
+        inFlight.incrementAndGet();
+        server.inFlight.incrementAndGet();
+    }
+
+    public void success(long nanos) {
+        successes.increment();
+        latencies.record(nanos);
+        exit();
+    }
+
+    public void error(long nanos) {
+        errors.increment();
+        latencies.record(nanos);
+        exit();
+    }
+
+    /** The call was turned away by admission control without running. */
+    public void rejected() {
+        rejections.increment();
+        exit();
+    }
+
+    private void exit() {
+        inFlight.decrementAndGet();
+        server.inFlight.decrementAndGet();
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public double getMeanLatencyMicros() {
+        return latencies.getMean() / 1_000.0;
+    }
+
+    @Override
+    public double getP50LatencyMicros() {
+        return latencies.getValueAtPercentile(50) / 1_000.0;
+    }
+
+    @Override
+    public double getP99LatencyMicros() {
+        return latencies.getValueAtPercentile(99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999LatencyMicros() {
+        return latencies.getValueAtPercentile(99.9) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxLatencyMicros() {
+        return latencies.getMax() / 1_000.0;
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public void reset() {
+        successes.reset();
+        errors.reset();
+        rejections.reset();
+        latencies.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s ok=%d err=%d rejected=%d inFlight=%d latency[%s]", method, getSuccessCount(),
+                getErrorCount(), getRejectedCount(), getInFlight(), latencies);
+    }
+}
@@ -0,0 +1,31 @@
+package server.metrics;
+
+/**
+ * JMX view of one remote method, registered as
+ * {@code server:type=RemoteMethod,name=<method>}. Latencies are in
+ * microseconds and cover queueing as well as execution.
+ */
+public interface MethodMetricsMXBean {
+
+    String getMethod();
+
+    long getSuccessCount();
+
+    long getErrorCount();
+
+    long getRejectedCount();
+
+    int getInFlight();
+
+    double getMeanLatencyMicros();
+
+    double getP50LatencyMicros();
+
+    double getP99LatencyMicros();
+
+    double getP999LatencyMicros();
+
+    double getMaxLatencyMicros();
+
+    void reset();
+}
@@ -0,0 +1,228 @@
+package server.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-method call metrics for the server, plus sampled counts of which zone
+ * pairs are converted most, and the statistics of components such as the
+ * result cache.
+ *
+ * Recording a call costs a few atomic increments and one histogram update.
+ * Zone pairs are sampled (one call in {@code zonePairSampling}) and at most
+ * {@link #MAX_ZONE_PAIRS} distinct pairs are tracked, so a client sending
+ * arbitrary zone names cannot grow the map without bound.
+ */
+public class ServerMetrics implements ServerMetricsMXBean {
+
+    public static final String DOMAIN = "server";
+    static final int MAX_ZONE_PAIRS = 1024;
+    private static final int HOT_PAIRS_REPORTED = 10;
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> zonePairs = new ConcurrentHashMap<>();
+    private final Map<String, Object> components = new ConcurrentSkipListMap<>();
+    private final int zonePairSampling;
+    private volatile MBeanServer mbeanServer;
+    private ScheduledExecutorService logger;
+
+    /**
+     * @param zonePairSampling record the zone pair of one call in this many; 1
+     *                         records every call
+     */
+    public ServerMetrics(int zonePairSampling) {
+        if (zonePairSampling < 1) {
+            throw new IllegalArgumentException("zonePairSampling must be at least 1");
+        }
+        this.zonePairSampling = zonePairSampling;
+    }
+
+    public MethodMetrics method(String name) {
+        MethodMetrics metrics = methods.get(name);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(name, n -> {
+                MethodMetrics created = new MethodMetrics(n, this);
+                register(created, n, "type=RemoteMethod,name=" + ObjectName.quote(n));
+                return created;
+            });
+        }
+        return metrics;
+    }
+
+    public void recordZonePair(String fromZone, String toZone) {
+        if (zonePairSampling > 1 && ThreadLocalRandom.current().nextInt(zonePairSampling) != 0) {
+            return;
+        }
+        String key = fromZone + " -> " + toZone;
+        LongAdder count = zonePairs.get(key);
+        if (count == null) {
+            if (zonePairs.size() >= MAX_ZONE_PAIRS) {
+                return;
+            }
+            count = zonePairs.computeIfAbsent(key, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Adds a server component's own MXBean, e.g. the result cache, registered
+     * as {@code server:type=<type>} along with these metrics; its
+     * {@code toString()} is part of every {@link #dump()}.
+     */
+    public void addComponent(String type, Object mxbean) {
+        components.put(type, mxbean);
+        register(mxbean, type, "type=" + type);
+    }
+
+    /**
+     * Registers this object and every method (including ones first called
+     * later) with the platform MBean server.
+     */
+    public void registerMBeans() throws JMException {
+        registerMBeans(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public synchronized void registerMBeans(MBeanServer server) throws JMException {
+        this.mbeanServer = server;
+        server.registerMBean(this, new ObjectName(DOMAIN + ":type=ServerMetrics"));
+        for (MethodMetrics metrics : methods.values()) {
+            register(metrics, metrics.getMethod(), "type=RemoteMethod,name=" + ObjectName.quote(metrics.getMethod()));
+        }
+        for (Map.Entry<String, Object> component : components.entrySet()) {
+            register(component.getValue(), component.getKey(), "type=" + component.getKey());
+        }
+    }
+
+    /** Prints {@link #dump()} to standard output every {@code seconds}. */
+    public synchronized void startLogging(long seconds) {
+        if (logger != null || seconds <= 0) {
+            return;
+        }
+        logger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-logger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.scheduleAtFixedRate(() -> System.out.print(dump()), seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopLogging() {
+        if (logger != null) {
+            logger.shutdownNow();
+            logger = null;
+        }
+    }
+
+    @Override
+    public long getTotalCalls() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.getSuccessCount() + metrics.getErrorCount() + metrics.getRejectedCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalErrors() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.getErrorCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalRejected() {
+        long total = 0;
+        for (MethodMetrics metrics : methods.values()) {
+            total += metrics.getRejectedCount();
+        }
+        return total;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public String[] getMethods() {
+        return methods.keySet().stream().sorted().toArray(String[]::new);
+    }
+
+    @Override
+    public String[] getHotZonePairs() {
+        List<Map.Entry<String, Long>> counts = new ArrayList<>();
+        for (Map.Entry<String, LongAdder> entry : zonePairs.entrySet()) {
+            counts.add(Map.entry(entry.getKey(), entry.getValue().sum() * zonePairSampling));
+        }
+        counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return counts.stream()
+                .limit(HOT_PAIRS_REPORTED)
+                .map(e -> e.getKey() + ": " + e.getValue())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("calls=%d errors=%d rejected=%d inFlight=%d%n", getTotalCalls(), getTotalErrors(),
+                getTotalRejected(), getInFlight()));
+        for (String name : getMethods()) {
+            text.append("  ").append(methods.get(name)).append(System.lineSeparator());
+        }
+        for (Object component : components.values()) {
+            text.append("  ").append(component).append(System.lineSeparator());
+        }
+        String[] hot = getHotZonePairs();
+        if (hot.length > 0) {
+            text.append("  hot zone pairs (estimated):").append(System.lineSeparator());
+            for (String pair : hot) {
+                text.append("    ").append(pair).append(System.lineSeparator());
+            }
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (MethodMetrics metrics : methods.values()) {
+            metrics.reset();
+        }
+        zonePairs.clear();
+    }
+
+    private void register(Object mbean, String what, String properties) {
+        MBeanServer server = mbeanServer;
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+            }
+        } catch (InstanceAlreadyExistsException e) {
+            // Registered concurrently by registerMBeans.
+        } catch (JMException e) {
+            System.err.println("Could not register metrics for " + what + ": " + e.getMessage());
+        }
+    }
+}
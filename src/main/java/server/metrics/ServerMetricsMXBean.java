@@ -0,0 +1,26 @@
+package server.metrics;
+
+/**
+ * JMX view of the whole server, registered as
+ * {@code server:type=ServerMetrics}.
+ */
+public interface ServerMetricsMXBean {
+
+    long getTotalCalls();
+
+    long getTotalErrors();
+
+    long getTotalRejected();
+
+    int getInFlight();
+
+    String[] getMethods();
+
+    /** The most frequently converted zone pairs, as "from -> to: count". */
+    String[] getHotZonePairs();
+
+    /** The same text as the periodic log dump. */
+    String dump();
+
+    void reset();
+}
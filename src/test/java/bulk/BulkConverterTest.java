@@ -0,0 +1,134 @@
+package bulk;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import server.ConversionEngine;
+
+public class BulkConverterTest extends TestCase {
+
+    private final ConversionEngine engine = new ConversionEngine();
+    private Path dir;
+
+    @Override
+    protected void setUp() throws IOException {
+        dir = Files.createTempDirectory("bulk");
+    }
+
+    @Override
+    protected void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    public void testCodecMatchesLocalDateTimeParse() {
+        DateTimeFormatter formatter = ConversionEngine.FORMATTER;
+        String[] samples = { "2024-02-29 23:59:59", "2023-02-30 10:00:00", "2023-04-31 00:00:00",
+                "2024-01-01 24:00:00", "0001-01-01 00:00:00", "9999-12-31 23:59:59", "1970-01-01 00:00:00",
+                "1969-12-31 23:59:59", "2024-13-01 00:00:00", "2024-01-01 24:30:00", "0000-01-01 00:00:00",
+                "2024-01-01 23:60:00", "2024/01/01 00:00:00", "2024-01-01 0a:00:00", "2024-00-10 00:00:00" };
+        for (String sample : samples) {
+            byte[] bytes = sample.getBytes(StandardCharsets.US_ASCII);
+            long parsed = TimestampCodec.parse(bytes, 0);
+            LocalDateTime expected;
+            try {
+                expected = LocalDateTime.parse(sample, formatter);
+            } catch (RuntimeException e) {
+                assertEquals(sample, TimestampCodec.INVALID, parsed);
+                continue;
+            }
+            assertEquals(sample, expected.toEpochSecond(java.time.ZoneOffset.UTC), parsed);
+            byte[] formatted = new byte[TimestampCodec.LENGTH];
+            assertTrue(TimestampCodec.format(parsed, formatted, 0));
+            assertEquals(expected.format(formatter), new String(formatted, StandardCharsets.US_ASCII));
+        }
+    }
+
+    public void testCodecRoundTripsEveryDayOverFourCenturies() {
+        LocalDateTime date = LocalDateTime.of(1800, 1, 1, 13, 45, 7);
+        byte[] bytes = new byte[TimestampCodec.LENGTH];
+        for (int i = 0; i < 146_097; i++, date = date.plusDays(1)) {
+            long local = date.toEpochSecond(java.time.ZoneOffset.UTC);
+            assertTrue(TimestampCodec.format(local, bytes, 0));
+            assertEquals(date.format(ConversionEngine.FORMATTER), new String(bytes, StandardCharsets.US_ASCII));
+            assertEquals(local, TimestampCodec.parse(bytes, 0));
+        }
+    }
+
+    public void testConvertsMappedColumnsLikeConvertTime() throws IOException {
+        String[] zones = { "America/New_York", "Europe/London", "Asia/Kolkata", "Australia/Lord_Howe", "UTC" };
+        Random random = new Random(7);
+        List<String> lines = new ArrayList<>();
+        List<String[]> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime a = LocalDateTime.of(2000, 1, 1, 0, 0).plusSeconds(random.nextInt(40 * 365 * 86_400));
+            LocalDateTime b = LocalDateTime.of(1990, 1, 1, 0, 0).plusSeconds(random.nextInt(60 * 365 * 86_400));
+            String first = a.format(ConversionEngine.FORMATTER);
+            String second = b.format(ConversionEngine.FORMATTER);
+            lines.add(i + "," + first + ",payload-" + i + ",\"" + second + "\"");
+            expected.add(new String[] { String.valueOf(i),
+                    engine.convert(first, zones[0], zones[4]),
+                    "payload-" + i,
+                    "\"" + engine.convert(second, zones[3], zones[2]) + "\"" });
+        }
+        Path input = dir.resolve("in.csv");
+        Path output = dir.resolve("out.csv");
+        Files.write(input, ("id,time,payload,other\n" + String.join("\r\n", lines) + "\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Small segments and pieces force many segment boundaries and splits.
+            BulkConverter converter = new BulkConverter(engine,
+                    Arrays.asList(new ColumnMapping(3, ZoneId.of(zones[3]), ZoneId.of(zones[2])),
+                            new ColumnMapping(1, ZoneId.of(zones[0]), ZoneId.of(zones[4]))),
+                    ',', 1, 64 * 1024, pool);
+            BulkConverter.Result result = converter.convert(input, output);
+            assertEquals(20_000, result.getRows());
+            assertEquals(40_000, result.getConverted());
+            assertEquals(0, result.getInvalid());
+        } finally {
+            pool.shutdown();
+        }
+
+        List<String> written = Files.readAllLines(output, StandardCharsets.US_ASCII);
+        assertEquals("id,time,payload,other", written.get(0));
+        assertEquals(20_001, written.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(String.join(",", expected.get(i)), written.get(i + 1));
+        }
+        assertEquals(Files.size(input), Files.size(output));
+    }
+
+    public void testInvalidFieldsAreLeftUnchanged() throws IOException {
+        Path input = dir.resolve("in.csv");
+        Path output = dir.resolve("out.csv");
+        Files.write(input, "a;2024-01-15 12:00:00\nb;not a timestamp\nc\n\nd;2024-13-01 00:00:00\ne;2024-07-01 00:00:00"
+                .getBytes(StandardCharsets.US_ASCII));
+
+        BulkConverter converter = new BulkConverter(engine,
+                Arrays.asList(ColumnMapping.parse("1:Europe/Paris:Asia/Tokyo")), ';', 0);
+        BulkConverter.Result result = converter.convert(input, output);
+
+        assertEquals(5, result.getRows());
+        assertEquals(2, result.getConverted());
+        assertEquals(3, result.getInvalid());
+        assertEquals("a;2024-01-15 20:00:00\nb;not a timestamp\nc\n\nd;2024-13-01 00:00:00\ne;2024-07-01 07:00:00",
+                new String(Files.readAllBytes(output), StandardCharsets.US_ASCII));
+    }
+}
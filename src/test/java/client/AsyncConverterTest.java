@@ -0,0 +1,172 @@
+package client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.rmi.UnmarshalException;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import server.ConversionRequest;
+import server.ConversionResult;
+import server.TimeZoneConverter;
+import server.TimeZoneConverterImpl;
+
+public class AsyncConverterTest extends TestCase {
+
+    private TimeZoneConverterImpl server;
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile boolean batchUnsupported;
+
+    @Override
+    protected void setUp() throws Exception {
+        server = TimeZoneConverterImpl.createInstance();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        UnicastRemoteObject.unexportObject(server, true);
+    }
+
+    public void testConcurrentCallsAreBatchedWhileSlotsAreBusy() throws Exception {
+        try (AsyncConverter converter = new AsyncConverter(List.of(stub()), 1, 1000)) {
+            release = new CountDownLatch(1);
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            results.add(converter.convertTime("2024-01-15 12:00:00", "UTC", "Asia/Tokyo"));
+            waitFor(() -> running.get() == 1);
+            for (int i = 0; i < 50; i++) {
+                results.add(converter.convertTime(String.format("2024-01-15 %02d:00:00", i % 23), "UTC",
+                        "Europe/Paris"));
+            }
+            assertEquals(50, converter.getQueued());
+            release.countDown();
+
+            assertEquals("2024-01-15 21:00:00", results.get(0).get(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 50; i++) {
+                assertEquals(String.format("2024-01-15 %02d:00:00", i % 23 + 1),
+                        results.get(i + 1).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, singleCalls.get());
+            assertEquals(1, batchCalls.get());
+            assertEquals(2, converter.getCalls());
+            assertEquals(51, converter.getConversions());
+        }
+    }
+
+    public void testLimitsCallsInFlightPerEndpoint() throws Exception {
+        try (AsyncConverter converter = new AsyncConverter(List.of(stub(), stub()), 2, 3)) {
+            release = new CountDownLatch(1);
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                results.add(converter.convertTime("2024-06-01 00:00:00", "UTC", "UTC"));
+            }
+            waitFor(() -> running.get() == 4);
+            Thread.sleep(100);
+            assertEquals(4, running.get());
+            release.countDown();
+            CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+            assertEquals(4, maxRunning.get());
+        }
+    }
+
+    public void testFailedItemFailsOnlyItsOwnFuture() throws Exception {
+        try (AsyncConverter converter = new AsyncConverter(stub())) {
+            List<ConversionResult> results = converter.convertBatch(Arrays.asList(
+                    new ConversionRequest("2024-01-01 00:00:00", "UTC", "Asia/Kolkata"),
+                    new ConversionRequest("2024-01-01 00:00:00", "UTC", "Mars/Olympus"),
+                    null)).get(5, TimeUnit.SECONDS);
+            assertEquals("2024-01-01 05:30:00", results.get(0).getResult());
+            assertFalse(results.get(1).isSuccess());
+            assertFalse(results.get(2).isSuccess());
+
+            try {
+                converter.convertTime("2024-01-01 00:00:00", "UTC", "Mars/Olympus").get(5, TimeUnit.SECONDS);
+                fail("expected failure");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RemoteException);
+                assertEquals(results.get(1).getError(), e.getCause().getMessage());
+            }
+        }
+    }
+
+    public void testFallsBackToSingleCallsWithoutBatchSupport() throws Exception {
+        batchUnsupported = true;
+        try (AsyncConverter converter = new AsyncConverter(List.of(stub()), 1, 100)) {
+            release = new CountDownLatch(1);
+            CompletableFuture<String> first = converter.convertTime("2024-01-01 00:00:00", "UTC", "UTC");
+            waitFor(() -> running.get() == 1);
+            CompletableFuture<List<ConversionResult>> rest = converter.convertBatch(Arrays.asList(
+                    new ConversionRequest("2024-01-01 00:00:00", "UTC", "Asia/Tokyo"),
+                    new ConversionRequest("2024-01-01 00:00:00", "UTC", "Asia/Tokyo")));
+            release.countDown();
+            assertEquals("2024-01-01 00:00:00", first.get(5, TimeUnit.SECONDS));
+            for (ConversionResult result : rest.get(5, TimeUnit.SECONDS)) {
+                assertEquals("2024-01-01 09:00:00", result.getResult());
+            }
+            assertEquals(1, batchCalls.get());
+            assertEquals(3, singleCalls.get());
+        }
+    }
+
+    public void testCloseFailsQueuedCalls() throws Exception {
+        AsyncConverter converter = new AsyncConverter(List.of(stub()), 1, 10);
+        release = new CountDownLatch(1);
+        CompletableFuture<String> sent = converter.convertTime("2024-01-01 00:00:00", "UTC", "UTC");
+        waitFor(() -> running.get() == 1);
+        CompletableFuture<String> queued = converter.convertTime("2024-01-01 00:00:00", "UTC", "UTC");
+        converter.close();
+        release.countDown();
+        assertEquals("2024-01-01 00:00:00", sent.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.isCompletedExceptionally());
+        assertTrue(converter.convertTime("2024-01-01 00:00:00", "UTC", "UTC").isCompletedExceptionally());
+    }
+
+    /** The server object, observed: counts calls and holds them until {@link #release} opens. */
+    private TimeZoneConverter stub() {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("convertBatch")) {
+                batchCalls.incrementAndGet();
+                if (batchUnsupported) {
+                    throw new UnmarshalException("unrecognized method hash: method not supported by remote object");
+                }
+            } else if (method.getName().equals("convertTime")) {
+                singleCalls.incrementAndGet();
+            }
+            int now = running.incrementAndGet();
+            maxRunning.accumulateAndGet(now, Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+                return method.invoke(server, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+        return (TimeZoneConverter) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { TimeZoneConverter.class }, handler);
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("condition not reached");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package client;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class BackoffTest extends TestCase {
+
+    public void testDelaysDoubleWithinUpperHalfOfStep() {
+        Backoff backoff = new Backoff(100, 1_000, new Random(42));
+        long[] steps = {100, 200, 400, 800, 1_000, 1_000, 1_000};
+        for (int i = 0; i < steps.length; i++) {
+            long delay = backoff.nextDelayMillis();
+            assertTrue("attempt " + i + ": " + delay, delay >= steps[i] / 2 && delay <= steps[i]);
+            assertEquals(i + 1, backoff.getAttempts());
+        }
+    }
+
+    public void testDelaysAreSpreadOut() {
+        Backoff first = new Backoff(1_000, 1_000, new Random(1));
+        Backoff second = new Backoff(1_000, 1_000, new Random(2));
+        boolean differ = false;
+        for (int i = 0; i < 10; i++) {
+            differ |= first.nextDelayMillis() != second.nextDelayMillis();
+        }
+        assertTrue(differ);
+    }
+
+    public void testResetStartsOver() {
+        Backoff backoff = new Backoff(10, 10_000);
+        for (int i = 0; i < 5; i++) {
+            backoff.nextDelayMillis();
+        }
+        backoff.reset();
+        assertEquals(0, backoff.getAttempts());
+        assertTrue(backoff.nextDelayMillis() <= 10);
+    }
+
+    public void testManyAttemptsStayAtMax() {
+        long max = Long.MAX_VALUE / 4;
+        Backoff backoff = new Backoff(1, max);
+        long delay = 0;
+        for (int i = 0; i < 200; i++) {
+            delay = backoff.nextDelayMillis();
+            assertTrue(delay > 0 && delay <= max);
+        }
+        assertTrue(delay >= max / 2);
+    }
+
+    public void testRejectsInvalidBounds() {
+        try {
+            new Backoff(0, 10);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new Backoff(100, 10);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package client;
+
+import java.rmi.RemoteException;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+import server.ConversionEngine;
+import server.ResultCache;
+import server.RmiTestServer;
+import server.TimeZoneConverterImpl;
+import server.TzData;
+
+public class ConversionPipelineTest extends TestCase {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    // While set, convertTime counts down entered and waits for gate
+    private volatile CountDownLatch gate;
+    private volatile CountDownLatch entered;
+    private RmiTestServer registry;
+    private TimeZoneConverterImpl server;
+
+    @Override
+    protected void setUp() throws Exception {
+        registry = RmiTestServer.start();
+        startServer();
+    }
+
+    private void startServer() throws RemoteException {
+        server = new TimeZoneConverterImpl(new ConversionEngine()) {
+            @Override
+            public String convertTime(String time, String fromZone, String toZone) throws RemoteException {
+                calls.incrementAndGet();
+                CountDownLatch waitFor = gate;
+                if (waitFor != null) {
+                    entered.countDown();
+                    try {
+                        waitFor.await();
+                    } catch (InterruptedException e) {
+                        throw new RemoteException("interrupted");
+                    }
+                }
+                return super.convertTime(time, fromZone, toZone);
+            }
+        };
+        registry.bind(ConversionPipeline.BINDING_NAME, server);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        registry.close();
+    }
+
+    public void testRepeatedConversionIsServedFromCache() throws Exception {
+        ConversionPipeline pipeline = connect(100, 60_000);
+        try {
+            assertEquals("2024-01-01 05:30:00", convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Kolkata"));
+            assertEquals("2024-01-01 05:30:00", convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Kolkata"));
+            assertEquals("2024-01-01 09:00:00", convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Tokyo"));
+
+            assertEquals(2, calls.get());
+            ResultCache cache = pipeline.getCache();
+            assertEquals(1, cache.getHits());
+            assertEquals(2, cache.getMisses());
+            assertEquals(server.getTzDataVersion(), pipeline.getTzDataVersion());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testErrorsAreNotCached() throws Exception {
+        ConversionPipeline pipeline = connect(100, 60_000);
+        try {
+            for (int i = 0; i < 2; i++) {
+                try {
+                    convert(pipeline, "2024-01-01 00:00:00", "Not/AZone", "UTC");
+                    fail("Expected an error");
+                } catch (RemoteException expected) {
+                }
+            }
+            assertEquals(2, calls.get());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testNewServerTzVersionEmptiesCache() throws Exception {
+        ConversionPipeline pipeline = connect(100, 0);
+        try {
+            assertEquals("2024-07-01 11:00:00", convert(pipeline, "2024-07-01 12:00:00", "Europe/London", "UTC"));
+
+            server.getLiveEngine().reload(TzData.of("2099z",
+                    Collections.<String, ZoneRules>singletonMap("Europe/London", ZoneRules.of(ZoneOffset.ofHours(5)))));
+            // Served from the cache once more while the version is checked.
+            convert(pipeline, "2024-07-01 12:00:00", "Europe/London", "UTC");
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!"2099z".equals(pipeline.getTzDataVersion()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            assertEquals("2099z", pipeline.getTzDataVersion());
+            assertEquals("2024-07-01 07:00:00", convert(pipeline, "2024-07-01 12:00:00", "Europe/London", "UTC"));
+            assertEquals(2, calls.get());
+            assertEquals(1, pipeline.getCache().getInvalidations());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testCacheCanBeTurnedOff() throws Exception {
+        ConversionPipeline pipeline = connect(0, 60_000);
+        try {
+            assertNull(pipeline.getCache());
+            convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Kolkata");
+            convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Kolkata");
+            assertEquals(2, calls.get());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testOnlyLatestSubmissionIsDelivered() throws Exception {
+        ConversionPipeline pipeline = connect(0, 60_000);
+        gate = new CountDownLatch(1);
+        entered = new CountDownLatch(1);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        CompletableFuture<String> last = new CompletableFuture<>();
+        try {
+            pipeline.submit("2024-01-01 00:00:00", "UTC", "Asia/Kolkata", result -> delivered.add(result),
+                    error -> delivered.add(error));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            // Queued behind the running call, then overtaken before it starts
+            pipeline.submit("2024-01-01 00:00:00", "UTC", "Asia/Tokyo", result -> delivered.add(result),
+                    error -> delivered.add(error));
+            pipeline.submit("2024-01-01 00:00:00", "UTC", "Europe/Paris", result -> {
+                delivered.add(result);
+                last.complete(result);
+            }, last::complete);
+            gate.countDown();
+            gate = null;
+
+            assertEquals("2024-01-01 01:00:00", last.get(5, TimeUnit.SECONDS));
+            // The first call's result was dropped and the second never ran
+            assertEquals(Collections.singletonList("2024-01-01 01:00:00"), delivered);
+            assertEquals(2, calls.get());
+        } finally {
+            gate = null;
+            pipeline.shutdown();
+        }
+    }
+
+    public void testDisconnectDropsCallInFlight() throws Exception {
+        ConversionPipeline pipeline = connect(0, 60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        gate = release;
+        entered = new CountDownLatch(1);
+        List<String> delivered = new CopyOnWriteArrayList<>();
+        try {
+            pipeline.submit("2024-01-01 00:00:00", "UTC", "Asia/Kolkata", result -> delivered.add(result),
+                    error -> delivered.add(error));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            pipeline.disconnect();
+            gate = null;
+            release.countDown();
+
+            // Anything submitted after the disconnect runs after the dropped call
+            assertEquals("2024-01-01 09:00:00", convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Tokyo"));
+            assertTrue(delivered.isEmpty());
+            assertFalse(pipeline.isConnected());
+            assertFalse(pipeline.isReconnecting());
+        } finally {
+            release.countDown();
+            pipeline.shutdown();
+        }
+    }
+
+    public void testConvertsLocallyWithoutServer() throws Exception {
+        ConversionPipeline pipeline = new ConversionPipeline(Runnable::run, 100, 60_000, new Backoff(10, 50));
+        try {
+            AtomicReference<ConversionPipeline.Source> source = new AtomicReference<>();
+            assertEquals(server.convertTime("2024-03-31 01:30:00", "UTC", "Europe/Berlin"),
+                    convert(pipeline, "2024-03-31 01:30:00", "UTC", "Europe/Berlin", source));
+            assertEquals(ConversionPipeline.Source.LOCAL, source.get());
+
+            String serverError = null;
+            try {
+                server.convertTime("2024-01-01 00:00:00", "Not/AZone", "UTC");
+            } catch (RemoteException e) {
+                serverError = e.getMessage();
+            }
+            try {
+                convert(pipeline, "2024-01-01 00:00:00", "Not/AZone", "UTC");
+                fail("Expected an error");
+            } catch (RemoteException expected) {
+                assertEquals(serverError, expected.getMessage());
+            }
+            // Only the two direct calls above reached the server
+            assertEquals(2, calls.get());
+            assertFalse(pipeline.isReconnecting());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testLocalConversionRunsOffTheSubmittingThread() throws Exception {
+        ConversionPipeline pipeline = new ConversionPipeline(Runnable::run, 100, 60_000, new Backoff(10, 50));
+        try {
+            // The UI executor runs callbacks straight away, on the thread that converted.
+            CompletableFuture<Thread> convertedOn = new CompletableFuture<>();
+            pipeline.submit("2024-01-01 00:00:00", "UTC", "UTC",
+                    (result, source) -> convertedOn.complete(Thread.currentThread()),
+                    error -> convertedOn.completeExceptionally(new RemoteException(error)));
+            assertNotSame(Thread.currentThread(), convertedOn.get(5, TimeUnit.SECONDS));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testFallsBackLocallyAndReconnectsInBackground() throws Exception {
+        ConversionPipeline pipeline = new ConversionPipeline(Runnable::run, 100, 60_000, new Backoff(10, 50));
+        CountDownLatch lost = new CountDownLatch(1);
+        CountDownLatch reconnected = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        pipeline.setConnectionListener(new ConversionPipeline.ConnectionListener() {
+            @Override
+            public void reconnecting(int attempt, long delayMillis) {
+                attempts.set(attempt);
+            }
+
+            @Override
+            public void reconnected() {
+                reconnected.countDown();
+            }
+
+            @Override
+            public void connectionLost(String message) {
+                lost.countDown();
+            }
+        });
+        CompletableFuture<String> connected = new CompletableFuture<>();
+        pipeline.connect("127.0.0.1", registry.getPort(), connected::complete, connected::completeExceptionally);
+        connected.get(5, TimeUnit.SECONDS);
+        try {
+            AtomicReference<ConversionPipeline.Source> source = new AtomicReference<>();
+            assertEquals("2024-01-01 05:30:00",
+                    convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Kolkata", source));
+            assertEquals(ConversionPipeline.Source.SERVER, source.get());
+
+            registry.unexport(server);
+            assertEquals("2024-01-01 09:00:00", convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Tokyo", source));
+            assertEquals(ConversionPipeline.Source.LOCAL, source.get());
+            assertTrue(lost.await(5, TimeUnit.SECONDS));
+            assertFalse(pipeline.isConnected());
+
+            // Lookups keep failing against the unexported object until a new one is bound
+            Thread.sleep(100);
+            assertTrue(pipeline.isReconnecting());
+            assertTrue(attempts.get() > 1);
+            startServer();
+            assertTrue(reconnected.await(5, TimeUnit.SECONDS));
+            assertFalse(pipeline.isReconnecting());
+
+            assertEquals("2024-01-01 09:00:00", convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Tokyo", source));
+            assertEquals(ConversionPipeline.Source.SERVER, source.get());
+            assertEquals(2, calls.get());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    public void testDisconnectStopsReconnecting() throws Exception {
+        ConversionPipeline pipeline = connect(100, 60_000);
+        try {
+            registry.unexport(server);
+            AtomicReference<ConversionPipeline.Source> source = new AtomicReference<>();
+            convert(pipeline, "2024-01-01 00:00:00", "UTC", "Asia/Tokyo", source);
+            assertEquals(ConversionPipeline.Source.LOCAL, source.get());
+            assertTrue(pipeline.isReconnecting());
+
+            pipeline.disconnect();
+            assertFalse(pipeline.isReconnecting());
+            startServer();
+            Thread.sleep(100);
+            assertFalse(pipeline.isConnected());
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    private ConversionPipeline connect(int cacheSize, long versionCheckMillis) throws Exception {
+        ConversionPipeline pipeline = new ConversionPipeline(Runnable::run, cacheSize, versionCheckMillis,
+                new Backoff(10, 50));
+        CompletableFuture<String> connected = new CompletableFuture<>();
+        pipeline.connect("127.0.0.1", registry.getPort(), connected::complete, connected::completeExceptionally);
+        connected.get(5, TimeUnit.SECONDS);
+        return pipeline;
+    }
+
+    private static String convert(ConversionPipeline pipeline, String time, String fromZone, String toZone)
+            throws Exception {
+        return convert(pipeline, time, fromZone, toZone, new AtomicReference<>());
+    }
+
+    private static String convert(ConversionPipeline pipeline, String time, String fromZone, String toZone,
+            AtomicReference<ConversionPipeline.Source> source) throws Exception {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        pipeline.submit(time, fromZone, toZone, (converted, from) -> {
+            source.set(from);
+            result.complete(converted);
+        }, error -> result.completeExceptionally(new RemoteException(error)));
+        try {
+            return result.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package client;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+public class HttpResponseCacheTest extends TestCase {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private Path cacheDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        cacheDir = Files.createTempDirectory("http-cache");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        Files.deleteIfExists(cacheDir);
+    }
+
+    public void testMemoryKeepsMostRecentlyUsed() {
+        HttpResponseCache cache = new HttpResponseCache(null, 2, 10, 0, now::get);
+        cache.put("a", entry("A"));
+        cache.put("b", entry("B"));
+        cache.get("a");
+        cache.put("c", entry("C"));
+
+        assertEquals(2, cache.memorySize());
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a").getPayload());
+        assertEquals("C", cache.get("c").getPayload());
+    }
+
+    public void testDiskKeepsMostRecentlyWritten() throws Exception {
+        HttpResponseCache cache = new HttpResponseCache(cacheDir, 1, 3, Long.MAX_VALUE / 2, now::get);
+        Set<Path> written = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            cache.put("url" + i, entry("payload" + i));
+            // File times may be coarse; give each new file a distinct, increasing one.
+            try (Stream<Path> files = Files.list(cacheDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (written.add(file)) {
+                        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L + i * 1_000L));
+                    }
+                }
+            }
+        }
+
+        assertEquals(3, cache.diskSize());
+        cache.clearMemory();
+        assertNull(cache.get("url0"));
+        assertNull(cache.get("url1"));
+        assertEquals("payload2", cache.get("url2").getPayload());
+        assertEquals("payload4", cache.get("url4").getPayload());
+    }
+
+    public void testLongExpiredEntriesAreDeletedOnOpen() {
+        HttpResponseCache cache = new HttpResponseCache(cacheDir, 10, 10, 1_000, now::get);
+        cache.put("old", new HttpResponseCache.Entry("old", null, now.get()));
+        cache.put("recent", new HttpResponseCache.Entry("recent", "\"v1\"", now.get() + 5_000));
+        assertEquals(2, cache.diskSize());
+
+        now.addAndGet(5_500);
+        HttpResponseCache reopened = new HttpResponseCache(cacheDir, 10, 10, 1_000, now::get);
+        assertEquals(1, reopened.diskSize());
+        assertNull(reopened.get("old"));
+        // Expired, but kept for revalidation
+        HttpResponseCache.Entry stale = reopened.get("recent");
+        assertFalse(reopened.isFresh(stale));
+        assertEquals("\"v1\"", stale.getEtag());
+    }
+
+    private HttpResponseCache.Entry entry(String payload) {
+        return new HttpResponseCache.Entry(payload, null, now.get() + 60_000);
+    }
+}
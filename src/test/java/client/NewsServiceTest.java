@@ -0,0 +1,133 @@
+package client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import junit.framework.TestCase;
+import okhttp3.OkHttpClient;
+
+public class NewsServiceTest extends TestCase {
+
+    private static final String EVENTS_JSON = "{\"selected\":[],\"events\":["
+            + "{\"text\":\"First\",\"year\":1969,\"pages\":[{\"title\":\"x\"}]},"
+            + "{\"text\":\"Second\",\"year\":1970},{\"text\":\"Third\",\"year\":1971},"
+            + "{\"text\":\"Fourth\",\"year\":1972},{\"text\":\"Fifth\",\"year\":1973},"
+            + "{\"text\":\"Sixth\",\"year\":1974}]}";
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private Path cacheDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/onthisday/", this::serveEvents);
+        server.start();
+        cacheDir = Files.createTempDirectory("news-cache");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        server.stop(0);
+    }
+
+    public void testParsesOnlyFirstFiveItems() throws Exception {
+        String items = NewsService.parseItems(new StringReader(EVENTS_JSON), "events", true);
+        assertTrue(items.startsWith("• 1969: First\n\n"));
+        assertTrue(items.contains("1973: Fifth"));
+        assertFalse(items.contains("Sixth"));
+    }
+
+    public void testServesFreshEntriesFromCacheAndRevalidatesWithEtag() throws Exception {
+        NewsService service = newService(new HttpResponseCache(cacheDir, now::get));
+        LocalDate date = LocalDate.of(2020, 7, 20);
+
+        String first = service.fetch("Europe/Paris", date).get(5, TimeUnit.SECONDS);
+        String second = service.fetch("Europe/Paris", date).get(5, TimeUnit.SECONDS);
+        assertEquals(first, second);
+        assertTrue(first.contains("• 1969: First"));
+        assertEquals(1, requests.get());
+
+        // Once the TTL has passed the entry is revalidated, not downloaded again.
+        now.addAndGet(NewsService.ON_THIS_DAY_TTL_MILLIS + 1);
+        assertEquals(first, service.fetch("Europe/Paris", date).get(5, TimeUnit.SECONDS));
+        assertEquals(2, requests.get());
+        assertEquals(1, notModified.get());
+        service.shutdown();
+    }
+
+    public void testDiskCacheSurvivesRestart() throws Exception {
+        LocalDate date = LocalDate.of(2020, 7, 20);
+        NewsService first = newService(new HttpResponseCache(cacheDir, now::get));
+        String text = first.fetch("UTC", date).get(5, TimeUnit.SECONDS);
+        first.shutdown();
+
+        NewsService second = newService(new HttpResponseCache(cacheDir, now::get));
+        assertEquals(text, second.fetch("UTC", date).get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+        second.shutdown();
+    }
+
+    public void testConcurrentIdenticalFetchesShareOneRequest() throws Exception {
+        release = new CountDownLatch(1);
+        NewsService service = newService(new HttpResponseCache(null, now::get));
+        LocalDate date = LocalDate.of(2020, 7, 20);
+
+        List<CompletableFuture<String>> fetches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fetches.add(service.fetch("UTC", date));
+        }
+        release.countDown();
+        for (CompletableFuture<String> fetch : fetches) {
+            assertTrue(fetch.get(5, TimeUnit.SECONDS).contains("First"));
+        }
+        assertEquals(1, requests.get());
+        service.shutdown();
+    }
+
+    private NewsService newService(HttpResponseCache cache) {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new NewsService(new OkHttpClient(), cache, base + "/headlines/", base + "/onthisday/");
+    }
+
+    private void serveEvents(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = EVENTS_JSON.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
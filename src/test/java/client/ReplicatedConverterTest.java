@@ -0,0 +1,223 @@
+package client;
+
+import java.rmi.RemoteException;
+import java.rmi.ServerException;
+import java.rmi.registry.LocateRegistry;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+import server.ConversionEngine;
+import server.EndpointGroup;
+import server.RequestDispatcher;
+import server.RmiTestServer;
+import server.ServerConfig;
+import server.TimeZoneConverter;
+import server.TimeZoneConverterImpl;
+import server.TzData;
+
+public class ReplicatedConverterTest extends TestCase {
+
+    private static final int REPLICAS = 3;
+
+    private final List<RmiTestServer> registries = new ArrayList<>();
+    private final List<TimeZoneConverterImpl> servers = new ArrayList<>();
+    private final List<ReplicatedConverter.Endpoint> endpoints = new ArrayList<>();
+    private ReplicatedConverter converter;
+
+    @Override
+    protected void setUp() throws Exception {
+        for (int i = 0; i < REPLICAS; i++) {
+            RmiTestServer registry = RmiTestServer.start();
+            registries.add(registry);
+            servers.add(registry.bindConverter());
+            endpoints.add(ReplicatedConverter.Endpoint.parse(registry.address(RmiTestServer.DEFAULT_NAME), 1099));
+        }
+        converter = new ReplicatedConverter(endpoints, 50, 200, 20);
+        converter.connect();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        converter.close();
+        for (RmiTestServer registry : registries) {
+            registry.close();
+        }
+    }
+
+    public void testEndpointParsing() {
+        ReplicatedConverter.Endpoint endpoint = ReplicatedConverter.Endpoint.parse("example.org:1100/Converter-2",
+                1099);
+        assertEquals("example.org:1100/Converter-2", endpoint.toString());
+        assertEquals("example.org:1099/TimeZoneConverter",
+                ReplicatedConverter.Endpoint.parseList("example.org, other", 1099).get(0).toString());
+        assertEquals(2, ReplicatedConverter.Endpoint.parseList("a,b:2000/x", 1099).size());
+    }
+
+    public void testDiscoversIndexedEndpoints() throws Exception {
+        EndpointGroup group = EndpointGroup.export(new ConversionEngine(), RequestDispatcher.direct(), 2, 0, null);
+        group.bind(registries.get(0).getRegistry(), "Multi");
+        try (ReplicatedConverter multi = new ReplicatedConverter(
+                ReplicatedConverter.Endpoint.discover(registries.get(0).address("Multi-*"), 1099))) {
+            assertEquals(2, multi.getEndpoints().size());
+            multi.connect();
+            for (int i = 0; i < 4; i++) {
+                multi.convertTime("2024-01-01 00:00:00", "UTC", "UTC");
+            }
+            assertEquals(2, multi.getEndpoints().get(1).getCalls());
+        } finally {
+            group.unexport();
+        }
+    }
+
+    public void testSpreadsCallsOverReplicas() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            assertEquals("2024-01-01 05:30:00", converter.convertTime("2024-01-01 00:00:00", "UTC", "Asia/Kolkata"));
+        }
+        for (ReplicatedConverter.Endpoint endpoint : endpoints) {
+            assertEquals(10, endpoint.getCalls());
+            assertEquals(0, endpoint.getOutstanding());
+        }
+    }
+
+    public void testFailsOverAndRecovers() throws Exception {
+        registries.get(1).unexport(servers.get(1));
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals("2024-01-01 05:30:00", converter.convertTime("2024-01-01 00:00:00", "UTC", "Asia/Kolkata"));
+        }
+        assertFalse(endpoints.get(1).isHealthy());
+        // Out of rotation after the first failure (bar health checks).
+        assertTrue(endpoints.get(1).getCalls() <= 2);
+
+        servers.set(1, registries.get(1).bindConverter());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!endpoints.get(1).isHealthy() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("replica should be back in rotation", endpoints.get(1).isHealthy());
+        long before = endpoints.get(1).getCalls();
+        for (int i = 0; i < 30; i++) {
+            converter.convertTime("2024-01-01 00:00:00", "UTC", "Asia/Kolkata");
+        }
+        assertTrue(endpoints.get(1).getCalls() > before);
+    }
+
+    public void testOverloadedReplicaIsSkippedButStaysInRotation() throws Exception {
+        RequestDispatcher dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.PLATFORM, 1, 0);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try {
+                dispatcher.execute(() -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (RemoteException e) {
+                throw new AssertionError(e);
+            }
+        });
+        holder.start();
+        try {
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            TimeZoneConverterImpl saturated = new TimeZoneConverterImpl(new ConversionEngine(), dispatcher) {
+            };
+            registries.get(1).bind(RmiTestServer.DEFAULT_NAME, saturated);
+            try {
+                // Through the registry's remote stub, as the replicated converter does.
+                TimeZoneConverter stub = (TimeZoneConverter) LocateRegistry
+                        .getRegistry("127.0.0.1", registries.get(1).getPort()).lookup(RmiTestServer.DEFAULT_NAME);
+                stub.convertTime("2024-01-01 00:00:00", "UTC", "UTC");
+                fail("Expected the saturated replica to reject the call");
+            } catch (RemoteException e) {
+                assertTrue("wrapped by RMI: " + e, e instanceof ServerException);
+                assertTrue(ReplicatedConverter.isOverloaded(e));
+            }
+
+            List<ReplicatedConverter.Endpoint> fresh = freshEndpoints();
+            try (ReplicatedConverter replicated = connect(fresh)) {
+                for (int i = 0; i < 30; i++) {
+                    assertEquals("2024-01-01 05:30:00",
+                            replicated.convertTime("2024-01-01 00:00:00", "UTC", "Asia/Kolkata"));
+                }
+            }
+            assertTrue(fresh.get(1).getCalls() > 0);
+            assertTrue("rejected, not down", fresh.get(1).isHealthy());
+        } finally {
+            release.countDown();
+            holder.join();
+            dispatcher.shutdown();
+        }
+    }
+
+    public void testVersionComesFromTheReplicaThatConverted() throws Exception {
+        ConversionEngine changed = new ConversionEngine().withTzData(TzData.of("2099z",
+                Collections.<String, ZoneRules>singletonMap("Europe/London", ZoneRules.of(ZoneOffset.ofHours(5)))));
+        registries.get(1).bind(RmiTestServer.DEFAULT_NAME, new TimeZoneConverterImpl(changed) {
+        });
+
+        int changedResults = 0;
+        try (ReplicatedConverter replicated = connect(freshEndpoints())) {
+            for (int i = 0; i < 30; i++) {
+                ReplicatedConverter.VersionedResult versioned = replicated.convertTimeVersioned(
+                        "2024-07-01 12:00:00", "Europe/London", "UTC", 60_000);
+                boolean fromChanged = "2099z".equals(versioned.getTzDataVersion());
+                assertEquals(fromChanged ? "2024-07-01 07:00:00" : "2024-07-01 11:00:00", versioned.getResult());
+                changedResults += fromChanged ? 1 : 0;
+            }
+        }
+        assertEquals(10, changedResults);
+    }
+
+    public void testServerErrorsAreNotRetried() throws Exception {
+        try {
+            converter.convertTime("2024-01-01 00:00:00", "Not/AZone", "UTC");
+            fail("Expected RemoteException");
+        } catch (RemoteException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Error converting time"));
+        }
+        long total = 0;
+        for (ReplicatedConverter.Endpoint endpoint : endpoints) {
+            total += endpoint.getCalls();
+            assertTrue(endpoint.isHealthy());
+        }
+        assertEquals(1, total);
+    }
+
+    public void testFailsWhenNoReplicaIsReachable() throws Exception {
+        for (int i = 0; i < REPLICAS; i++) {
+            registries.get(i).unexport(servers.get(i));
+        }
+        try {
+            converter.convertTime("2024-01-01 00:00:00", "UTC", "UTC");
+            fail("Expected RemoteException");
+        } catch (RemoteException e) {
+            assertTrue(ConversionPipeline.isConnectionFailure(e));
+        }
+    }
+
+    /** Endpoints of their own, which look up whatever is bound now. */
+    private List<ReplicatedConverter.Endpoint> freshEndpoints() {
+        List<ReplicatedConverter.Endpoint> fresh = new ArrayList<>();
+        for (RmiTestServer registry : registries) {
+            fresh.add(ReplicatedConverter.Endpoint.parse(registry.address(RmiTestServer.DEFAULT_NAME), 1099));
+        }
+        return fresh;
+    }
+
+    private static ReplicatedConverter connect(List<ReplicatedConverter.Endpoint> endpoints) throws RemoteException {
+        ReplicatedConverter replicated = new ReplicatedConverter(endpoints, 50, 200, 20);
+        replicated.connect();
+        return replicated;
+    }
+}
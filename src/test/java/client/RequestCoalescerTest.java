@@ -0,0 +1,38 @@
+package client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+public class RequestCoalescerTest extends TestCase {
+
+    public void testBurstOfChangesRunsActionOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer(100, Runnable::run, runs::incrementAndGet);
+        try {
+            // "10:45 PM" typed one key at a time
+            for (int i = 0; i < 8; i++) {
+                coalescer.trigger();
+                Thread.sleep(10);
+            }
+            Thread.sleep(400);
+            assertEquals(1, runs.get());
+        } finally {
+            coalescer.shutdown();
+        }
+    }
+
+    public void testFlushRunsImmediatelyAndCancelsPending() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        RequestCoalescer coalescer = new RequestCoalescer(100, Runnable::run, runs::incrementAndGet);
+        try {
+            coalescer.trigger();
+            coalescer.flush();
+            assertEquals(1, runs.get());
+            Thread.sleep(300);
+            assertEquals(1, runs.get());
+        } finally {
+            coalescer.shutdown();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package client;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import server.ConversionEngine;
+import server.EndpointGroup;
+import server.RequestDispatcher;
+
+/**
+ * Launches the client {@code bench.runs} times (default 10) against an
+ * in-process server and reports the median and best time from JVM launch to
+ * the first frame and to the first conversion, as measured by
+ * {@link StartupTimer}. Run with:
+ *
+ * <pre>
+ * mvn -q -Pcds package
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=client.StartupBenchmark \
+ *     -Dbench.classpath="target/rmi-1.0-SNAPSHOT.jar:$(cat target/client.classpath)" \
+ *     -Dbench.cdsArchive=target/client.jsa
+ * </pre>
+ *
+ * (use ";" instead of ":" on Windows). The client JVMs use {@code bench.classpath} (default: this JVM's class
+ * path). If {@code bench.cdsArchive} names an existing AppCDS archive, every
+ * run is repeated with {@code -XX:SharedArchiveFile} for comparison; the
+ * archive only applies when the class path matches the one it was created
+ * with. Needs a display.
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.rmi.server.hostname", "127.0.0.1");
+        int runs = Integer.getInteger("bench.runs", 10);
+        String classpath = System.getProperty("bench.classpath", System.getProperty("java.class.path"));
+        String archive = System.getProperty("bench.cdsArchive");
+
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Registry registry = LocateRegistry.createRegistry(port);
+        EndpointGroup group = EndpointGroup.export(new ConversionEngine(), RequestDispatcher.direct(), 1, 0, null);
+        group.bind(registry, ConversionPipeline.BINDING_NAME);
+        try {
+            System.out.printf("%-10s %18s %18s %20s %20s%n", "mode", "firstFrame median", "firstFrame best",
+                    "firstConversion med", "firstConversion best");
+            report("default", measure(runs, classpath, port, Collections.emptyList()));
+            if (archive != null && new File(archive).isFile()) {
+                report("appcds", measure(runs, classpath, port, List.of("-XX:SharedArchiveFile=" + archive)));
+            }
+        } finally {
+            group.unexport();
+            UnicastRemoteObject.unexportObject(registry, true);
+        }
+    }
+
+    private static Map<String, List<Long>> measure(int runs, String classpath, int port, List<String> jvmArgs)
+            throws Exception {
+        Map<String, List<Long>> samples = new HashMap<>();
+        for (int i = 0; i < runs; i++) {
+            List<String> command = new ArrayList<>();
+            command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+            command.addAll(jvmArgs);
+            command.addAll(Arrays.asList(
+                    "-Dclient.startup.report=true",
+                    "-Dclient.startup.exitAfter=" + StartupTimer.FIRST_CONVERSION,
+                    "-Dclient.autoConnect=true",
+                    "-Dclient.host=127.0.0.1",
+                    "-Dclient.port=" + port,
+                    "-Dclient.cacheDir=" + System.getProperty("java.io.tmpdir"),
+                    "-cp", classpath,
+                    "client.AppLauncher"));
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            try (BufferedReader output = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    parse(line, samples);
+                }
+            }
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("Client did not exit after its first conversion");
+            }
+        }
+        return samples;
+    }
+
+    /** Collects {@code startup <milestone>=<millis>ms} lines. */
+    private static void parse(String line, Map<String, List<Long>> samples) {
+        if (!line.startsWith("startup ") || !line.endsWith("ms")) {
+            return;
+        }
+        String[] milestone = line.substring("startup ".length(), line.length() - 2).split("=");
+        samples.computeIfAbsent(milestone[0], key -> new ArrayList<>()).add(Long.parseLong(milestone[1]));
+    }
+
+    private static void report(String mode, Map<String, List<Long>> samples) {
+        List<Long> frame = samples.getOrDefault(StartupTimer.FIRST_FRAME, Collections.emptyList());
+        List<Long> conversion = samples.getOrDefault(StartupTimer.FIRST_CONVERSION, Collections.emptyList());
+        System.out.printf("%-10s %16sms %16sms %18sms %18sms%n", mode, median(frame), best(frame),
+                median(conversion), best(conversion));
+    }
+
+    private static String median(List<Long> values) {
+        if (values.isEmpty()) {
+            return "-";
+        }
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return String.valueOf(sorted.get(sorted.size() / 2));
+    }
+
+    private static String best(List<Long> values) {
+        return values.isEmpty() ? "-" : String.valueOf(Collections.min(values));
+    }
+}
@@ -0,0 +1,205 @@
+package client;
+
+import java.rmi.RemoteException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import server.ConversionEngine;
+import server.ConversionRequest;
+import server.ConversionRequestList;
+import server.ConversionResult;
+import server.RmiTestServer;
+import server.TimeZoneConverterImpl;
+
+public class WorldClockTest extends TestCase {
+
+    private final AtomicInteger batches = new AtomicInteger();
+    private volatile Class<?> batchType;
+    private final List<WorldClock.Update> updates = new ArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    private RmiTestServer registry;
+    private TimeZoneConverterImpl server;
+    private ConversionPipeline pipeline;
+    private WorldClock worldClock;
+
+    @Override
+    protected void setUp() throws Exception {
+        registry = RmiTestServer.start();
+        server = new TimeZoneConverterImpl(new ConversionEngine()) {
+            @Override
+            public List<ConversionResult> convertBatch(List<ConversionRequest> requests) throws RemoteException {
+                batches.incrementAndGet();
+                batchType = requests.getClass();
+                return super.convertBatch(requests);
+            }
+        };
+        registry.bind(ConversionPipeline.BINDING_NAME, server);
+        pipeline = new ConversionPipeline(Runnable::run, 0, 60_000, new Backoff(10, 50));
+        CompletableFuture<String> connected = new CompletableFuture<>();
+        pipeline.connect("127.0.0.1", registry.getPort(), connected::complete, connected::completeExceptionally);
+        connected.get(5, TimeUnit.SECONDS);
+
+        worldClock = new WorldClock(pipeline, Runnable::run, clock);
+        worldClock.setListener(new WorldClock.Listener() {
+            @Override
+            public void updated(WorldClock.Update update) {
+                updates.add(update);
+            }
+
+            @Override
+            public void failed(String message) {
+                fail(message);
+            }
+        });
+        worldClock.setSourceZone("UTC");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        worldClock.shutdown();
+        pipeline.shutdown();
+        registry.close();
+    }
+
+    public void testOneBatchCallPerRefresh() throws Exception {
+        List<String> zones = new ArrayList<>();
+        for (String zone : ZoneId.getAvailableZoneIds()) {
+            if (zones.size() < 100) {
+                zones.add(zone);
+            }
+        }
+        worldClock.setZones(zones);
+        worldClock.refresh();
+        clock.advanceSeconds(1);
+        worldClock.refresh();
+
+        assertEquals(2, batches.get());
+        assertEquals(ConversionRequestList.class, batchType);
+        assertEquals(2, updates.size());
+        assertEquals(100, updates.get(1).getRows().size());
+        assertEquals(ConversionPipeline.Source.SERVER, updates.get(1).getSource());
+    }
+
+    public void testOnlyChangedRowsAreReported() throws Exception {
+        worldClock.setZones(Arrays.asList("Asia/Kolkata", "Bad/Zone", "Asia/Tokyo"));
+        worldClock.refresh();
+        WorldClock.Update first = updates.get(0);
+        assertTrue(first.isStructural());
+        assertEquals(3, first.getChanged().length);
+        assertEquals("2024-01-01 05:30:00", first.getRows().get(0).getTime());
+        assertNull(first.getRows().get(1).getTime());
+        assertNotNull(first.getRows().get(1).getError());
+        assertEquals("2024-01-01 09:00:00", first.getRows().get(2).getTime());
+
+        // Same second: nothing changed, so the listener is not called
+        worldClock.refresh();
+        assertEquals(1, updates.size());
+
+        // The failing zone stays the same; only the others moved on
+        clock.advanceSeconds(1);
+        worldClock.refresh();
+        WorldClock.Update second = updates.get(1);
+        assertFalse(second.isStructural());
+        assertTrue(Arrays.equals(new int[] {0, 2}, second.getChanged()));
+        assertEquals("2024-01-01 05:30:01", second.getRows().get(0).getTime());
+    }
+
+    public void testZoneChangesReplaceAllRows() throws Exception {
+        worldClock.setZones(Arrays.asList("UTC", "Asia/Tokyo"));
+        worldClock.refresh();
+        worldClock.removeZone("UTC");
+        worldClock.refresh();
+
+        WorldClock.Update update = updates.get(1);
+        assertTrue(update.isStructural());
+        assertEquals(1, update.getRows().size());
+        assertEquals("Asia/Tokyo", update.getRows().get(0).getZone());
+    }
+
+    public void testConvertsLocallyWhileOffline() throws Exception {
+        worldClock.setZones(Arrays.asList("Asia/Kolkata"));
+        worldClock.refresh();
+        registry.unexport(server);
+        worldClock.refresh();
+
+        assertEquals(1, batches.get());
+        // The rows are unchanged, but the source is reported
+        WorldClock.Update update = updates.get(1);
+        assertEquals(ConversionPipeline.Source.LOCAL, update.getSource());
+        assertEquals(0, update.getChanged().length);
+        assertEquals("2024-01-01 05:30:00", update.getRows().get(0).getTime());
+        assertTrue(pipeline.isReconnecting());
+    }
+
+    public void testTicksInTheBackground() throws Exception {
+        CompletableFuture<WorldClock.Update> ticked = new CompletableFuture<>();
+        worldClock.setListener(new WorldClock.Listener() {
+            @Override
+            public void updated(WorldClock.Update update) {
+                ticked.complete(update);
+            }
+
+            @Override
+            public void failed(String message) {
+                ticked.completeExceptionally(new RemoteException(message));
+            }
+        });
+        worldClock.setZones(Arrays.asList("Asia/Tokyo"));
+        worldClock.start(50);
+        WorldClock.Update update = ticked.get(5, TimeUnit.SECONDS);
+        worldClock.stop();
+        assertEquals("2024-01-01 09:00:00", update.getRows().get(0).getTime());
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advanceSeconds(long seconds) {
+            instant = instant.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            MutableClock outer = this;
+            return new Clock() {
+                @Override
+                public ZoneId getZone() {
+                    return zone;
+                }
+
+                @Override
+                public Clock withZone(ZoneId other) {
+                    return outer.withZone(other);
+                }
+
+                @Override
+                public Instant instant() {
+                    return outer.instant();
+                }
+            };
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
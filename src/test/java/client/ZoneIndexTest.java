@@ -0,0 +1,32 @@
+package client;
+
+import java.time.ZoneId;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ZoneIndexTest extends TestCase {
+
+    public void testListsEveryZoneSorted() {
+        List<String> zones = ZoneIndex.all();
+        assertEquals(ZoneId.getAvailableZoneIds().size(), zones.size());
+        for (int i = 1; i < zones.size(); i++) {
+            assertTrue(zones.get(i - 1).compareTo(zones.get(i)) < 0);
+        }
+        assertSame(zones, ZoneIndex.all());
+        assertTrue(ZoneIndex.isZone("Europe/Paris"));
+        assertFalse(ZoneIndex.isZone("Europe/Nowhere"));
+    }
+
+    public void testSearchIsCaseInsensitiveAndMatchesSpacesToUnderscores() {
+        assertTrue(ZoneIndex.search("new york").contains("America/New_York"));
+        assertTrue(ZoneIndex.search("NEW_YORK").contains("America/New_York"));
+        assertTrue(ZoneIndex.matches("America/New_York", "amer york"));
+        assertFalse(ZoneIndex.matches("America/New_York", "europe york"));
+    }
+
+    public void testBlankQueryMatchesEverything() {
+        assertEquals(ZoneIndex.all().size(), ZoneIndex.search("  ").size());
+        assertTrue(ZoneIndex.matches("UTC", null));
+    }
+}
@@ -0,0 +1,72 @@
+package server;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Compares per-call allocation and time of the original inline conversion
+ * with {@link ConversionEngine}. Run with:
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=server.ConversionEngineBenchmark
+ * </pre>
+ */
+public class ConversionEngineBenchmark {
+
+    private static final String[][] INPUTS = {
+            { "2024-03-10 02:30:00", "America/New_York", "Europe/London" },
+            { "2024-06-01 12:00:00", "Asia/Kolkata", "UTC" },
+            { "2024-10-27 01:30:00", "Europe/Berlin", "Australia/Sydney" },
+            { "2024-12-31 23:59:59", "Pacific/Auckland", "America/Los_Angeles" },
+    };
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) {
+        ConversionEngine engine = new ConversionEngine();
+
+        run("legacy (inline)", ConversionEngineBenchmark::legacyConvert);
+        run("ConversionEngine", engine::convert);
+        System.out.println(engine.getZoneCache());
+    }
+
+    private static String legacyConvert(String time, String fromZone, String toZone) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        LocalDateTime localDateTime = LocalDateTime.parse(time, formatter);
+        ZonedDateTime fromZonedDateTime = localDateTime.atZone(ZoneId.of(fromZone));
+        ZonedDateTime toZonedDateTime = fromZonedDateTime.withZoneSameInstant(ZoneId.of(toZone));
+        return toZonedDateTime.format(formatter);
+    }
+
+    private static void run(String name, Converter converter) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            String[] in = INPUTS[i & 3];
+            sink += converter.convert(in[0], in[1], in[2]).length();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            String[] in = INPUTS[i & 3];
+            sink += converter.convert(in[0], in[1], in[2]).length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        System.out.printf("%-18s %8.1f ns/call %8.1f bytes/call (sink=%d)%n", name,
+                (double) elapsed / ITERATIONS, (double) bytes / ITERATIONS, sink);
+    }
+
+    @FunctionalInterface
+    private interface Converter {
+        String convert(String time, String fromZone, String toZone);
+    }
+}
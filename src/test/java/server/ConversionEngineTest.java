@@ -0,0 +1,85 @@
+package server;
+
+import java.rmi.RemoteException;
+
+import junit.framework.TestCase;
+
+public class ConversionEngineTest extends TestCase {
+
+    public void testConvertsAcrossZones() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        assertEquals("2024-01-15 17:00:00",
+                converter.convertTime("2024-01-15 12:00:00", "America/New_York", "UTC"));
+        assertEquals("2024-07-15 16:00:00",
+                converter.convertTime("2024-07-15 12:00:00", "America/New_York", "UTC"));
+    }
+
+    public void testZoneCacheCountsHitsAndMisses() {
+        ConversionEngine engine = new ConversionEngine();
+        engine.convert("2024-01-15 12:00:00", "Europe/Paris", "UTC");
+        engine.convert("2024-01-15 12:00:00", "Europe/Paris", "UTC");
+
+        ZoneCache cache = engine.getZoneCache();
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+
+    public void testInvalidZoneKeepsOriginalMessage() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        String expected = null;
+        try {
+            java.time.ZoneId.of("Mars/Olympus");
+            fail("Expected an invalid zone");
+        } catch (java.time.DateTimeException e) {
+            expected = "Error converting time: " + e.getMessage();
+        }
+        for (int i = 0; i < 3; i++) {
+            try {
+                converter.convertTime("2024-01-15 12:00:00", "Mars/Olympus", "UTC");
+                fail("Expected RemoteException");
+            } catch (RemoteException e) {
+                assertEquals(expected, e.getMessage());
+            }
+        }
+        ZoneCache cache = converter.getEngine().getZoneCache();
+        assertEquals(1, cache.negativeSize());
+        assertEquals(2, cache.getNegativeHits());
+    }
+
+    public void testNegativeCacheThrowsNewExceptionEachTime() {
+        ZoneCache cache = new ZoneCache();
+        java.time.DateTimeException first = null;
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.resolve("Mars/Olympus");
+                fail("Expected an invalid zone");
+            } catch (java.time.DateTimeException e) {
+                assertTrue(e instanceof java.time.zone.ZoneRulesException);
+                if (first == null) {
+                    first = e;
+                } else {
+                    assertNotSame(first, e);
+                    assertEquals(first.getMessage(), e.getMessage());
+                }
+            }
+        }
+        assertEquals(1, cache.getNegativeHits());
+    }
+
+    public void testValidationMessagesUnchanged() {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        try {
+            converter.convertTime(" ", "UTC", "UTC");
+            fail("Expected RemoteException");
+        } catch (RemoteException e) {
+            assertEquals("Time string cannot be null or empty", e.getMessage());
+        }
+        try {
+            converter.convertTime("2024-01-15 12:00:00", "UTC", null);
+            fail("Expected RemoteException");
+        } catch (RemoteException e) {
+            assertEquals("To zone cannot be null or empty", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package server;
+
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import junit.framework.TestCase;
+
+public class EndpointGroupTest extends TestCase {
+
+    public void testEndpointsAreBoundUnderIndexedNamesOnSeparatePorts() throws Exception {
+        try (RmiTestServer server = RmiTestServer.start()) {
+            EndpointGroup group = EndpointGroup.export(new ConversionEngine(), RequestDispatcher.direct(), 3, 0, null);
+            try {
+                group.bind(server.getRegistry(), "TimeZoneConverter");
+
+                String[] names = server.getRegistry().list();
+                Arrays.sort(names);
+                assertEquals(Arrays.asList("TimeZoneConverter", "TimeZoneConverter-0", "TimeZoneConverter-1",
+                        "TimeZoneConverter-2"), Arrays.asList(names));
+                assertEquals(3, new HashSet<>(group.getPorts()).size());
+                assertFalse(group.getPorts().contains(0));
+
+                Registry client = LocateRegistry.getRegistry("127.0.0.1", server.getPort());
+                for (String name : names) {
+                    TimeZoneConverter stub = (TimeZoneConverter) client.lookup(name);
+                    assertEquals("2024-01-01 09:00:00", stub.convertTime("2024-01-01 00:00:00", "UTC", "Asia/Tokyo"));
+                }
+            } finally {
+                group.unexport();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package server;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Exhaustive comparison of the table-based engine against plain java.time
+ * ({@code atZone(from).withZoneSameInstant(to)}) for every available zone,
+ * concentrated around each transition so that every DST gap and overlap in
+ * the window is exercised, plus random times inside and outside the window.
+ */
+public class OffsetTableTest extends TestCase {
+
+    private static final int FROM_YEAR = 1900;
+    private static final int TO_YEAR = 2050;
+    private static final long[] DELTAS = { -7201, -3601, -3600, -1801, -1, 0, 1, 1799, 1800, 3599, 3600, 7200 };
+
+    private final ConversionEngine engine = new ConversionEngine(new ZoneCache(), new ZoneTable(),
+            new OffsetTables(FROM_YEAR, TO_YEAR), null);
+
+    public void testMatchesZoneRulesForAllZones() {
+        List<ZoneId> zones = new ArrayList<>();
+        for (String id : ZoneId.getAvailableZoneIds()) {
+            zones.add(ZoneId.of(id));
+        }
+        ZoneId[] targets = { ZoneOffset.UTC, ZoneId.of("America/New_York"), ZoneId.of("Australia/Lord_Howe") };
+        Random random = new Random(42);
+        long windowStart = LocalDateTime.of(FROM_YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long windowEnd = LocalDateTime.of(TO_YEAR + 1, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long checked = 0;
+
+        for (ZoneId zone : zones) {
+            OffsetTable table = engine.getOffsetTables().table(zone);
+            assertTrue(zone + " table unusable", table.isUsable());
+            for (int k = 0; k < table.transitionCount(); k++) {
+                long instant = table.transitionInstant(k);
+                long before = instant + zone.getRules().getOffset(Instant.ofEpochSecond(instant - 1)).getTotalSeconds();
+                long after = instant + zone.getRules().getOffset(Instant.ofEpochSecond(instant)).getTotalSeconds();
+                // Wall-clock times around the transition as seen in both the old
+                // and the new offset, which covers the whole gap or overlap.
+                for (long delta : DELTAS) {
+                    for (ZoneId target : targets) {
+                        checked += compare(before + delta, zone, target);
+                        checked += compare(after + delta, zone, target);
+                        checked += compare(before + delta, target, zone);
+                    }
+                }
+            }
+            for (int i = 0; i < 50; i++) {
+                long local = windowStart - 86400L * 365 * 5
+                        + (long) (random.nextDouble() * (windowEnd - windowStart + 86400L * 365 * 10));
+                checked += compare(local, zone, ZoneOffset.UTC);
+                checked += compare(local, ZoneOffset.UTC, zone);
+            }
+        }
+        assertTrue(checked > 100_000);
+    }
+
+    public void testStringConversionMatchesAcrossDstGapAndOverlap() {
+        String[][] cases = {
+                { "2024-03-10 02:30:00", "America/New_York", "UTC" },
+                { "2024-11-03 01:30:00", "America/New_York", "UTC" },
+                { "2024-03-31 02:30:00", "Europe/Berlin", "Asia/Tokyo" },
+                { "2024-10-27 02:30:00", "Europe/Berlin", "Asia/Tokyo" },
+                { "2024-04-07 02:30:00", "Australia/Lord_Howe", "America/Los_Angeles" },
+                { "1850-06-01 12:00:00", "Europe/London", "Asia/Kolkata" },
+                { "2300-06-01 12:00:00", "Europe/London", "Asia/Kolkata" },
+        };
+        for (String[] c : cases) {
+            LocalDateTime local = LocalDateTime.parse(c[0], ConversionEngine.FORMATTER);
+            String expected = local.atZone(ZoneId.of(c[1])).withZoneSameInstant(ZoneId.of(c[2]))
+                    .format(ConversionEngine.FORMATTER);
+            assertEquals(expected, engine.convert(c[0], c[1], c[2]));
+        }
+    }
+
+    private int compare(long localSecond, ZoneId from, ZoneId to) {
+        LocalDateTime local = LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC);
+        LocalDateTime expected = local.atZone(from).withZoneSameInstant(to).toLocalDateTime();
+        LocalDateTime actual = engine.convert(local, from, to);
+        if (!expected.equals(actual)) {
+            fail(local + " " + from + " -> " + to + ": expected " + expected + " but was " + actual);
+        }
+        return 1;
+    }
+}
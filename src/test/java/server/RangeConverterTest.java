@@ -0,0 +1,140 @@
+package server;
+
+import java.rmi.RemoteException;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class RangeConverterTest extends TestCase {
+
+    private static final List<String> TARGETS = Arrays.asList("UTC", "Europe/London", "Australia/Sydney");
+
+    public void testSlotsMatchZonedDateTimeAcrossDstChange() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        // New York springs forward at 2024-03-10 02:00 local time.
+        RangeRequest request = new RangeRequest("2024-03-09 22:00:00", "2024-03-10 06:00:00", 900,
+                "America/New_York", TARGETS);
+
+        RangePage page = converter.convertRange(request, 0, 1000);
+
+        // 8 wall-clock hours minus the skipped one: 7 hours of 15-minute slots.
+        assertEquals(29, page.getTotalSlots());
+        assertTrue(page.isLast());
+        ZonedDateTime expected = LocalDateTime.of(2024, 3, 9, 22, 0).atZone(ZoneId.of("America/New_York"));
+        int marked = 0;
+        for (RangeSlot slot : page.getSlots()) {
+            assertEquals(expected.toEpochSecond(), slot.getEpochSecond());
+            assertEquals(expected.toLocalDateTime().format(ConversionEngine.FORMATTER), slot.getSourceTime());
+            for (int t = 0; t < TARGETS.size(); t++) {
+                assertEquals(expected.withZoneSameInstant(ZoneId.of(TARGETS.get(t))).toLocalDateTime()
+                        .format(ConversionEngine.FORMATTER), slot.getTargetTime(t));
+                assertFalse(slot.isTargetTransition(t));
+            }
+            if (slot.isSourceTransition()) {
+                marked++;
+                assertEquals("2024-03-10 03:00:00", slot.getSourceTime());
+            }
+            expected = expected.plusSeconds(900);
+        }
+        assertEquals(1, marked);
+    }
+
+    public void testPagesConcatenateToTheWholeRange() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        RangeRequest request = new RangeRequest("2024-03-30 00:00:00", "2024-04-08 00:00:00", 3600,
+                "Europe/Berlin", TARGETS);
+        List<RangeSlot> whole = converter.convertRange(request, 0, 10_000).getSlots();
+
+        List<RangeSlot> paged = new ArrayList<>();
+        int next = 0;
+        while (next >= 0) {
+            RangePage page = converter.convertRange(request, next, 7);
+            paged.addAll(page.getSlots());
+            next = page.getNextSlot();
+        }
+
+        assertEquals(whole.size(), paged.size());
+        int transitions = 0;
+        for (int i = 0; i < whole.size(); i++) {
+            assertEquals(whole.get(i).toString(), paged.get(i).toString());
+            if (whole.get(i).isTransition()) {
+                transitions++;
+            }
+        }
+        // Berlin and London both move to summer time on 31 March, Sydney
+        // leaves it on 7 April.
+        assertEquals(2, transitions);
+    }
+
+    public void testStreamDeliversPagesInOrderAndCanStop() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        RangeRequest request = new RangeRequest("2024-01-01 00:00:00", "2024-01-01 23:59:00", 60, "Asia/Kolkata",
+                TARGETS);
+        List<RangePage> pages = new ArrayList<>();
+
+        int delivered = converter.streamRange(request, 500, page -> pages.add(page));
+
+        assertEquals(1440, delivered);
+        assertEquals(3, pages.size());
+        assertEquals(1000, pages.get(2).getFirstSlot());
+        assertTrue(pages.get(2).isLast());
+
+        pages.clear();
+        delivered = converter.streamRange(request, 100, page -> pages.size() < 1 && pages.add(page));
+        assertEquals(200, delivered);
+    }
+
+    public void testStreamDoesNotHoldPermitDuringCallback() throws Exception {
+        RequestDispatcher dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.PLATFORM, 1, 0);
+        TimeZoneConverterImpl converter = new TimeZoneConverterImpl(new ConversionEngine(), dispatcher);
+        try {
+            RangeRequest request = new RangeRequest("2024-01-01 00:00:00", "2024-01-01 00:59:00", 60, "UTC",
+                    TARGETS);
+            List<String> converted = new ArrayList<>();
+
+            // The only permit is free again while the page is being delivered
+            int delivered = converter.streamRange(request, 20,
+                    page -> converted.add(converter.convertTime("2024-01-01 00:00:00", "UTC", "Asia/Tokyo")));
+
+            assertEquals(60, delivered);
+            assertEquals(3, converted.size());
+            assertEquals(0, dispatcher.getRejected());
+        } finally {
+            UnicastRemoteObject.unexportObject(converter, true);
+            dispatcher.shutdown();
+        }
+    }
+
+    public void testInvalidRequestsAreRejected() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        assertRejected(converter, new RangeRequest("2024-01-02 00:00:00", "2024-01-01 00:00:00", 60, "UTC", TARGETS),
+                "Range end is before range start");
+        assertRejected(converter, new RangeRequest("2024-01-01 00:00:00", "2024-01-02 00:00:00", 0, "UTC", TARGETS),
+                "Step must be at least one second");
+        assertRejected(converter, new RangeRequest("2024-01-01 00:00:00", "2024-12-31 00:00:00", 1, "UTC", TARGETS),
+                "Range too large: ");
+        assertRejected(converter, new RangeRequest("2024-01-01 00:00:00", "2024-01-02 00:00:00", 60, "Not/AZone",
+                TARGETS), "Error converting time: ");
+        assertRejected(converter, new RangeRequest("2024-01-01 00:00:00", "2024-01-02 00:00:00", 60, "UTC", null),
+                "Target zones cannot be null or empty");
+        for (String blank : new String[] {null, "", " "}) {
+            assertRejected(converter, new RangeRequest("2024-01-01 00:00:00", "2024-01-02 00:00:00", 60, "UTC",
+                    Arrays.asList("Asia/Tokyo", blank)), "Target zone cannot be null or empty");
+        }
+    }
+
+    private static void assertRejected(TimeZoneConverterImpl converter, RangeRequest request, String message) {
+        try {
+            converter.convertRange(request, 0, 10);
+            fail("Expected RemoteException for " + request);
+        } catch (RemoteException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package server;
+
+import java.rmi.RemoteException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class RequestDispatcherTest extends TestCase {
+
+    public void testRejectsWhenConcurrencyAndQueueAreFull() throws Exception {
+        for (ServerConfig.ExecutorMode mode : new ServerConfig.ExecutorMode[] { ServerConfig.ExecutorMode.VIRTUAL,
+                ServerConfig.ExecutorMode.PLATFORM }) {
+            RequestDispatcher dispatcher = RequestDispatcher.create(mode, 1, 1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(1);
+            ExecutorService callers = Executors.newFixedThreadPool(2);
+            try {
+                // One call running, one queued: the third must bounce.
+                callers.submit(() -> dispatcher.execute(() -> {
+                    started.countDown();
+                    await(release);
+                    return null;
+                }));
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                callers.submit(() -> dispatcher.execute(() -> null));
+                waitForAccepted(dispatcher, 2);
+
+                try {
+                    dispatcher.execute(() -> "too many");
+                    fail(mode + ": expected ServerOverloadedException");
+                } catch (ServerOverloadedException e) {
+                    assertEquals(1, dispatcher.getRejected());
+                }
+            } finally {
+                release.countDown();
+                callers.shutdown();
+                assertTrue(callers.awaitTermination(5, TimeUnit.SECONDS));
+            }
+            assertEquals("ok", dispatcher.execute(() -> "ok"));
+            dispatcher.shutdown();
+        }
+    }
+
+    public void testInterruptedCallerDoesNotFreeSlotOfRunningCall() throws Exception {
+        RequestDispatcher dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.PLATFORM, 1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        try {
+            // A call that ignores interrupts, like one blocked in I/O
+            Future<?> caller = callers.submit(() -> dispatcher.execute(() -> {
+                started.countDown();
+                while (true) {
+                    try {
+                        release.await();
+                        return null;
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            caller.cancel(true);
+
+            // The call still runs, so its slot is still taken
+            Thread.sleep(50);
+            try {
+                dispatcher.execute(() -> "too many");
+                fail("Expected ServerOverloadedException");
+            } catch (ServerOverloadedException expected) {
+            }
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            String result = null;
+            while (result == null && System.nanoTime() < deadline) {
+                try {
+                    result = dispatcher.execute(() -> "ok");
+                } catch (ServerOverloadedException stillRunning) {
+                    Thread.sleep(5);
+                }
+            }
+            assertEquals("ok", result);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            dispatcher.shutdown();
+        }
+    }
+
+    public void testRemoteExceptionsPassThroughUnchanged() {
+        RequestDispatcher dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.VIRTUAL, 4, 4);
+        try {
+            dispatcher.execute(() -> {
+                throw new RemoteException("From zone cannot be null or empty");
+            });
+            fail("Expected RemoteException");
+        } catch (RemoteException e) {
+            assertEquals("From zone cannot be null or empty", e.getMessage());
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) throws RemoteException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RemoteException("interrupted");
+        }
+    }
+
+    private static void waitForAccepted(RequestDispatcher dispatcher, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.getAccepted() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, dispatcher.getAccepted());
+    }
+}
@@ -0,0 +1,97 @@
+package server;
+
+import java.util.Collections;
+
+import junit.framework.TestCase;
+
+public class ResultCacheTest extends TestCase {
+
+    public void testCachedEngineGivesSameResults() {
+        ResultCache cache = new ResultCache(100);
+        ConversionEngine cached = new ConversionEngine(new ZoneCache(), new ZoneTable(), new OffsetTables(), cache);
+        ConversionEngine plain = new ConversionEngine();
+
+        for (int round = 0; round < 3; round++) {
+            assertEquals(plain.convert("2024-03-10 02:30:00", "America/New_York", "UTC"),
+                    cached.convert("2024-03-10 02:30:00", "America/New_York", "UTC"));
+            assertEquals(plain.convert("2024-10-27 01:30:00", "Europe/London", "Asia/Tokyo"),
+                    cached.convert("2024-10-27 01:30:00", "Europe/London", "Asia/Tokyo"));
+        }
+        assertEquals(2, cache.getMisses());
+        assertEquals(4, cache.getHits());
+        assertEquals(4.0 / 6, cache.getHitRatio(), 1e-9);
+    }
+
+    public void testEvictsLeastRecentlyUsed() {
+        ResultCache cache = new ResultCache(1);
+        cache.get("a", "UTC", "UTC", 1);
+        cache.put("a", "UTC", "UTC", 1, "A");
+        cache.put("b", "UTC", "UTC", 1, "B");
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("a", "UTC", "UTC", 1));
+        assertEquals("B", cache.get("b", "UTC", "UTC", 1));
+    }
+
+    public void testNeverHoldsMoreThanMaxEntries() {
+        for (int max : new int[] {1, 15, 17, 31, 100}) {
+            ResultCache cache = new ResultCache(max);
+            for (int i = 0; i < max * 10; i++) {
+                cache.put("t" + i, "UTC", "UTC", 1, "r" + i);
+            }
+            assertEquals(max, cache.size());
+        }
+    }
+
+    public void testLateResultOfReplacedGenerationIsNotServed() {
+        ResultCache cache = new ResultCache(10);
+        assertNull(cache.get("a", "UTC", "UTC", 1));
+        // A call under generation 2 starts, then an old generation 1 call finishes
+        assertNull(cache.get("b", "UTC", "UTC", 2));
+        cache.put("a", "UTC", "UTC", 1, "stale");
+        assertNull(cache.get("a", "UTC", "UTC", 2));
+
+        // A straggler under generation 1 does not switch the cache back and clear it
+        cache.put("b", "UTC", "UTC", 2, "B");
+        assertNull(cache.get("b", "UTC", "UTC", 1));
+        assertEquals("B", cache.get("b", "UTC", "UTC", 2));
+        assertEquals(1, cache.getInvalidations());
+
+        // Nor does an old result replace the current one
+        cache.put("b", "UTC", "UTC", 1, "old B");
+        assertEquals("B", cache.get("b", "UTC", "UTC", 2));
+    }
+
+    public void testRollbackToEarlierVersionIsCachedAgain() throws Exception {
+        ConversionEngine engine = new ConversionEngine(new ZoneCache(), new ZoneTable(), new OffsetTables(),
+                new ResultCache(10));
+        ResultCache cache = engine.getResultCache();
+        TzData a = TzData.of("2099a", Collections.emptyMap());
+        TzData b = TzData.of("2099b", Collections.emptyMap());
+        TzData aAgain = TzData.of("2099a", Collections.emptyMap());
+        assertTrue(aAgain.getGeneration() > b.getGeneration());
+
+        for (TzData data : new TzData[] {a, b, aAgain}) {
+            ConversionEngine current = engine.withTzData(data);
+            current.convert("2024-06-01 12:00:00", "Europe/London", "UTC");
+            current.convert("2024-06-01 12:00:00", "Europe/London", "UTC");
+        }
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getInvalidations());
+        assertEquals(aAgain.getGeneration(), cache.getGeneration());
+    }
+
+    public void testNewGenerationInvalidates() {
+        ResultCache cache = new ResultCache(10);
+        cache.get("a", "UTC", "UTC", 1);
+        cache.put("a", "UTC", "UTC", 1, "A");
+        assertEquals("A", cache.get("a", "UTC", "UTC", 1));
+
+        assertNull(cache.get("a", "UTC", "UTC", 2));
+        assertEquals(1, cache.getInvalidations());
+        // A result computed under the old generation is not stored any more.
+        cache.put("a", "UTC", "UTC", 1, "stale");
+        assertNull(cache.get("a", "UTC", "UTC", 2));
+    }
+}
@@ -0,0 +1,97 @@
+package server;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.rmi.NoSuchObjectException;
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.RMIServerSocketFactory;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An RMI registry on a free loopback port for tests, and the objects bound in
+ * it. The registry listens on port 0 and reports the port the OS picked, so
+ * there is no window in which another process can take it.
+ */
+public final class RmiTestServer implements AutoCloseable {
+
+    public static final String DEFAULT_NAME = "TimeZoneConverter";
+
+    private final Registry registry;
+    private final int port;
+    private final List<Remote> exported = new ArrayList<>();
+
+    private RmiTestServer(Registry registry, int port) {
+        this.registry = registry;
+        this.port = port;
+    }
+
+    public static RmiTestServer start() throws RemoteException {
+        System.setProperty("java.rmi.server.hostname", "127.0.0.1");
+        PortRecordingSocketFactory factory = new PortRecordingSocketFactory();
+        Registry registry = LocateRegistry.createRegistry(0, null, factory);
+        return new RmiTestServer(registry, factory.port);
+    }
+
+    public Registry getRegistry() {
+        return registry;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /** {@code 127.0.0.1:<port>/<name>}, as understood by {@link client.ReplicatedConverter.Endpoint#parse}. */
+    public String address(String name) {
+        return "127.0.0.1:" + port + "/" + name;
+    }
+
+    /** Binds a new {@link TimeZoneConverterImpl} under {@link #DEFAULT_NAME}. */
+    public TimeZoneConverterImpl bindConverter() throws RemoteException {
+        return bind(DEFAULT_NAME, TimeZoneConverterImpl.createInstance());
+    }
+
+    /** Binds {@code object}, replacing whatever was bound under {@code name}; it is unexported on close. */
+    public <T extends Remote> T bind(String name, T object) throws RemoteException {
+        registry.rebind(name, object);
+        synchronized (exported) {
+            exported.add(object);
+        }
+        return object;
+    }
+
+    /** Unexports {@code object} straight away, leaving its stale stub in the registry. */
+    public void unexport(Remote object) {
+        try {
+            UnicastRemoteObject.unexportObject(object, true);
+        } catch (NoSuchObjectException alreadyUnexported) {
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (exported) {
+            for (Remote object : exported) {
+                unexport(object);
+            }
+            exported.clear();
+        }
+        unexport(registry);
+    }
+
+    /** Not equal to any other instance, so the registry gets a listening socket of its own. */
+    private static final class PortRecordingSocketFactory implements RMIServerSocketFactory {
+        private volatile int port;
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            ServerSocket socket = new ServerSocket(port);
+            this.port = socket.getLocalPort();
+            return socket;
+        }
+    }
+}
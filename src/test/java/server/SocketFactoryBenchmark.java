@@ -0,0 +1,87 @@
+package server;
+
+import java.rmi.RemoteException;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loopback comparison of the default RMI sockets with the tuned socket
+ * factories, with and without compression: latency per call and bytes on the
+ * wire per call, for single conversions and 500-item batches. Run with:
+ *
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=server.SocketFactoryBenchmark
+ * </pre>
+ */
+public class SocketFactoryBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int SINGLE_CALLS = 20_000;
+    private static final int BATCH_CALLS = 500;
+    private static final int BATCH_SIZE = 500;
+
+    private static final String[] ZONES = { "America/New_York", "Europe/London", "Asia/Tokyo", "Australia/Sydney",
+            "Asia/Kolkata", "America/Los_Angeles", "Europe/Berlin", "UTC" };
+
+    public static void main(String[] args) throws Exception {
+        List<ConversionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(new ConversionRequest(String.format("2024-06-%02d %02d:15:00", 1 + i % 28, i % 24),
+                    ZONES[i % ZONES.length], ZONES[(i * 3 + 1) % ZONES.length]));
+        }
+
+        System.out.printf("%-22s %14s %14s %16s %16s%n", "sockets", "single us/call", "batch us/call",
+                "single bytes/call", "batch bytes/call");
+        run("default", null, batch);
+        run("tuned", new SocketTuning(true, true, 256 * 1024, 256 * 1024, false), batch);
+        run("tuned + compression", new SocketTuning(true, true, 256 * 1024, 256 * 1024, true), batch);
+    }
+
+    private static void run(String name, SocketTuning tuning, List<ConversionRequest> batch) throws Exception {
+        TunedServerSocketFactory serverFactory = tuning != null ? new TunedServerSocketFactory(tuning) : null;
+        RMIClientSocketFactory clientFactory = tuning != null ? new TunedClientSocketFactory(tuning) : null;
+        TimeZoneConverterImpl impl = new TimeZoneConverterImpl(new ConversionEngine(), RequestDispatcher.direct(),
+                0, clientFactory, serverFactory);
+        try {
+            TimeZoneConverter stub = (TimeZoneConverter) UnicastRemoteObject.toStub(impl);
+            for (int i = 0; i < WARMUP; i++) {
+                single(stub, i);
+            }
+            stub.convertBatch(batch);
+
+            long bytes = wireBytes(serverFactory);
+            long start = System.nanoTime();
+            for (int i = 0; i < SINGLE_CALLS; i++) {
+                single(stub, i);
+            }
+            double singleMicros = (System.nanoTime() - start) / 1000.0 / SINGLE_CALLS;
+            double singleBytes = (double) (wireBytes(serverFactory) - bytes) / SINGLE_CALLS;
+
+            bytes = wireBytes(serverFactory);
+            start = System.nanoTime();
+            for (int i = 0; i < BATCH_CALLS; i++) {
+                stub.convertBatch(batch);
+            }
+            double batchMicros = (System.nanoTime() - start) / 1000.0 / BATCH_CALLS;
+            double batchBytes = (double) (wireBytes(serverFactory) - bytes) / BATCH_CALLS;
+
+            System.out.printf("%-22s %14.1f %14.1f %16s %16s%n", name, singleMicros, batchMicros,
+                    serverFactory != null ? String.format("%.0f", singleBytes) : "n/a",
+                    serverFactory != null ? String.format("%.0f", batchBytes) : "n/a");
+        } finally {
+            UnicastRemoteObject.unexportObject(impl, true);
+        }
+    }
+
+    private static void single(TimeZoneConverter stub, int i) throws RemoteException {
+        stub.convertTime("2024-06-01 12:15:00", ZONES[i % ZONES.length], ZONES[(i + 3) % ZONES.length]);
+    }
+
+    // Without tuned sockets there is nothing to count; the uncompressed
+    // tuned row shows the same wire format as the default sockets.
+    private static long wireBytes(TunedServerSocketFactory factory) {
+        return factory == null ? 0 : factory.getBytesRead() + factory.getBytesWritten();
+    }
+}
@@ -0,0 +1,71 @@
+package server;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class TimeZoneConverterImplTest extends TestCase {
+
+    public void testBatchMatchesSingleCalls() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        List<ConversionRequest> requests = Arrays.asList(
+                new ConversionRequest("2024-03-10 02:30:00", "America/New_York", "UTC"),
+                new ConversionRequest("2024-03-10 02:30:00", "America/New_York", "Asia/Tokyo"),
+                new ConversionRequest("2024-10-27 01:30:00", "Europe/London", "America/New_York"));
+
+        List<ConversionResult> results = converter.convertBatch(requests);
+
+        assertEquals(requests.size(), results.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ConversionRequest request = requests.get(i);
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(converter.convertTime(request.getTime(), request.getFromZone(), request.getToZone()),
+                    results.get(i).getResult());
+        }
+    }
+
+    public void testBadItemDoesNotFailBatch() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        List<ConversionResult> results = converter.convertBatch(Arrays.asList(
+                new ConversionRequest("2024-01-01 00:00:00", "UTC", "Asia/Kolkata"),
+                new ConversionRequest("2024-01-01 00:00:00", "Not/AZone", "UTC"),
+                new ConversionRequest("", "UTC", "UTC"),
+                null,
+                new ConversionRequest("2024-01-01 00:00:00", "Not/AZone", "Asia/Kolkata")));
+
+        assertEquals("2024-01-01 05:30:00", results.get(0).getResult());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getError().startsWith("Error converting time: "));
+        assertEquals("Time string cannot be null or empty", results.get(2).getError());
+        assertFalse(results.get(3).isSuccess());
+        assertEquals(results.get(1).getError(), results.get(4).getError());
+        // The invalid zone was resolved (and rejected) only once for the batch.
+        assertEquals(0, converter.getEngine().getZoneCache().getNegativeHits());
+    }
+
+    public void testPackedConversionMatchesStringConversion() throws Exception {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        List<String> table = Arrays.asList(converter.getZoneTable());
+        int newYork = table.indexOf("America/New_York");
+        int tokyo = table.indexOf("Asia/Tokyo");
+
+        long packed = PackedDateTime.pack(2024, 3, 10, 2, 30, 0);
+        long converted = converter.convertPacked(packed, newYork, tokyo);
+
+        assertEquals(converter.convertTime("2024-03-10 02:30:00", "America/New_York", "Asia/Tokyo"),
+                PackedDateTime.unpack(converted).format(ConversionEngine.FORMATTER));
+        long epochSecond = converter.toEpochSecond(packed, newYork);
+        assertEquals(converted, converter.fromEpochSecond(epochSecond, tokyo));
+    }
+
+    public void testInvalidZoneIndexIsRejected() {
+        TimeZoneConverterImpl converter = TimeZoneConverterImpl.createInstance();
+        try {
+            converter.convertPacked(PackedDateTime.pack(2024, 1, 1, 0, 0, 0), -1, 0);
+            fail("Expected RemoteException");
+        } catch (java.rmi.RemoteException e) {
+            assertEquals("Invalid zone index: -1", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package server;
+
+import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class TunedSocketFactoryTest extends TestCase {
+
+    public void testRoundTripWithCompression() throws Exception {
+        SocketTuning tuning = new SocketTuning(true, true, 64 * 1024, 64 * 1024, true);
+        TunedServerSocketFactory serverFactory = new TunedServerSocketFactory(tuning);
+        TimeZoneConverterImpl impl = new TimeZoneConverterImpl(new ConversionEngine(), RequestDispatcher.direct(),
+                0, new TunedClientSocketFactory(tuning), serverFactory);
+        try {
+            TimeZoneConverter stub = (TimeZoneConverter) UnicastRemoteObject.toStub(impl);
+            assertEquals("2024-01-15 17:00:00", stub.convertTime("2024-01-15 12:00:00", "America/New_York", "UTC"));
+
+            List<ConversionRequest> batch = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                batch.add(new ConversionRequest("2024-01-15 12:00:00", "America/New_York", "Europe/Paris"));
+            }
+            long before = serverFactory.getBytesWritten();
+            List<ConversionResult> results = stub.convertBatch(batch);
+            long written = serverFactory.getBytesWritten() - before;
+
+            assertEquals(1000, results.size());
+            assertEquals("2024-01-15 18:00:00", results.get(999).getResult());
+            // 1000 near-identical results deflate to a small fraction of their serialized size.
+            assertTrue("compressed response was " + written + " bytes", written < 10_000);
+        } finally {
+            UnicastRemoteObject.unexportObject(impl, true);
+        }
+    }
+
+    public void testEqualTuningGivesEqualFactories() {
+        SocketTuning a = new SocketTuning(true, false, 0, 0, true);
+        SocketTuning b = new SocketTuning(true, false, 0, 0, true);
+        assertEquals(new TunedClientSocketFactory(a), new TunedClientSocketFactory(b));
+        assertEquals(new TunedClientSocketFactory(a).hashCode(), new TunedClientSocketFactory(b).hashCode());
+        assertFalse(new TunedClientSocketFactory(a).equals(
+                new TunedClientSocketFactory(new SocketTuning(true, false, 0, 0, false))));
+    }
+}
@@ -0,0 +1,202 @@
+package server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.rmi.server.UnicastRemoteObject;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+public class TzDataTest extends TestCase {
+
+    private static final String LONDON = "Europe/London";
+
+    private Path dir;
+
+    @Override
+    protected void setUp() throws Exception {
+        dir = Files.createTempDirectory("tzdata");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    public void testReadsTheJdkTzdbFile() throws Exception {
+        TzData jdk = TzData.load(Paths.get(System.getProperty("java.home"), "lib", "tzdb.dat"));
+
+        assertEquals(TzData.system().getVersion(), jdk.getVersion());
+        assertFalse(jdk.isSystem());
+        assertTrue(jdk.size() > 400);
+        for (String zone : Arrays.asList(LONDON, "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata")) {
+            assertEquals(zone, ZoneId.of(zone).getRules(), jdk.rules(ZoneId.of(zone)));
+        }
+    }
+
+    public void testWrittenFileReadsBack() throws Exception {
+        Map<String, ZoneRules> rules = testRules();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TzdbFile.write(out, "2099z", rules);
+
+        TzData read = TzdbFile.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals("2099z", read.getVersion());
+        assertEquals(rules.size(), read.size());
+        for (Map.Entry<String, ZoneRules> entry : rules.entrySet()) {
+            assertEquals(entry.getValue(), read.rules(ZoneId.of(entry.getKey())));
+        }
+        // Zones the file does not cover keep the JVM's rules.
+        assertEquals(ZoneId.of("Asia/Tokyo").getRules(), read.rules(ZoneId.of("Asia/Tokyo")));
+        assertEquals(ZoneOffset.UTC.getRules(), read.rules(ZoneOffset.UTC));
+    }
+
+    public void testRejectsOtherFiles() throws Exception {
+        Path file = dir.resolve("tzdb.dat");
+        Files.write(file, "not a tzdb file".getBytes("UTF-8"));
+        try {
+            TzData.load(file);
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+    }
+
+    public void testReloadChangesConversionsAndVersion() throws Exception {
+        ConversionEngine initial = new ConversionEngine(new ZoneCache(), new ZoneTable(), new OffsetTables(),
+                new ResultCache(100));
+        TimeZoneConverterImpl converter = new TimeZoneConverterImpl(initial);
+        LiveEngine engine = converter.getLiveEngine();
+        assertEquals(TzData.system().getVersion(), converter.getTzDataVersion());
+        assertEquals("2024-07-01 11:00:00", converter.convertTime("2024-07-01 12:00:00", LONDON, "UTC"));
+
+        assertTrue(engine.reload(TzData.of("2099z", testRules())));
+
+        assertEquals("2099z", converter.getTzDataVersion());
+        assertNotSame(initial, converter.getEngine());
+        // Cached under the old version, so not served from the result cache.
+        assertEquals("2024-07-01 07:00:00", converter.convertTime("2024-07-01 12:00:00", LONDON, "UTC"));
+        List<ConversionResult> batch = converter.convertBatch(
+                Arrays.asList(new ConversionRequest("2024-07-01 12:00:00", LONDON, "UTC")));
+        assertEquals("2024-07-01 07:00:00", batch.get(0).getResult());
+        // Beyond the offset tables, the fallback uses the loaded rules too.
+        assertEquals("2250-01-01 07:00:00", converter.convertTime("2250-01-01 12:00:00", LONDON, "UTC"));
+        RangePage page = converter.convertRange(
+                new RangeRequest("2024-07-01 12:00:00", "2024-07-01 13:00:00", 3600, "UTC", Arrays.asList(LONDON)),
+                0, 10);
+        assertEquals("2024-07-01 17:00:00", page.getSlots().get(0).getTargetTime(0));
+
+        assertFalse("same version is not reloaded", engine.reload(TzData.of("2099z", new HashMap<>())));
+        assertTrue(engine.reload(TzData.system()));
+        assertEquals("2024-07-01 11:00:00", converter.convertTime("2024-07-01 12:00:00", LONDON, "UTC"));
+    }
+
+    public void testReloadWarmsTablesOfZonesInUse() {
+        LiveEngine engine = new LiveEngine(new ConversionEngine());
+        engine.get().convert("2024-07-01 12:00:00", LONDON, "Asia/Tokyo");
+
+        engine.reload(TzData.of("2099z", testRules()));
+
+        assertEquals(2, engine.get().getOffsetTables().size());
+    }
+
+    public void testCallsNeverMixVersions() throws Exception {
+        LiveEngine engine = new LiveEngine(new ConversionEngine());
+        TzData system = TzData.system();
+        TzData changed = TzData.of("2099z", testRules());
+        TimeZoneConverterImpl converter = new TimeZoneConverterImpl(engine, RequestDispatcher.direct(), 0, null, null);
+        AtomicReference<String> unexpected = new AtomicReference<>();
+        Thread[] callers = new Thread[4];
+        for (int t = 0; t < callers.length; t++) {
+            callers[t] = new Thread(() -> {
+                List<ConversionRequest> requests = Arrays.asList(
+                        new ConversionRequest("2024-07-01 12:00:00", LONDON, "UTC"),
+                        new ConversionRequest("2024-07-01 12:00:00", "UTC", LONDON));
+                try {
+                    for (int i = 0; i < 2_000; i++) {
+                        List<ConversionResult> results = converter.convertBatch(requests);
+                        String pair = results.get(0).getResult() + "|" + results.get(1).getResult();
+                        if (!pair.equals("2024-07-01 11:00:00|2024-07-01 13:00:00")
+                                && !pair.equals("2024-07-01 07:00:00|2024-07-01 17:00:00")) {
+                            unexpected.set(pair);
+                        }
+                    }
+                } catch (Exception e) {
+                    unexpected.set(e.toString());
+                }
+            });
+            callers[t].start();
+        }
+        try {
+            for (int i = 0; i < 200; i++) {
+                engine.reload(i % 2 == 0 ? changed : system);
+            }
+            for (Thread caller : callers) {
+                caller.join();
+            }
+        } finally {
+            UnicastRemoteObject.unexportObject(converter, true);
+        }
+        assertNull(unexpected.get(), unexpected.get());
+    }
+
+    public void testWatcherLoadsChangedFile() throws Exception {
+        Path file = dir.resolve("tzdb.dat");
+        LiveEngine engine = new LiveEngine(new ConversionEngine());
+        TzDataWatcher watcher = new TzDataWatcher(file, engine);
+        assertFalse("missing file is ignored", watcher.check());
+
+        write(file, "2099y", 1_000);
+        assertTrue(watcher.check());
+        assertEquals("2099y", engine.getTzDataVersion());
+        assertFalse("unchanged file is not reloaded", watcher.check());
+
+        write(file, "2099z", 2_000);
+        assertTrue(watcher.check());
+        assertEquals("2099z", engine.getTzDataVersion());
+        assertEquals("2024-07-01 07:00:00", engine.get().convert("2024-07-01 12:00:00", LONDON, "UTC"));
+
+        Files.write(file, new byte[] { 1, 2, 3 });
+        Files.setLastModifiedTime(file, FileTime.fromMillis(3_000));
+        try {
+            watcher.check();
+            fail("Expected IOException");
+        } catch (IOException expected) {
+        }
+        assertEquals("broken file keeps the active rules", "2099z", engine.getTzDataVersion());
+        assertFalse("broken file is reported once", watcher.check());
+    }
+
+    private static void write(Path file, String version, long modified) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            TzdbFile.write(out, version, testRules());
+        }
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+    }
+
+    /** London moved to a permanent +05:00, New York as it is. */
+    private static Map<String, ZoneRules> testRules() {
+        Map<String, ZoneRules> rules = new HashMap<>();
+        rules.put(LONDON, ZoneRules.of(ZoneOffset.ofHours(5)));
+        rules.put("America/New_York", ZoneId.of("America/New_York").getRules());
+        return rules;
+    }
+}
@@ -0,0 +1,190 @@
+package server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class WireFormatTest extends TestCase {
+
+    public void testRequestRoundTrip() throws Exception {
+        assertRoundTrip(new ConversionRequest("2024-03-10 02:30:00", "America/New_York", "Europe/London"));
+        assertRoundTrip(new ConversionRequest("1900-01-01 00:00:00", "UTC", "UTC"));
+        assertRoundTrip(new ConversionRequest("0000-01-01 00:00:00", "UTC", "UTC"));
+        assertRoundTrip(new ConversionRequest("9999-12-31 23:59:59", "UTC", "UTC"));
+        // Non-canonical input must reach the server unchanged so it can reject it as before.
+        assertRoundTrip(new ConversionRequest("2024-02-30 10:00:00", "UTC", "Asia/Tokyo"));
+        assertRoundTrip(new ConversionRequest("2024-1-1 10:00", "Not/AZone", ""));
+        assertRoundTrip(new ConversionRequest("  ", null, "Europe/Paris"));
+        assertRoundTrip(new ConversionRequest(null, null, null));
+    }
+
+    public void testResultRoundTrip() throws Exception {
+        ConversionResult success = roundTrip(ConversionResult.success("2024-07-01 09:15:00"));
+        assertTrue(success.isSuccess());
+        assertEquals("2024-07-01 09:15:00", success.getResult());
+
+        ConversionResult odd = roundTrip(ConversionResult.success("+10000-01-01 00:00:00"));
+        assertEquals("+10000-01-01 00:00:00", odd.getResult());
+
+        ConversionResult failure = roundTrip(ConversionResult.failure("Unknown time-zone ID: Mars/Olympus"));
+        assertFalse(failure.isSuccess());
+        assertEquals("Unknown time-zone ID: Mars/Olympus", failure.getError());
+    }
+
+    public void testRangeRequestRoundTrip() throws Exception {
+        RangeRequest request = roundTrip(new RangeRequest("2024-03-01 00:00:00", "2024-04-01 00:00:00", 3600,
+                "Europe/Berlin", Arrays.asList("UTC", "Asia/Tokyo", "Europe/Berlin")));
+        assertEquals("2024-03-01 00:00:00", request.getStart());
+        assertEquals("2024-04-01 00:00:00", request.getEnd());
+        assertEquals(3600, request.getStepSeconds());
+        assertEquals("Europe/Berlin", request.getFromZone());
+        assertEquals(Arrays.asList("UTC", "Asia/Tokyo", "Europe/Berlin"), request.getToZones());
+
+        RangeRequest empty = roundTrip(new RangeRequest(null, "x", -5, null, null));
+        assertNull(empty.getStart());
+        assertEquals("x", empty.getEnd());
+        assertEquals(-5, empty.getStepSeconds());
+        assertNull(empty.getToZones());
+    }
+
+    public void testRangePageRoundTrip() throws Exception {
+        RangeRequest request = new RangeRequest("2024-03-30 00:00:00", "2024-04-01 00:00:00", 1800, "Europe/London",
+                Arrays.asList("America/New_York", "Asia/Kolkata", "Australia/Lord_Howe"));
+        RangePage page = RangeConverter.create(new ConversionEngine(), request).page(0, 200);
+        RangePage copy = roundTrip(page);
+        assertEquals(page.getFirstSlot(), copy.getFirstSlot());
+        assertEquals(page.getTotalSlots(), copy.getTotalSlots());
+        assertEquals(page.getSlots().size(), copy.getSlots().size());
+        for (int i = 0; i < page.getSlots().size(); i++) {
+            RangeSlot expected = page.getSlots().get(i);
+            RangeSlot actual = copy.getSlots().get(i);
+            assertEquals(expected.getEpochSecond(), actual.getEpochSecond());
+            assertEquals(expected.getSourceTime(), actual.getSourceTime());
+            assertEquals(expected.isSourceTransition(), actual.isSourceTransition());
+            for (int t = 0; t < expected.getTargetCount(); t++) {
+                assertEquals(expected.getTargetTime(t), actual.getTargetTime(t));
+                assertEquals(expected.isTargetTransition(t), actual.isTargetTransition(t));
+            }
+        }
+    }
+
+    public void testZonesAreSpelledOutOncePerCompactList() throws Exception {
+        List<ConversionRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new ConversionRequest("2024-06-01 12:00:00", "America/Argentina/Buenos_Aires",
+                    i % 2 == 0 ? "Asia/Ho_Chi_Minh" : "Europe/London"));
+        }
+        // Per item: a time varint and two zone indexes, nowhere near the zone names.
+        byte[] compact = serialize(new ConversionRequestList(batch));
+        assertEquals(batch, deserialize(compact));
+        assertTrue("compact batch took " + compact.length + " bytes", compact.length < 1000 * 8);
+
+        // Each list numbers its zones afresh.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ConversionRequestList(batch.subList(0, 2)));
+            out.writeObject(new ConversionRequestList(batch.subList(1, 3)));
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(batch.subList(0, 2), in.readObject());
+            assertEquals(batch.subList(1, 3), in.readObject());
+        }
+    }
+
+    public void testStandaloneRequestsWriteZoneNamesInline() throws Exception {
+        ConversionRequest request = new ConversionRequest("2024-01-01 00:00:00", "UTC", "Asia/Tokyo");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(request);
+            out.writeObject(new ConversionRequest("2024-01-01 00:00:00", "Asia/Tokyo", "UTC"));
+        }
+        byte[] written = bytes.toByteArray();
+        String text = new String(written, StandardCharsets.ISO_8859_1);
+        // The second request does not refer back to the zones of the first.
+        assertEquals(2, text.split("Asia/Tokyo", -1).length - 1);
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(written))) {
+            assertEquals(request, in.readObject());
+            assertEquals(new ConversionRequest("2024-01-01 00:00:00", "Asia/Tokyo", "UTC"), in.readObject());
+        }
+    }
+
+    public void testCompactListsKeepNullsAndOrder() throws Exception {
+        List<ConversionRequest> requests = Arrays.asList(null,
+                new ConversionRequest("2024-01-01 00:00:00", "UTC", "Asia/Tokyo"), null, null,
+                new ConversionRequest("bad", "Asia/Tokyo", null), null);
+        List<?> copy = (List<?>) roundTrip(new ConversionRequestList(requests));
+        assertTrue(copy instanceof ConversionRequestList);
+        assertEquals(requests, copy);
+        assertEquals(0, ((List<?>) roundTrip(new ConversionRequestList(new ArrayList<>()))).size());
+
+        List<ConversionResult> results = Arrays.asList(ConversionResult.success("2024-01-01 09:00:00"),
+                ConversionResult.failure("Time string cannot be null or empty"));
+        List<?> resultCopy = (List<?>) roundTrip(new ConversionResultList(results));
+        assertEquals("2024-01-01 09:00:00", ((ConversionResult) resultCopy.get(0)).getResult());
+        assertEquals("Time string cannot be null or empty", ((ConversionResult) resultCopy.get(1)).getError());
+    }
+
+    public void testRejectsUnknownVersion() throws Exception {
+        byte[] bytes = serialize(new ConversionRequest("2024-01-01 00:00:00", "UTC", "UTC"));
+        // The payload follows the class descriptor; its first byte is the version.
+        int index = indexOfVersion(bytes);
+        bytes[index] = (byte) (WireFormat.VERSION + 1);
+        try {
+            deserialize(bytes);
+            fail("expected InvalidObjectException");
+        } catch (InvalidObjectException expected) {
+            assertTrue(expected.getMessage().contains("version"));
+        }
+    }
+
+    public void testCanonicalTimeParsing() {
+        assertEquals(Long.MIN_VALUE, WireFormat.parseCanonical("2023-02-29 00:00:00"));
+        assertEquals(Long.MIN_VALUE, WireFormat.parseCanonical("2024-13-01 00:00:00"));
+        assertEquals(Long.MIN_VALUE, WireFormat.parseCanonical("2024-01-01T00:00:00"));
+        assertEquals(Long.MIN_VALUE, WireFormat.parseCanonical("2024-01-01 24:00:00"));
+        long leapDay = WireFormat.parseCanonical("2024-02-29 23:59:59");
+        assertEquals("2024-02-29 23:59:59", WireFormat.formatCanonical(leapDay));
+    }
+
+    private static int indexOfVersion(byte[] bytes) throws IOException {
+        // The externalizable block data starts with TC_BLOCKDATA (0x77) and a length byte.
+        for (int i = bytes.length - 1; i > 0; i--) {
+            if (bytes[i - 1] == 0x77 && bytes[i] > 0 && i + 1 < bytes.length && bytes[i + 1] == WireFormat.VERSION) {
+                return i + 1;
+            }
+        }
+        throw new IOException("version byte not found");
+    }
+
+    private static void assertRoundTrip(ConversionRequest request) throws Exception {
+        assertEquals(request, roundTrip(request));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T value) throws Exception {
+        return (T) deserialize(serialize(value));
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
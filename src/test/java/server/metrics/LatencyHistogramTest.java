@@ -0,0 +1,85 @@
+package server.metrics;
+
+import junit.framework.TestCase;
+
+public class LatencyHistogramTest extends TestCase {
+
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100; v++) {
+            histogram.record(v);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+    }
+
+    public void testLargeValuesKeepRelativePrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = { 2_048, 12_345, 987_654, 3_000_000_000L };
+        for (long v : values) {
+            LatencyHistogram single = new LatencyHistogram();
+            single.record(v);
+            long reported = single.getValueAtPercentile(50);
+            assertTrue(v + " reported as " + reported, Math.abs(reported - v) <= v / 1000);
+            histogram.record(v);
+        }
+        assertEquals(3_000_000_000L, histogram.getMax());
+    }
+
+    public void testIndexRoundTrip() {
+        for (long v = 0; v < 1_000_000; v += 7) {
+            int index = LatencyHistogram.indexFor(v);
+            assertTrue(v <= LatencyHistogram.highestEquivalentValue(index));
+            if (index > 0) {
+                assertTrue(v > LatencyHistogram.highestEquivalentValue(index - 1));
+            }
+        }
+    }
+
+    public void testValuesAboveMaximumAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000);
+        histogram.record(5_000_000);
+        assertEquals(1_000_000, histogram.getMax());
+    }
+
+    public void testCoordinatedOmissionCorrection() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // One 100ms stall while calls were expected every 10ms: the nine
+        // calls that could not be sent are back-filled at 90, 80, ... 10ms.
+        histogram.recordCorrected(100_000_000, 10_000_000);
+        assertEquals(10, histogram.getCount());
+        assertTrue(histogram.getValueAtPercentile(50) >= 50_000_000);
+    }
+
+    public void testAddMergesCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(20);
+        b.record(30);
+        a.add(b);
+        assertEquals(3, a.getCount());
+        assertEquals(30, a.getMax());
+        assertEquals(20, a.getValueAtPercentile(50));
+    }
+
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount());
+    }
+}
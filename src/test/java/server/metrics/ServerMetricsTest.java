@@ -0,0 +1,128 @@
+package server.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.rmi.RemoteException;
+import java.util.concurrent.CountDownLatch;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+import server.RequestDispatcher;
+import server.ResultCache;
+import server.ServerConfig;
+import server.ServerOverloadedException;
+
+public class ServerMetricsTest extends TestCase {
+
+    public void testRecordsOutcomesPerMethod() throws Exception {
+        ServerMetrics metrics = new ServerMetrics(1);
+        RequestDispatcher dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.DIRECT, 0, 0, metrics);
+
+        assertEquals("ok", dispatcher.execute("convertTime", () -> "ok"));
+        assertEquals("ok", dispatcher.execute("convertTime", () -> "ok"));
+        try {
+            dispatcher.execute("convertTime", () -> {
+                throw new RemoteException("bad zone");
+            });
+            fail("Expected RemoteException");
+        } catch (RemoteException expected) {
+        }
+        dispatcher.execute("getZoneTable", () -> null);
+
+        MethodMetrics convert = metrics.method("convertTime");
+        assertEquals(2, convert.getSuccessCount());
+        assertEquals(1, convert.getErrorCount());
+        assertEquals(0, convert.getInFlight());
+        assertEquals(3, convert.getLatencies().getCount());
+        assertEquals(4, metrics.getTotalCalls());
+        assertEquals(1, metrics.getTotalErrors());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(2, metrics.getMethods().length);
+    }
+
+    public void testRejectedCallsAreCountedSeparately() throws Exception {
+        ServerMetrics metrics = new ServerMetrics(1);
+        RequestDispatcher dispatcher = RequestDispatcher.create(ServerConfig.ExecutorMode.PLATFORM, 1, 0, metrics);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread blocker = new Thread(() -> {
+            try {
+                dispatcher.execute("convertTime", () -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (RemoteException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        blocker.start();
+        while (dispatcher.getAccepted() == 0) {
+            Thread.sleep(1);
+        }
+        try {
+            dispatcher.execute("convertTime", () -> "too many");
+            fail("Expected ServerOverloadedException");
+        } catch (ServerOverloadedException expected) {
+        }
+        release.countDown();
+        blocker.join();
+        dispatcher.shutdown();
+
+        MethodMetrics convert = metrics.method("convertTime");
+        assertEquals(1, convert.getRejectedCount());
+        assertEquals(1, convert.getSuccessCount());
+        assertEquals(1, convert.getLatencies().getCount());
+        assertEquals(0, metrics.getInFlight());
+    }
+
+    public void testHotZonePairsAreRankedAndBounded() {
+        ServerMetrics metrics = new ServerMetrics(1);
+        for (int i = 0; i < 5; i++) {
+            metrics.recordZonePair("UTC", "Asia/Tokyo");
+        }
+        metrics.recordZonePair("Europe/Paris", "UTC");
+        for (int i = 0; i < ServerMetrics.MAX_ZONE_PAIRS * 2; i++) {
+            metrics.recordZonePair("Zone" + i, "UTC");
+        }
+        String[] hot = metrics.getHotZonePairs();
+        assertEquals("UTC -> Asia/Tokyo: 5", hot[0]);
+        assertTrue(hot.length <= 10);
+        assertTrue(metrics.dump().contains("UTC -> Asia/Tokyo: 5"));
+    }
+
+    public void testMBeansAreRegistered() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ServerMetrics metrics = new ServerMetrics(1);
+        metrics.method("convertTime").enter();
+        metrics.method("convertTime").success(1_000);
+        metrics.registerMBeans(server);
+        metrics.method("convertBatch");
+
+        assertEquals(1L, server.getAttribute(new ObjectName("server:type=ServerMetrics"), "TotalCalls"));
+        assertEquals(1L, server.getAttribute(new ObjectName("server:type=RemoteMethod,name=\"convertTime\""),
+                "SuccessCount"));
+        assertTrue(server.isRegistered(new ObjectName("server:type=RemoteMethod,name=\"convertBatch\"")));
+        assertNotNull(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public void testComponentsAreRegisteredAndDumped() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ServerMetrics metrics = new ServerMetrics(1);
+        ResultCache cache = new ResultCache(10);
+        metrics.addComponent("ResultCache", cache);
+        metrics.registerMBeans(server);
+        cache.get("a", "UTC", "UTC", 1);
+        cache.put("a", "UTC", "UTC", 1, "A");
+        cache.get("a", "UTC", "UTC", 1);
+
+        ObjectName name = new ObjectName("server:type=ResultCache");
+        assertEquals(0.5, server.getAttribute(name, "HitRatio"));
+        assertEquals(1, server.getAttribute(name, "Size"));
+        assertTrue(metrics.dump().contains(cache.toString()));
+    }
+}